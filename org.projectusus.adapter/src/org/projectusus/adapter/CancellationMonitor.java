@@ -0,0 +1,26 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.adapter;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+/**
+ * passes on only the cancellation of a computation run, so that a batch can stop after the current file without reporting progress to
+ * the run's monitor, also on a worker thread.
+ */
+class CancellationMonitor extends NullProgressMonitor {
+
+    private final IProgressMonitor monitor;
+
+    CancellationMonitor( IProgressMonitor monitor ) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return super.isCanceled() || monitor.isCanceled();
+    }
+}
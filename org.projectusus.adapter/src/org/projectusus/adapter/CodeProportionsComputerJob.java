@@ -10,6 +10,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubProgressMonitor;
 import org.eclipse.core.runtime.jobs.Job;
@@ -22,6 +23,8 @@ public class CodeProportionsComputerJob extends Job {
 
     public static final Object FAMILY = new Object();
     private final ICodeProportionComputationTarget target;
+    private volatile boolean superseded;
+    private volatile JDTDriver driver;
 
     public CodeProportionsComputerJob( ICodeProportionComputationTarget target ) {
         super( codeProportionsComputerJob_name );
@@ -35,6 +38,29 @@ public class CodeProportionsComputerJob extends Job {
         return family == FAMILY;
     }
 
+    /**
+     * cancels this job because newer changes make its work obsolete. Unlike a cancellation by the user, which leaves the model marked for
+     * a full recompute, a superseded job leaves the model alone: whoever supersedes it has to compute its target again.
+     */
+    public void supersede() {
+        superseded = true;
+        cancel();
+    }
+
+    public boolean isSuperseded() {
+        return superseded;
+    }
+
+    /**
+     * hands changed files over to the running computation, which queues them ahead of the files it has not computed yet. Returns
+     * <code>false</code> if the changes contain deletions or removed projects, or if the computation is not running or about to finish;
+     * they then have to be computed by another job.
+     */
+    boolean takeOver( DeltaCodeProportionComputationTarget changes ) {
+        JDTDriver runningDriver = driver;
+        return !superseded && runningDriver != null && changes.hasChangedFilesOnly() && runningDriver.offer( changes.getAllChangedFiles() );
+    }
+
     @Override
     protected IStatus run( IProgressMonitor mo ) {
         IProgressMonitor monitor = mo == null ? new NullProgressMonitor() : mo;
@@ -48,8 +74,12 @@ public class CodeProportionsComputerJob extends Job {
             computeJavaCodeMetrics( new SubProgressMonitor( monitor, 700 ) );
         } catch( CoreException cex ) {
             result = cex.getStatus();
+        } catch( OperationCanceledException ocex ) {
+            result = Status.CANCEL_STATUS;
         } finally {
-            updateModel( result, new SubProgressMonitor( monitor, 300 ) );
+            if( !superseded ) {
+                updateModel( result, new SubProgressMonitor( monitor, 300 ) );
+            }
             monitor.done();
         }
         return result;
@@ -60,6 +90,15 @@ public class CodeProportionsComputerJob extends Job {
     }
 
     private void computeJavaCodeMetrics( IProgressMonitor monitor ) throws CoreException {
-        new JDTDriver( target ).run( monitor );
+        driver = createDriver( target );
+        try {
+            driver.run( monitor );
+        } finally {
+            driver = null;
+        }
+    }
+
+    protected JDTDriver createDriver( ICodeProportionComputationTarget computationTarget ) {
+        return new JDTDriver( computationTarget );
     }
 }
@@ -0,0 +1,61 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.adapter;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableSet;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+
+/**
+ * knows which files the user is looking at, so that a computation run computes them first: files open in editors, then files on the
+ * hotspots page shown, then recently changed files, then the rest. The UI keeps the sets up to date.
+ */
+public class ComputationPriorities {
+
+    static final int OPEN_EDITOR = 0;
+    static final int HOTSPOT = 1;
+    static final int RECENTLY_CHANGED = 2;
+    static final int OTHER = 3;
+
+    private static volatile Set<IFile> openFiles = emptySet();
+    private static volatile Set<IFile> hotspotFiles = emptySet();
+    private static volatile int version;
+
+    private ComputationPriorities() {
+        // no instances
+    }
+
+    public static synchronized void setOpenFiles( Collection<IFile> files ) {
+        openFiles = unmodifiableSet( new HashSet<IFile>( files ) );
+        version++;
+    }
+
+    public static synchronized void setHotspotFiles( Collection<IFile> files ) {
+        hotspotFiles = unmodifiableSet( new HashSet<IFile>( files ) );
+        version++;
+    }
+
+    /**
+     * changes whenever one of the sets changes, so that queued files can be ranked again.
+     */
+    static int version() {
+        return version;
+    }
+
+    static int priorityOf( IFile file, boolean recentlyChanged ) {
+        if( openFiles.contains( file ) ) {
+            return OPEN_EDITOR;
+        }
+        if( hotspotFiles.contains( file ) ) {
+            return HOTSPOT;
+        }
+        return recentlyChanged ? RECENTLY_CHANGED : OTHER;
+    }
+}
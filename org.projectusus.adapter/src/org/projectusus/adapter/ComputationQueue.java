@@ -0,0 +1,145 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.adapter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.core.resources.IFile;
+
+/**
+ * the files a computation run still has to compute, ordered by {@link ComputationPriorities}; within a priority, files queued later come
+ * first. Files queued again move to the position of their latest change.
+ * <p>
+ * Batches are taken from the head and hold files of one project and one priority only. The files of a batch are not handed out again
+ * before the batch is {@link #done(Collection) done}; if one is queued again meanwhile, it is computed once more afterwards. Once a batch
+ * is asked for while nothing is queued or being computed, the queue closes and refuses further files.
+ */
+class ComputationQueue {
+
+    private final TreeSet<Entry> entries = new TreeSet<Entry>();
+    private final Map<IFile, Entry> entriesByFile = new HashMap<IFile, Entry>();
+    private final Set<IFile> inProgress = new HashSet<IFile>();
+    private long sequence;
+    private int prioritiesVersion = ComputationPriorities.version();
+    private boolean closed;
+
+    synchronized boolean addAll( Collection<IFile> files, boolean recentlyChanged ) {
+        if( closed ) {
+            return false;
+        }
+        for( IFile file : files ) {
+            Entry previous = entriesByFile.remove( file );
+            if( previous != null ) {
+                entries.remove( previous );
+            }
+            Entry entry = new Entry( file, recentlyChanged || (previous != null && previous.recentlyChanged), sequence++ );
+            entries.add( entry );
+            entriesByFile.put( file, entry );
+        }
+        return true;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * up to <code>maxSize</code> files to compute next, an empty list if all queued files are still being computed, or <code>null</code>
+     * if the queue is closed.
+     */
+    synchronized List<IFile> nextBatch( int maxSize ) {
+        if( closed ) {
+            return null;
+        }
+        reorderIfPrioritiesChanged();
+        List<IFile> result = new ArrayList<IFile>();
+        Entry head = null;
+        for( Iterator<Entry> iterator = entries.iterator(); iterator.hasNext() && result.size() < maxSize; ) {
+            Entry entry = iterator.next();
+            if( head != null && entry.priority != head.priority ) {
+                break;
+            }
+            if( inProgress.contains( entry.file ) || (head != null && !entry.isInProjectOf( head )) ) {
+                continue;
+            }
+            if( head == null ) {
+                head = entry;
+            }
+            iterator.remove();
+            entriesByFile.remove( entry.file );
+            inProgress.add( entry.file );
+            result.add( entry.file );
+        }
+        if( result.isEmpty() && inProgress.isEmpty() ) {
+            closed = true;
+            return null;
+        }
+        return result;
+    }
+
+    synchronized void done( Collection<IFile> batch ) {
+        inProgress.removeAll( batch );
+    }
+
+    synchronized void close() {
+        closed = true;
+    }
+
+    // internal
+    // ////////
+
+    private void reorderIfPrioritiesChanged() {
+        int currentVersion = ComputationPriorities.version();
+        if( currentVersion == prioritiesVersion ) {
+            return;
+        }
+        prioritiesVersion = currentVersion;
+        List<Entry> reordered = new ArrayList<Entry>();
+        for( Entry entry : entries ) {
+            reordered.add( new Entry( entry.file, entry.recentlyChanged, entry.sequence ) );
+        }
+        entries.clear();
+        entries.addAll( reordered );
+        for( Entry entry : reordered ) {
+            entriesByFile.put( entry.file, entry );
+        }
+    }
+
+    private static class Entry implements Comparable<Entry> {
+        final IFile file;
+        final boolean recentlyChanged;
+        final int priority;
+        final long sequence;
+
+        Entry( IFile file, boolean recentlyChanged, long sequence ) {
+            this.file = file;
+            this.recentlyChanged = recentlyChanged;
+            this.priority = ComputationPriorities.priorityOf( file, recentlyChanged );
+            this.sequence = sequence;
+        }
+
+        boolean isInProjectOf( Entry other ) {
+            return file.getProject() == null ? other.file.getProject() == null : file.getProject().equals( other.file.getProject() );
+        }
+
+        public int compareTo( Entry other ) {
+            if( priority != other.priority ) {
+                return priority < other.priority ? -1 : 1;
+            }
+            if( sequence != other.sequence ) {
+                return sequence > other.sequence ? -1 : 1;
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.adapter;
+
+import static org.projectusus.adapter.TracingOption.RESOURCE_CHANGES;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.projectusus.core.statistics.UsusModelProvider;
+
+/**
+ * coalesces resource changes into as few computation runs as possible.
+ * <p>
+ * Changes are merged into one pending {@link DeltaCodeProportionComputationTarget}, so a file changed by several builds is computed only
+ * once. A run is started after the changes have settled for {@link #DEBOUNCE_DELAY} ms, but not later than {@link #MAX_DELAY} ms after the
+ * first pending change. At most one run is in flight. Changed files arriving meanwhile are handed over to it, so that it computes them
+ * before the files it has not reached yet; other changes wait for it. If they touch a file the running job computes, that job is
+ * superseded and its work is merged back under the newer changes.
+ */
+class ComputationScheduler {
+
+    static final long DEBOUNCE_DELAY = 300;
+    static final long MAX_DELAY = 2000;
+
+    private final Job launcher = new Launcher();
+    private DeltaCodeProportionComputationTarget pending = new DeltaCodeProportionComputationTarget();
+    private long firstPendingChange;
+    private boolean enabled;
+    private CodeProportionsComputerJob running;
+    private ICodeProportionComputationTarget runningTarget;
+    private DeltaCodeProportionComputationTarget handedOver = new DeltaCodeProportionComputationTarget();
+
+    synchronized void add( DeltaCodeProportionComputationTarget changes ) {
+        if( !changes.isNotEmpty() ) {
+            return;
+        }
+        if( running != null && running.takeOver( changes ) ) {
+            RESOURCE_CHANGES.trace( "Handed changes over to running computation" ); //$NON-NLS-1$
+            handedOver.add( changes );
+            return;
+        }
+        if( !pending.isNotEmpty() ) {
+            firstPendingChange = System.currentTimeMillis();
+        }
+        pending.add( changes );
+        cancelIfSupersededBy( changes );
+        scheduleLaunch();
+    }
+
+    synchronized void enable() {
+        enabled = true;
+        scheduleLaunch();
+    }
+
+    synchronized void disable() {
+        enabled = false;
+    }
+
+    // internal
+    // ////////
+
+    private void cancelIfSupersededBy( DeltaCodeProportionComputationTarget changes ) {
+        if( running != null && !running.isSuperseded() && runningTarget instanceof DeltaCodeProportionComputationTarget
+                && (((DeltaCodeProportionComputationTarget)runningTarget).isSupersededBy( changes ) || handedOver.isSupersededBy( changes )) ) {
+            RESOURCE_CHANGES.trace( "Cancelling superseded computation" ); //$NON-NLS-1$
+            running.supersede();
+        }
+    }
+
+    private void scheduleLaunch() {
+        if( !enabled || running != null || !pending.isNotEmpty() ) {
+            return;
+        }
+        if( System.currentTimeMillis() - firstPendingChange < MAX_DELAY ) {
+            launcher.cancel();
+        }
+        launcher.schedule( DEBOUNCE_DELAY );
+    }
+
+    private synchronized void launch() {
+        if( !enabled || running != null || !pending.isNotEmpty() ) {
+            return;
+        }
+        runningTarget = takePending();
+        running = createJob( runningTarget );
+        running.addJobChangeListener( new JobChangeAdapter() {
+            @Override
+            public void done( IJobChangeEvent event ) {
+                finished( (CodeProportionsComputerJob)event.getJob() );
+            }
+        } );
+        running.schedule();
+    }
+
+    private ICodeProportionComputationTarget takePending() {
+        ICodeProportionComputationTarget result = pending;
+        pending = new DeltaCodeProportionComputationTarget();
+        if( UsusModelProvider.ususModel().needsFullRecompute() ) {
+            result = new WorkspaceCodeProportionComputationTarget();
+        }
+        return result;
+    }
+
+    // a full recompute left unfinished is resumed rather than started over
+    private static CodeProportionsComputerJob createJob( ICodeProportionComputationTarget target ) {
+        if( target instanceof WorkspaceCodeProportionComputationTarget && RecomputeCheckpoint.isUnfinished() ) {
+            return new ForcedRecompute();
+        }
+        return new CodeProportionsComputerJob( target );
+    }
+
+    private synchronized void finished( CodeProportionsComputerJob job ) {
+        if( job.isSuperseded() ) {
+            DeltaCodeProportionComputationTarget requeued = (DeltaCodeProportionComputationTarget)runningTarget;
+            requeued.add( handedOver );
+            requeued.add( pending );
+            pending = requeued;
+        }
+        running = null;
+        runningTarget = null;
+        handedOver = new DeltaCodeProportionComputationTarget();
+        scheduleLaunch();
+    }
+
+    private class Launcher extends Job {
+
+        Launcher() {
+            super( CodeProportionsComputerJob.codeProportionsComputerJob_name );
+            setSystem( true );
+        }
+
+        @Override
+        protected IStatus run( IProgressMonitor monitor ) {
+            launch();
+            return Status.OK_STATUS;
+        }
+    }
+}
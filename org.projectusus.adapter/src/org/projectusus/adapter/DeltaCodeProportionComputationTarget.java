@@ -4,11 +4,13 @@
 // See http://www.eclipse.org/legal/epl-v10.html for details.
 package org.projectusus.adapter;
 
-import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -18,20 +20,38 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.runtime.CoreException;
 
+/**
+ * the files changed or deleted by one or more resource deltas, per project and without duplicates. Targets can be merged with
+ * {@link #add(DeltaCodeProportionComputationTarget)}, the later one winning if both know a file.
+ */
 public class DeltaCodeProportionComputationTarget implements ICodeProportionComputationTarget {
 
-    private final Map<IProject, List<IFile>> changes;
-    private final Map<IProject, List<IFile>> deletions;
-    private final List<IProject> removedProjects;
+    private final Map<IProject, Set<IFile>> changes = new LinkedHashMap<IProject, Set<IFile>>();
+    private final Map<IProject, Set<IFile>> deletions = new LinkedHashMap<IProject, Set<IFile>>();
+    private final Set<IProject> removedProjects = new LinkedHashSet<IProject>();
+
+    DeltaCodeProportionComputationTarget() {
+        super();
+    }
 
     public DeltaCodeProportionComputationTarget( List<IResourceDelta> deltas ) throws CoreException {
         ChangedResourcesCollector changeCollector = new ChangedResourcesCollector();
         for( IResourceDelta delta : deltas ) {
             delta.accept( changeCollector );
         }
-        removedProjects = changeCollector.getRemovedProjects();
-        changes = changeCollector.getChanges();
-        deletions = changeCollector.getDeletions();
+        for( IProject project : changeCollector.getRemovedProjects() ) {
+            addRemovedProject( project );
+        }
+        for( List<IFile> files : changeCollector.getChanges().values() ) {
+            for( IFile file : files ) {
+                addChangedFile( file );
+            }
+        }
+        for( List<IFile> files : changeCollector.getDeletions().values() ) {
+            for( IFile file : files ) {
+                addDeletedFile( file );
+            }
+        }
     }
 
     public DeltaCodeProportionComputationTarget( IResourceDelta delta ) throws CoreException {
@@ -60,13 +80,67 @@ public class DeltaCodeProportionComputationTarget implements ICodeProportionComp
     }
 
     public Collection<IProject> getRemovedProjects() {
-        return unmodifiableList( removedProjects );
+        return unmodifiableSet( removedProjects );
+    }
+
+    public boolean isNotEmpty() {
+        return !isEmpty();
+    }
+
+    void add( DeltaCodeProportionComputationTarget later ) {
+        for( IProject project : later.removedProjects ) {
+            addRemovedProject( project );
+        }
+        for( IFile file : allFilesIn( later.changes ) ) {
+            addChangedFile( file );
+        }
+        for( IFile file : allFilesIn( later.deletions ) ) {
+            addDeletedFile( file );
+        }
+    }
+
+    /**
+     * whether computing this target would be wasted work once the given later changes are known, because they touch a file or project
+     * this target computes.
+     */
+    boolean isSupersededBy( DeltaCodeProportionComputationTarget later ) {
+        for( IProject project : later.removedProjects ) {
+            if( changes.containsKey( project ) ) {
+                return true;
+            }
+        }
+        return containsAnyChanged( allFilesIn( later.changes ) ) || containsAnyChanged( allFilesIn( later.deletions ) );
+    }
+
+    boolean hasChangedFilesOnly() {
+        return !changes.isEmpty() && deletions.isEmpty() && removedProjects.isEmpty();
+    }
+
+    Collection<IFile> getAllChangedFiles() {
+        return allFilesIn( changes );
+    }
+
+    void addChangedFile( IFile file ) {
+        removeFromMap( file, deletions );
+        addToMap( file, changes );
+        removedProjects.remove( file.getProject() );
+    }
+
+    void addDeletedFile( IFile file ) {
+        removeFromMap( file, changes );
+        addToMap( file, deletions );
+    }
+
+    void addRemovedProject( IProject project ) {
+        changes.remove( project );
+        deletions.remove( project );
+        removedProjects.add( project );
     }
 
     // internal
     // /////////
 
-    private Collection<IFile> getFilesFrom( IProject project, Map<IProject, List<IFile>> collector ) {
+    private Collection<IFile> getFilesFrom( IProject project, Map<IProject, Set<IFile>> collector ) {
         List<IFile> result = new ArrayList<IFile>();
         if( collector.containsKey( project ) ) {
             result.addAll( collector.get( project ) );
@@ -74,8 +148,37 @@ public class DeltaCodeProportionComputationTarget implements ICodeProportionComp
         return result;
     }
 
-    public boolean isNotEmpty() {
-        return !isEmpty();
+    private boolean containsAnyChanged( Collection<IFile> files ) {
+        for( IFile file : files ) {
+            Set<IFile> changedFiles = changes.get( file.getProject() );
+            if( changedFiles != null && changedFiles.contains( file ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<IFile> allFilesIn( Map<IProject, Set<IFile>> collector ) {
+        List<IFile> result = new ArrayList<IFile>();
+        for( Set<IFile> files : collector.values() ) {
+            result.addAll( files );
+        }
+        return result;
+    }
+
+    private static void addToMap( IFile file, Map<IProject, Set<IFile>> collector ) {
+        IProject project = file.getProject();
+        if( !collector.containsKey( project ) ) {
+            collector.put( project, new LinkedHashSet<IFile>() );
+        }
+        collector.get( project ).add( file );
+    }
+
+    private static void removeFromMap( IFile file, Map<IProject, Set<IFile>> collector ) {
+        Set<IFile> files = collector.get( file.getProject() );
+        if( files != null && files.remove( file ) && files.isEmpty() ) {
+            collector.remove( file.getProject() );
+        }
     }
 
     private boolean isEmpty() {
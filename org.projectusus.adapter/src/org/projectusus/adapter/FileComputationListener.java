@@ -0,0 +1,58 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.adapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.projectusus.core.proportions.rawdata.jdtdriver.IFileComputationListener;
+
+/**
+ * tracks the files of one batch. Failures are only recorded here and handed to a {@link StatusCollector} later, so that a batch can run on a worker thread.
+ */
+class FileComputationListener implements IFileComputationListener {
+
+    private final JDTDriver driver;
+    private final IProgressMonitor monitor;
+    private final List<Throwable> failures = new ArrayList<Throwable>();
+    private final List<IFile> completedFiles = new ArrayList<IFile>();
+
+    FileComputationListener( JDTDriver driver, IProgressMonitor monitor ) {
+        this.driver = driver;
+        this.monitor = monitor;
+    }
+
+    public void fileStarted( IFile file ) {
+        driver.fileStarted( file );
+    }
+
+    public void fileFinished( IFile file ) {
+        driver.fileFinished( file );
+        completedFiles.add( file );
+        monitor.worked( 1 );
+    }
+
+    public void fileFailed( IFile file, Throwable throwable ) {
+        driver.fileFailed( file );
+        failures.add( throwable );
+        completedFiles.add( file );
+        monitor.worked( 1 );
+    }
+
+    /**
+     * the files of the batch which were finished or failed, unlike those not reached because the computation was cancelled.
+     */
+    List<IFile> getCompletedFiles() {
+        return completedFiles;
+    }
+
+    void reportFailuresTo( StatusCollector statusCollector ) {
+        for( Throwable failure : failures ) {
+            statusCollector.add( failure );
+        }
+    }
+}
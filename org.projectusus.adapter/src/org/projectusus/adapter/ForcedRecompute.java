@@ -6,13 +6,31 @@ package org.projectusus.adapter;
 
 import org.eclipse.core.resources.IProject;
 
+/**
+ * computes files again although they did not change. The workspace-wide recompute records its progress in a {@link RecomputeCheckpoint}, so
+ * that it resumes where it stopped if it was cancelled or did not survive the session.
+ */
 public class ForcedRecompute extends CodeProportionsComputerJob {
 
+    private final boolean resumable;
+
     public ForcedRecompute() {
         super( new WorkspaceCodeProportionComputationTarget() );
+        resumable = true;
     }
 
     public ForcedRecompute( IProject project ) {
         super( new ProjectCodeProportionComputationTarget( project ) );
+        resumable = false;
+    }
+
+    @Override
+    protected JDTDriver createDriver( ICodeProportionComputationTarget target ) {
+        JDTDriver driver = super.createDriver( target );
+        driver.recomputeUnchangedFiles();
+        if( resumable ) {
+            driver.resumeFrom( RecomputeCheckpoint.ofWorkspace() );
+        }
+        return driver;
     }
 }
@@ -0,0 +1,32 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.adapter;
+
+import org.projectusus.core.statistics.UsusModelProvider;
+
+/**
+ * the first computation of a session. It restores the raw data saved by the previous session and computes only the files that are not
+ * covered by it; if nothing could be restored, it computes the whole workspace. If the previous session left a {@link ForcedRecompute}
+ * unfinished, that recompute is resumed instead.
+ */
+public class InitialComputation extends CodeProportionsComputerJob {
+
+    public InitialComputation() {
+        super( new WorkspaceCodeProportionComputationTarget() );
+    }
+
+    @Override
+    protected JDTDriver createDriver( ICodeProportionComputationTarget target ) {
+        JDTDriver driver = super.createDriver( target );
+        boolean restored = UsusModelProvider.ususModelForAdapter().restoreRawData();
+        if( RecomputeCheckpoint.isUnfinished() ) {
+            driver.recomputeUnchangedFiles();
+            driver.resumeFrom( RecomputeCheckpoint.ofWorkspace() );
+        } else if( restored ) {
+            driver.skipRestoredFiles();
+        }
+        return driver;
+    }
+}
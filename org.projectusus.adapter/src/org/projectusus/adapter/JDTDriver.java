@@ -5,31 +5,85 @@
 package org.projectusus.adapter;
 
 import static org.projectusus.adapter.TracingOption.SQI;
+import static org.projectusus.core.util.FileSupport.isJavaFile;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.projectusus.core.ExtensionCollector;
 import org.projectusus.core.IUsusModelForAdapter;
 import org.projectusus.core.basis.YellowCountCache;
 import org.projectusus.core.metrics.MetricsCollector;
-import org.projectusus.core.proportions.rawdata.jdtdriver.JavaFileDriver;
+import org.projectusus.core.proportions.rawdata.jdtdriver.FileFingerprint;
+import org.projectusus.core.proportions.rawdata.jdtdriver.IFileComputationListener;
+import org.projectusus.core.proportions.rawdata.jdtdriver.JavaFileBatchDriver;
 import org.projectusus.core.statistics.UsusModelProvider;
-import org.projectusus.core.util.FileSupport;
 
 public class JDTDriver {
 
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final IUsusModelForAdapter model;
     private final ICodeProportionComputationTarget target;
+    private final int workerCount;
     private Set<MetricsCollector> allExtensions;
+    private ParallelFileComputation workers;
+    private final Map<IFile, String> pendingFingerprints = new ConcurrentHashMap<IFile, String>();
+    private boolean skipUnchangedFiles = true;
+    private boolean skipRestoredFiles;
+    private final Set<IFile> offeredFiles = Collections.newSetFromMap( new ConcurrentHashMap<IFile, Boolean>() );
+    private int partialResultsInterval;
+    private int fileCount;
+    private int filesSincePublished;
+    private IProject currentProject;
+    private final ComputationQueue queue = new ComputationQueue();
+    private RecomputeCheckpoint checkpoint;
+    private final Map<IProject, Set<IFile>> uncompletedFiles = new HashMap<IProject, Set<IFile>>();
 
     public JDTDriver( ICodeProportionComputationTarget target ) {
+        this( target, UsusAdapterPlugin.getDefault().getComputationThreads() );
+        partialResultsInterval = UsusAdapterPlugin.getDefault().getPartialResultsInterval();
+    }
+
+    public JDTDriver( ICodeProportionComputationTarget target, int workerCount ) {
         model = UsusModelProvider.ususModelForAdapter();
         this.target = target;
+        this.workerCount = workerCount;
+    }
+
+    /**
+     * computes all files of the target, even those whose fingerprint shows that their raw data is up to date.
+     */
+    public void recomputeUnchangedFiles() {
+        skipUnchangedFiles = false;
+    }
+
+    /**
+     * skips the files whose raw data was restored from the previous session without reading them: restoring has already checked that they
+     * did not change since. Files changed while this driver runs (see {@link #offer(Collection)}) are not skipped so.
+     */
+    public void skipRestoredFiles() {
+        skipRestoredFiles = true;
+    }
+
+    /**
+     * records in the checkpoint which projects and files this computation has completed, and skips the unchanged files an earlier,
+     * unfinished computation has recorded there. The checkpoint is dropped once this computation completes.
+     */
+    void resumeFrom( RecomputeCheckpoint recomputeCheckpoint ) {
+        checkpoint = recomputeCheckpoint;
     }
 
     public void run( IProgressMonitor monitor ) throws CoreException {
@@ -37,16 +91,45 @@ public class JDTDriver {
             model.dropRawData( removedProject );
             YellowCountCache.yellowCountCache().clear( removedProject );
         }
-        monitor.beginTask( null, countTicks( target.getProjects() ) );
-        for( IProject project : target.getProjects() ) {
-            monitor.subTask( project.getName() );
-            for( IFile removedFile : target.getRemovedFiles( project ) ) {
-                model.dropRawData( removedFile );
+        fileCount = countTicks( target.getProjects() );
+        monitor.beginTask( null, fileCount );
+        model.startRelationsBulkLoad();
+        try {
+            for( IProject project : target.getProjects() ) {
+                checkCanceled( monitor );
+                for( IFile removedFile : target.getRemovedFiles( project ) ) {
+                    model.dropRawData( removedFile );
+                }
+                YellowCountCache.yellowCountCache().add( project );
+                Collection<IFile> files = target.getFiles( project );
+                queue.addAll( files, false );
+                trackCompletion( project, files );
             }
-            YellowCountCache.yellowCountCache().add( project );
-            computeChangedFiles( allExtensions(), project, monitor );
+            StatusCollector statusCollector = new StatusCollector();
+            computeQueued( statusCollector, monitor );
+            checkCanceled( monitor );
+            statusCollector.finish();
+            if( checkpoint != null ) {
+                checkpoint.finish();
+            }
+        } finally {
+            model.finishRelationsBulkLoad();
+            queue.close();
+            if( checkpoint != null ) {
+                checkpoint.close();
+            }
+            shutdownWorkers();
+            monitor.done();
         }
-        monitor.done();
+    }
+
+    /**
+     * adds files changed while this driver runs to its queue, ahead of the files which did not change recently. Returns <code>false</code>
+     * if the driver has already finished its queue; the files then have to be computed by another run.
+     */
+    public boolean offer( Collection<IFile> changedFiles ) {
+        offeredFiles.addAll( changedFiles );
+        return queue.addAll( changedFiles, true );
     }
 
     private Set<MetricsCollector> allExtensions() {
@@ -64,42 +147,209 @@ public class JDTDriver {
         return result;
     }
 
-    private void computeChangedFiles( Set<MetricsCollector> metricsExtensions, IProject project, IProgressMonitor monitor ) throws CoreException {
-        Collection<IFile> files = target.getFiles( project );
-        if( !files.isEmpty() ) {
-            StatusCollector statusCollector = new StatusCollector();
-            runDriver( metricsExtensions, project, files, statusCollector, monitor );
-            statusCollector.finish();
+    private void computeQueued( StatusCollector statusCollector, IProgressMonitor monitor ) {
+        if( workerCount > 1 && queue.size() > 1 ) {
+            workers().computeAll( statusCollector, monitor );
+            return;
+        }
+        for( List<IFile> batch = nextBatch( monitor ); batch != null; batch = nextBatch( monitor ) ) {
+            FileComputationListener listener = new FileComputationListener( this, monitor );
+            computeBatch( allExtensions(), batch, listener, new CancellationMonitor( monitor ) );
+            listener.reportFailuresTo( statusCollector );
+            batchComputed( batch, listener.getCompletedFiles() );
         }
     }
 
-    private void runDriver( Set<MetricsCollector> metricsExtensions, IProject project, Collection<IFile> files, StatusCollector statusCollector, IProgressMonitor monitor ) {
-        computationStarted( project );
+    /**
+     * the files to compute next, without those restored from the previous session. The list is empty if all queued files are still being
+     * computed, and <code>null</code> if the queue is finished or the computation was cancelled. Whether a file is unchanged is left to
+     * {@link #computeBatch}, so that reading and fingerprinting the files is done by the workers.
+     */
+    List<IFile> nextBatch( IProgressMonitor monitor ) {
+        while( !monitor.isCanceled() ) {
+            List<IFile> files = queue.nextBatch( batchSize() );
+            if( files == null || files.isEmpty() ) {
+                return files;
+            }
+            List<IFile> result = filesNotRestored( files, monitor );
+            if( result.size() < files.size() ) {
+                List<IFile> skipped = new ArrayList<IFile>( files );
+                skipped.removeAll( result );
+                queue.done( skipped );
+                filesCompleted( skipped );
+            }
+            if( !result.isEmpty() ) {
+                computationStarted( result.get( 0 ).getProject(), monitor );
+                return result;
+            }
+        }
+        return null;
+    }
 
+    private List<IFile> filesNotRestored( List<IFile> files, IProgressMonitor monitor ) {
+        List<IFile> result = new ArrayList<IFile>();
         for( IFile file : files ) {
-            fileStarted( file );
-            runDriverOnFile( metricsExtensions, file, statusCollector, monitor );
+            if( isRestored( file ) ) {
+                SQI.trace( "File restored: " + file.getFullPath() ); //$NON-NLS-1$
+                monitor.worked( 1 );
+            } else {
+                result.add( file );
+            }
         }
+        return result;
     }
 
-    private void runDriverOnFile( Set<MetricsCollector> metricsExtensions, IFile file, StatusCollector statusCollector, IProgressMonitor monitor ) {
-        try {
-            if( FileSupport.isJavaFile( file ) && file.exists() ) {
-                new JavaFileDriver( file ).compute( metricsExtensions );
+    // the fingerprint of a file changed since restoring is that of the restored data; the file's content has to decide
+    private boolean isRestored( IFile file ) {
+        return skipRestoredFiles && !offeredFiles.contains( file ) && model.getFingerprint( file ) != null;
+    }
+
+    private boolean isUnchanged( IFile file, FileFingerprint fingerprint ) {
+        String current = isJavaFile( file ) ? fingerprint.of( file ) : null;
+        boolean skippable = skipUnchangedFiles || (checkpoint != null && checkpoint.isCompleted( file ));
+        if( skippable && current != null && current.equals( model.getFingerprint( file ) ) ) {
+            return true;
+        }
+        if( current != null ) {
+            pendingFingerprints.put( file, current );
+        }
+        return false;
+    }
+
+    /**
+     * computes the files of the batch which changed since their raw data was computed; the others are finished right away. Runs on a
+     * worker thread if there are workers.
+     */
+    void computeBatch( Set<MetricsCollector> metricsExtensions, Collection<IFile> batch, IFileComputationListener listener, IProgressMonitor cancellation ) {
+        new JavaFileBatchDriver( changedFiles( metricsExtensions, batch, listener ) ).compute( metricsExtensions, listener, cancellation );
+    }
+
+    // a fingerprint reuses its digest, so each batch takes its own
+    private List<IFile> changedFiles( Set<MetricsCollector> metricsExtensions, Collection<IFile> batch, IFileComputationListener listener ) {
+        FileFingerprint fingerprint = new FileFingerprint( metricsExtensions );
+        List<IFile> result = new ArrayList<IFile>();
+        for( IFile file : batch ) {
+            if( isUnchanged( file, fingerprint ) ) {
+                SQI.trace( "File unchanged: " + file.getFullPath() ); //$NON-NLS-1$
+                listener.fileFinished( file );
+            } else {
+                result.add( file );
             }
-        } catch( Exception ex ) {
-            statusCollector.add( ex );
-        } finally {
-            monitor.worked( 1 );
         }
+        return result;
     }
 
-    private void computationStarted( IProject project ) {
+    /**
+     * called on the thread running the driver after each batch, also if the batch was computed by a worker.
+     */
+    void batchComputed( List<IFile> batch, List<IFile> completedFiles ) {
+        queue.done( batch );
+        filesCompleted( completedFiles );
+        if( checkpoint != null ) {
+            checkpoint.save();
+        }
+        filesSincePublished += batch.size();
+        if( filesSincePublished >= partialResultsInterval ) {
+            publishPartialResults();
+        }
+    }
+
+    // long runs let the cockpit show what they have computed so far
+    private void publishPartialResults() {
+        if( partialResultsInterval > 0 && fileCount >= partialResultsInterval ) {
+            SQI.trace( "Publishing partial results after " + filesSincePublished + " files" ); //$NON-NLS-1$ //$NON-NLS-2$
+            model.updateDuringComputationRun();
+        }
+        filesSincePublished = 0;
+    }
+
+    private void trackCompletion( IProject project, Collection<IFile> files ) {
+        if( checkpoint != null && !files.isEmpty() ) {
+            Set<IFile> uncompleted = uncompletedFiles.get( project );
+            if( uncompleted == null ) {
+                uncompleted = new HashSet<IFile>();
+                uncompletedFiles.put( project, uncompleted );
+            }
+            uncompleted.addAll( files );
+        }
+    }
+
+    // the raw data is saved with each completed project, so that a resumption after a crash can restore it
+    private void filesCompleted( List<IFile> files ) {
+        if( checkpoint == null ) {
+            return;
+        }
+        for( IFile file : files ) {
+            checkpoint.fileCompleted( file );
+            IProject project = file.getProject();
+            Set<IFile> uncompleted = uncompletedFiles.get( project );
+            if( uncompleted != null && uncompleted.remove( file ) && uncompleted.isEmpty() ) {
+                uncompletedFiles.remove( project );
+                checkpoint.projectCompleted( project );
+                model.saveRawData();
+            }
+        }
+    }
+
+    static void checkCanceled( IProgressMonitor monitor ) {
+        if( monitor.isCanceled() ) {
+            throw new OperationCanceledException();
+        }
+    }
+
+    private int batchSize() {
+        int filesPerWorker = (queue.size() + workerCount - 1) / workerCount;
+        return Math.max( 1, Math.min( MAX_BATCH_SIZE, filesPerWorker ) );
+    }
+
+    private ParallelFileComputation workers() {
+        if( workers == null ) {
+            workers = new ParallelFileComputation( this, workerCount );
+        }
+        return workers;
+    }
+
+    private void shutdownWorkers() {
+        if( workers != null ) {
+            workers.shutdown();
+            workers = null;
+        }
+    }
+
+    // batches come in priority order, so a project may be started more than once
+    private void computationStarted( IProject project, IProgressMonitor monitor ) {
+        if( project.equals( currentProject ) ) {
+            return;
+        }
+        if( currentProject != null && filesSincePublished > 0 ) {
+            publishPartialResults();
+        }
+        currentProject = project;
         SQI.trace( "Computation started: " + project.toString() ); //$NON-NLS-1$
+        monitor.subTask( project.getName() );
     }
 
-    private void fileStarted( IFile file ) {
+    // the file's previous raw data stays visible until the new data is committed
+    void fileStarted( IFile file ) {
         SQI.trace( "File started: " + file.getFullPath() ); //$NON-NLS-1$
+    }
+
+    void fileFinished( IFile file ) {
+        String current = pendingFingerprints.remove( file );
+        if( current != null ) {
+            model.setFingerprint( file, current );
+        }
+    }
+
+    void fileFailed( IFile file ) {
+        pendingFingerprints.remove( file );
         model.dropRawData( file );
     }
+
+    /**
+     * forgets the fingerprint taken for a file which was not computed after all, so that its raw data is not taken as up to date.
+     */
+    void fileNotComputed( IFile file ) {
+        pendingFingerprints.remove( file );
+    }
 }
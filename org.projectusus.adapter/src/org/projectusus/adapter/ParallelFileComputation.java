@@ -0,0 +1,148 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.adapter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.projectusus.core.ExtensionCollector;
+import org.projectusus.core.metrics.MetricsCollector;
+
+/**
+ * spreads the file batches of a computation run over a bounded pool of worker threads, taking them from the driver's queue as workers
+ * become free.
+ * <p>
+ * Metrics collectors keep state while they visit an AST, so every worker gets its own collector instances. Progress reporting and error
+ * collection stay on the calling thread.
+ * <p>
+ * A batch whose worker fails as a whole is still handed back to the driver, with the files it had not completed marked as failed, so that
+ * they are no longer held as in progress and files changed meanwhile are computed again.
+ */
+class ParallelFileComputation {
+
+    private static final String WORKER_NAME = "Usus metrics computation worker"; //$NON-NLS-1$
+
+    private final JDTDriver driver;
+    private final ExecutorService executor;
+    private final int maxBatchesInFlight;
+    private final ThreadLocal<Set<MetricsCollector>> collectors = new ThreadLocal<Set<MetricsCollector>>() {
+        @Override
+        protected Set<MetricsCollector> initialValue() {
+            return createCollectors();
+        }
+    };
+    private final Map<Future<BatchResult>, BatchResult> running = new HashMap<Future<BatchResult>, BatchResult>();
+
+    ParallelFileComputation( JDTDriver driver, int workerCount ) {
+        this.driver = driver;
+        executor = Executors.newFixedThreadPool( workerCount, new WorkerThreadFactory() );
+        // one batch waiting per worker keeps the workers busy while the driver thread takes the next batches from the queue
+        maxBatchesInFlight = 2 * workerCount;
+    }
+
+    void computeAll( StatusCollector statusCollector, IProgressMonitor monitor ) {
+        CompletionService<BatchResult> completionService = new ExecutorCompletionService<BatchResult>( executor );
+        try {
+            submitBatches( completionService, maxBatchesInFlight, monitor );
+            while( !running.isEmpty() ) {
+                collect( completionService.take(), statusCollector, monitor );
+                submitBatches( completionService, maxBatchesInFlight - running.size(), monitor );
+            }
+        } catch( InterruptedException intex ) {
+            Thread.currentThread().interrupt();
+            statusCollector.add( intex );
+        }
+        JDTDriver.checkCanceled( monitor );
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    // internal
+    // ////////
+
+    Set<MetricsCollector> createCollectors() {
+        return new ExtensionCollector<MetricsCollector>( MetricsCollector.EXTENSION_POINT_ID ).allExtensions();
+    }
+
+    private Callable<BatchResult> createTask( final BatchResult batchResult, final IProgressMonitor monitor ) {
+        return new Callable<BatchResult>() {
+            public BatchResult call() throws Exception {
+                driver.computeBatch( collectors.get(), batchResult.batch, batchResult.listener, new CancellationMonitor( monitor ) );
+                return batchResult;
+            }
+        };
+    }
+
+    // batches are taken from the queue only as workers become free, so that files queued meanwhile can overtake the rest. Once the
+    // computation is cancelled, no more batches are taken, and those already taken stop after their current file; they are still waited
+    // for, so that no worker writes to the model after the computation was left
+    private void submitBatches( CompletionService<BatchResult> completionService, int count, IProgressMonitor monitor ) {
+        for( int submitted = 0; submitted < count; submitted++ ) {
+            List<IFile> batch = driver.nextBatch( monitor );
+            if( batch == null || batch.isEmpty() ) {
+                return;
+            }
+            BatchResult batchResult = new BatchResult( batch, new FileComputationListener( driver, new NullProgressMonitor() ) );
+            running.put( completionService.submit( createTask( batchResult, monitor ) ), batchResult );
+        }
+    }
+
+    private void collect( Future<BatchResult> result, StatusCollector statusCollector, IProgressMonitor monitor )
+            throws InterruptedException {
+        BatchResult batchResult = running.remove( result );
+        try {
+            result.get();
+        } catch( ExecutionException exex ) {
+            statusCollector.add( exex.getCause() );
+            failUncompletedFiles( batchResult );
+        }
+        batchResult.listener.reportFailuresTo( statusCollector );
+        monitor.worked( batchResult.batch.size() );
+        driver.batchComputed( batchResult.batch, batchResult.listener.getCompletedFiles() );
+    }
+
+    // a file the worker stopped in was not committed, so it keeps its previous raw data like the files not reached
+    private void failUncompletedFiles( BatchResult batchResult ) {
+        List<IFile> uncompleted = new ArrayList<IFile>( batchResult.batch );
+        uncompleted.removeAll( batchResult.listener.getCompletedFiles() );
+        for( IFile file : uncompleted ) {
+            driver.fileNotComputed( file );
+        }
+    }
+
+    private static class BatchResult {
+        final List<IFile> batch;
+        final FileComputationListener listener;
+
+        BatchResult( List<IFile> batch, FileComputationListener listener ) {
+            this.batch = batch;
+            this.listener = listener;
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        public Thread newThread( Runnable runnable ) {
+            Thread thread = new Thread( runnable, WORKER_NAME );
+            thread.setDaemon( true );
+            return thread;
+        }
+    }
+}
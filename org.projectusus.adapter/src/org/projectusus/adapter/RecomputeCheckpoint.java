@@ -0,0 +1,195 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.adapter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.projectusus.core.UsusCorePlugin;
+
+/**
+ * records which projects and files a full recompute has completed, so that a recompute which was cancelled or did not survive the session
+ * can resume where it stopped. The record is a log in the state location, appended to while the recompute runs and deleted once it has
+ * finished.
+ * <p>
+ * Completed files still have to be unchanged to be skipped on resumption; the record only says that their raw data need not be recomputed
+ * for the sake of the recompute.
+ */
+class RecomputeCheckpoint {
+
+    private static final String FILE_NAME = "recompute.checkpoint"; //$NON-NLS-1$
+    private static final String HEADER = "usus recompute checkpoint 1"; //$NON-NLS-1$
+    private static final String PROJECT = "P "; //$NON-NLS-1$
+    private static final String FILE = "F "; //$NON-NLS-1$
+    private static final String ENCODING = "UTF-8"; //$NON-NLS-1$
+
+    private final File log;
+    private final Set<String> completedProjects = new HashSet<String>();
+    private final Set<String> completedFiles = new HashSet<String>();
+    private Writer writer;
+    private boolean failed;
+
+    private RecomputeCheckpoint( File log ) {
+        this.log = log;
+    }
+
+    /**
+     * the checkpoint of the workspace-wide recompute, holding what an unfinished earlier recompute completed.
+     */
+    static RecomputeCheckpoint ofWorkspace() {
+        return readFrom( logLocation() );
+    }
+
+    static RecomputeCheckpoint readFrom( File log ) {
+        RecomputeCheckpoint result = new RecomputeCheckpoint( log );
+        result.read();
+        return result;
+    }
+
+    static boolean isUnfinished() {
+        File location = logLocation();
+        return location != null && location.isFile();
+    }
+
+    boolean isCompleted( IFile file ) {
+        return completedProjects.contains( file.getProject().getName() ) || completedFiles.contains( file.getFullPath().toString() );
+    }
+
+    void fileCompleted( IFile file ) {
+        append( FILE + file.getFullPath().toString() );
+    }
+
+    void projectCompleted( IProject project ) {
+        append( PROJECT + project.getName() );
+    }
+
+    /**
+     * makes sure what was recorded so far survives a crash.
+     */
+    void save() {
+        if( writer != null ) {
+            try {
+                writer.flush();
+            } catch( IOException ioex ) {
+                fail( ioex );
+            }
+        }
+    }
+
+    /**
+     * keeps the record for a later resumption.
+     */
+    void close() {
+        if( writer != null ) {
+            try {
+                writer.close();
+            } catch( IOException ioex ) {
+                fail( ioex );
+            }
+            writer = null;
+        }
+    }
+
+    /**
+     * drops the record, the recompute has completed.
+     */
+    void finish() {
+        close();
+        delete();
+    }
+
+    // internal
+    // ////////
+
+    private void read() {
+        if( log == null || !log.isFile() ) {
+            return;
+        }
+        try {
+            BufferedReader reader = new BufferedReader( new InputStreamReader( new FileInputStream( log ), ENCODING ) );
+            try {
+                if( !HEADER.equals( reader.readLine() ) ) {
+                    delete();
+                    return;
+                }
+                for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+                    if( line.startsWith( PROJECT ) ) {
+                        completedProjects.add( line.substring( PROJECT.length() ) );
+                    } else if( line.startsWith( FILE ) ) {
+                        completedFiles.add( line.substring( FILE.length() ) );
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch( IOException ioex ) {
+            UsusCorePlugin.log( ioex );
+            completedProjects.clear();
+            completedFiles.clear();
+        }
+    }
+
+    private void append( String line ) {
+        if( log == null || failed ) {
+            return;
+        }
+        try {
+            if( writer == null ) {
+                writer = openLog();
+            }
+            writer.write( line );
+            writer.write( '\n' );
+        } catch( IOException ioex ) {
+            fail( ioex );
+        }
+    }
+
+    private Writer openLog() throws IOException {
+        boolean exists = log.isFile();
+        Writer result = new BufferedWriter( new OutputStreamWriter( new FileOutputStream( log, true ), ENCODING ) );
+        if( !exists ) {
+            result.write( HEADER );
+            result.write( '\n' );
+        }
+        return result;
+    }
+
+    // once writing failed, the record is dropped and the next recompute starts over
+    private void fail( IOException ioex ) {
+        UsusCorePlugin.log( ioex );
+        failed = true;
+        if( writer != null ) {
+            try {
+                writer.close();
+            } catch( IOException closeex ) {
+                // already reported
+            }
+            writer = null;
+        }
+        delete();
+    }
+
+    private void delete() {
+        if( log != null ) {
+            log.delete();
+        }
+    }
+
+    private static File logLocation() {
+        UsusAdapterPlugin plugin = UsusAdapterPlugin.getDefault();
+        return plugin == null ? null : plugin.getStateLocation().append( FILE_NAME ).toFile();
+    }
+}
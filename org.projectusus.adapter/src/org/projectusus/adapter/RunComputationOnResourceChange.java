@@ -4,70 +4,37 @@
 // See http://www.eclipse.org/legal/epl-v10.html for details.
 package org.projectusus.adapter;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.eclipse.core.resources.IResourceChangeEvent;
 import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.projectusus.core.UsusCorePlugin;
-import org.projectusus.core.statistics.UsusModelProvider;
 
 public class RunComputationOnResourceChange implements IResourceChangeListener {
 
-    private static final List<IResourceDelta> collectedDeltas = new ArrayList<IResourceDelta>();
-    private static boolean cockpitIsVisible = false;
+    private static final ComputationScheduler scheduler = new ComputationScheduler();
 
     public static void cockpitIsVisible() {
-        cockpitIsVisible = true;
-        runComputationJobOnCollectedDeltas();
+        scheduler.enable();
     }
 
     public static void cockpitIsInvisible() {
-        cockpitIsVisible = false;
+        scheduler.disable();
     }
 
     public void resourceChanged( IResourceChangeEvent event ) {
-        collectDelta( event );
-        runComputationJobOnCollectedDeltas();
-    }
-
-    private void collectDelta( IResourceChangeEvent event ) {
         IResourceDelta delta = event.getDelta();
-        if( delta != null ) {
-            collectedDeltas.add( delta );
-        }
-    }
-
-    private static void runComputationJobOnCollectedDeltas() {
-        if( !cockpitIsVisible ) {
+        if( delta == null ) {
             return;
         }
-
         try {
-            runComputationJob( collectedDeltas );
-            collectedDeltas.clear();
+            scheduler.add( new DeltaCodeProportionComputationTarget( delta ) );
         } catch( CoreException cex ) {
             log( cex.getStatus() );
         }
     }
 
-    private static void runComputationJob( List<IResourceDelta> deltas ) throws CoreException {
-        if( deltas.isEmpty() )
-            return;
-
-        ICodeProportionComputationTarget target = null;
-        if( UsusModelProvider.ususModel().needsFullRecompute() ) {
-            target = new WorkspaceCodeProportionComputationTarget();
-        } else {
-            target = new DeltaCodeProportionComputationTarget( deltas );
-        }
-        if( target.isNotEmpty() )
-            new CodeProportionsComputerJob( target ).schedule();
-    }
-
     private static void log( IStatus status ) {
         UsusCorePlugin.getDefault().getLog().log( status );
     }
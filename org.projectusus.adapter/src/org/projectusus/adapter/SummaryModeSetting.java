@@ -0,0 +1,64 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.adapter;
+
+import static org.projectusus.core.UsusPreferenceKeys.SUMMARY_MODE;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.IPreferenceChangeListener;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.PreferenceChangeEvent;
+import org.projectusus.core.UsusCorePlugin;
+import org.projectusus.core.statistics.UsusModelProvider;
+
+/**
+ * hands the summary mode preference to the model when the plugin starts and whenever the preference changes. Switching the mode packs all
+ * raw data, so it is not done per computation run, and not on the thread changing the preference either, which is usually the UI thread:
+ * a short job applies it.
+ */
+class SummaryModeSetting implements IPreferenceChangeListener {
+
+    private static final String APPLYING_SUMMARY_MODE = "Applying the summary mode"; //$NON-NLS-1$
+
+    private final Job applier = new Applier();
+
+    SummaryModeSetting() {
+        applier.schedule();
+        getUsusPreferences().addPreferenceChangeListener( this );
+    }
+
+    public void preferenceChange( PreferenceChangeEvent event ) {
+        if( SUMMARY_MODE.equals( event.getKey() ) ) {
+            applier.schedule();
+        }
+    }
+
+    void dispose() {
+        getUsusPreferences().removePreferenceChangeListener( this );
+        applier.cancel();
+    }
+
+    private IEclipsePreferences getUsusPreferences() {
+        return UsusCorePlugin.getDefault().getPreferences();
+    }
+
+    // the preference is read when the job runs, so changes in quick succession are applied once, with the last value
+    private static class Applier extends Job {
+
+        Applier() {
+            super( APPLYING_SUMMARY_MODE );
+            setSystem( true );
+        }
+
+        @Override
+        protected IStatus run( IProgressMonitor monitor ) {
+            UsusModelProvider.ususModelForAdapter().setSummaryMode( UsusAdapterPlugin.getDefault().getSummaryMode() );
+            return Status.OK_STATUS;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package org.projectusus.adapter;
 
 import static org.projectusus.core.UsusPreferenceKeys.AUTO_COMPUTE;
+import static org.projectusus.core.UsusPreferenceKeys.COMPUTATION_THREADS;
+import static org.projectusus.core.UsusPreferenceKeys.PARTIAL_RESULTS_INTERVAL;
+import static org.projectusus.core.UsusPreferenceKeys.SUMMARY_MODE;
 
 import org.eclipse.core.runtime.Plugin;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
@@ -13,6 +16,7 @@ public class UsusAdapterPlugin extends Plugin {
 
     private static UsusAdapterPlugin plugin;
     private AutoComputeSetting autoComputer;
+    private SummaryModeSetting summaryMode;
 
     public static UsusAdapterPlugin getDefault() {
         return plugin;
@@ -23,17 +27,37 @@ public class UsusAdapterPlugin extends Plugin {
         super.start( bundleContext );
         plugin = this;
         autoComputer = new AutoComputeSetting();
+        summaryMode = new SummaryModeSetting();
     }
 
     @Override
     public void stop( BundleContext bundleContext ) throws Exception {
         autoComputer.dispose();
+        summaryMode.dispose();
     }
 
     public boolean getAutocompute() {
         return getUsusPreferences().getBoolean( AUTO_COMPUTE, true );
     }
 
+    public int getComputationThreads() {
+        return Math.max( 1, getUsusPreferences().getInt( COMPUTATION_THREADS, Runtime.getRuntime().availableProcessors() ) );
+    }
+
+    /**
+     * the number of computed files after which a long computation run publishes partial results, or 0 if it should not.
+     */
+    public int getPartialResultsInterval() {
+        return Math.max( 0, getUsusPreferences().getInt( PARTIAL_RESULTS_INTERVAL, 500 ) );
+    }
+
+    /**
+     * whether the model keeps method metrics in the compact form of its summary mode.
+     */
+    public boolean getSummaryMode() {
+        return getUsusPreferences().getBoolean( SUMMARY_MODE, false );
+    }
+
     public void setAutoCompute( boolean autoCompute ) {
         getUsusPreferences().putBoolean( AUTO_COMPUTE, autoCompute );
         autoComputer.setAutoCompute( autoCompute );
@@ -0,0 +1,117 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.adapter;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ComputationQueueTest {
+
+    private IProject project;
+    private IProject otherProject;
+    private IFile file;
+    private IFile otherFile;
+    private IFile fileInOtherProject;
+    private ComputationQueue queue;
+
+    @Before
+    public void setup() {
+        project = mock( IProject.class );
+        otherProject = mock( IProject.class );
+        file = createFile( project );
+        otherFile = createFile( project );
+        fileInOtherProject = createFile( otherProject );
+        queue = new ComputationQueue();
+    }
+
+    @After
+    public void tearDown() {
+        ComputationPriorities.setOpenFiles( Collections.<IFile> emptySet() );
+        ComputationPriorities.setHotspotFiles( Collections.<IFile> emptySet() );
+    }
+
+    @Test
+    public void emptyQueueCloses() {
+        assertNull( queue.nextBatch( 10 ) );
+        assertFalse( queue.addAll( asList( file ), true ) );
+    }
+
+    @Test
+    public void laterFilesFirst() {
+        queue.addAll( asList( file ), false );
+        queue.addAll( asList( otherFile ), false );
+
+        assertEquals( asList( otherFile, file ), queue.nextBatch( 10 ) );
+    }
+
+    @Test
+    public void recentlyChangedFilesOvertakeTheRest() {
+        queue.addAll( asList( file ), true );
+        queue.addAll( asList( otherFile ), false );
+
+        assertEquals( asList( file ), queue.nextBatch( 10 ) );
+    }
+
+    @Test
+    public void openFilesBeforeHotspotsBeforeRecentlyChanged() {
+        queue.addAll( asList( file, otherFile ), false );
+        queue.addAll( asList( fileInOtherProject ), true );
+        ComputationPriorities.setHotspotFiles( asList( otherFile ) );
+        ComputationPriorities.setOpenFiles( asList( file ) );
+
+        assertEquals( asList( file ), queue.nextBatch( 10 ) );
+        assertEquals( asList( otherFile ), queue.nextBatch( 10 ) );
+        assertEquals( asList( fileInOtherProject ), queue.nextBatch( 10 ) );
+    }
+
+    @Test
+    public void batchHoldsOneProjectOnly() {
+        queue.addAll( asList( file, fileInOtherProject, otherFile ), false );
+
+        assertEquals( asList( otherFile, file ), queue.nextBatch( 10 ) );
+        assertEquals( asList( fileInOtherProject ), queue.nextBatch( 10 ) );
+    }
+
+    @Test
+    public void fileQueuedTwiceIsComputedOnce() {
+        queue.addAll( asList( file ), false );
+        queue.addAll( asList( file ), false );
+
+        assertEquals( asList( file ), queue.nextBatch( 10 ) );
+        assertEquals( 0, queue.size() );
+    }
+
+    @Test
+    public void fileInProgressIsNotHandedOutAgain() {
+        queue.addAll( asList( file ), false );
+        assertEquals( asList( file ), queue.nextBatch( 10 ) );
+        queue.addAll( asList( file ), true );
+
+        assertTrue( queue.nextBatch( 10 ).isEmpty() );
+        queue.done( asList( file ) );
+        assertEquals( asList( file ), queue.nextBatch( 10 ) );
+        queue.done( asList( file ) );
+        assertNull( queue.nextBatch( 10 ) );
+    }
+
+    private IFile createFile( IProject parent ) {
+        IFile result = mock( IFile.class );
+        when( result.getProject() ).thenReturn( parent );
+        return result;
+    }
+}
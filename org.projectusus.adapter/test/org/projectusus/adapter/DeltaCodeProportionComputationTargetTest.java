@@ -0,0 +1,117 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.adapter;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeltaCodeProportionComputationTargetTest {
+
+    private IProject project;
+    private IFile file;
+    private IFile otherFile;
+    private DeltaCodeProportionComputationTarget target;
+
+    @Before
+    public void setup() {
+        project = mock( IProject.class );
+        file = createFile( project );
+        otherFile = createFile( project );
+        target = new DeltaCodeProportionComputationTarget();
+    }
+
+    @Test
+    public void emptyTarget() {
+        assertFalse( target.isNotEmpty() );
+        assertTrue( target.getProjects().isEmpty() );
+    }
+
+    @Test
+    public void fileChangedTwiceIsComputedOnce() throws CoreException {
+        target.add( changesOf( file ) );
+        target.add( changesOf( file, otherFile ) );
+
+        assertEquals( asList( file, otherFile ), new ArrayList<IFile>( target.getFiles( project ) ) );
+    }
+
+    @Test
+    public void laterDeletionWins() throws CoreException {
+        target.add( changesOf( file ) );
+        target.add( deletionOf( file ) );
+
+        assertTrue( target.getFiles( project ).isEmpty() );
+        assertEquals( asList( file ), new ArrayList<IFile>( target.getRemovedFiles( project ) ) );
+    }
+
+    @Test
+    public void laterChangeWins() throws CoreException {
+        target.add( deletionOf( file ) );
+        target.add( changesOf( file ) );
+
+        assertEquals( asList( file ), new ArrayList<IFile>( target.getFiles( project ) ) );
+        assertTrue( target.getRemovedFiles( project ).isEmpty() );
+    }
+
+    @Test
+    public void removedProjectDropsItsFiles() throws CoreException {
+        target.add( changesOf( file ) );
+        target.addRemovedProject( project );
+
+        assertTrue( target.getFiles( project ).isEmpty() );
+        assertFalse( target.getProjects().contains( project ) );
+        assertTrue( target.getRemovedProjects().contains( project ) );
+    }
+
+    @Test
+    public void supersededByChangeOfComputedFile() {
+        target.add( changesOf( file ) );
+
+        assertTrue( target.isSupersededBy( changesOf( file ) ) );
+        assertTrue( target.isSupersededBy( deletionOf( file ) ) );
+        assertFalse( target.isSupersededBy( changesOf( otherFile ) ) );
+    }
+
+    @Test
+    public void supersededByRemovalOfComputedProject() {
+        target.add( changesOf( file ) );
+        DeltaCodeProportionComputationTarget removal = new DeltaCodeProportionComputationTarget();
+        removal.addRemovedProject( project );
+
+        assertTrue( target.isSupersededBy( removal ) );
+        assertFalse( target.isSupersededBy( new DeltaCodeProportionComputationTarget() ) );
+    }
+
+    private DeltaCodeProportionComputationTarget changesOf( IFile... files ) {
+        DeltaCodeProportionComputationTarget result = new DeltaCodeProportionComputationTarget();
+        for( IFile changedFile : files ) {
+            result.addChangedFile( changedFile );
+        }
+        return result;
+    }
+
+    private DeltaCodeProportionComputationTarget deletionOf( IFile deletedFile ) {
+        DeltaCodeProportionComputationTarget result = new DeltaCodeProportionComputationTarget();
+        result.addDeletedFile( deletedFile );
+        return result;
+    }
+
+    private IFile createFile( IProject parent ) {
+        IFile result = mock( IFile.class );
+        when( result.getProject() ).thenReturn( parent );
+        return result;
+    }
+}
@@ -0,0 +1,177 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.adapter;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.projectusus.core.metrics.MetricsCollector;
+import org.projectusus.core.proportions.rawdata.jdtdriver.IFileComputationListener;
+
+public class ParallelFileComputationTest {
+
+    private IFile first;
+    private IFile second;
+    private IFile third;
+    private IFile fourth;
+    private Driver driver;
+    private ParallelFileComputation computation;
+    private StatusCollector statusCollector;
+    private CountingMonitor monitor;
+
+    @Before
+    public void setup() {
+        first = mock( IFile.class );
+        second = mock( IFile.class );
+        third = mock( IFile.class );
+        fourth = mock( IFile.class );
+        driver = new Driver();
+        computation = new ParallelFileComputation( driver, 2 ) {
+            @Override
+            Set<MetricsCollector> createCollectors() {
+                return Collections.emptySet();
+            }
+        };
+        statusCollector = new StatusCollector();
+        monitor = new CountingMonitor();
+    }
+
+    @After
+    public void shutdown() {
+        computation.shutdown();
+    }
+
+    @Test
+    public void allBatchesAreComputedAndHandedBack() throws CoreException {
+        driver.batches.add( asList( first, second ) );
+        driver.batches.add( asList( third, fourth ) );
+
+        computation.computeAll( statusCollector, monitor );
+
+        statusCollector.finish();
+        assertEquals( set( first, second, third, fourth ), new HashSet<IFile>( driver.finished ) );
+        assertEquals( set( first, second, third, fourth ), new HashSet<IFile>( driver.computed ) );
+        assertEquals( set( first, second, third, fourth ), new HashSet<IFile>( driver.handedBack ) );
+        assertEquals( 4, monitor.work );
+    }
+
+    @Test
+    public void batchOfFailedWorkerIsStillHandedBack() {
+        driver.batches.add( asList( first, second ) );
+        driver.batches.add( asList( third, fourth ) );
+        driver.crashingFile = second;
+
+        computation.computeAll( statusCollector, monitor );
+
+        assertFailureReported();
+        assertEquals( set( first, second, third, fourth ), new HashSet<IFile>( driver.handedBack ) );
+        assertEquals( set( first, third, fourth ), new HashSet<IFile>( driver.computed ) );
+        assertEquals( asList( second ), driver.notComputed );
+        assertEquals( 4, monitor.work );
+    }
+
+    @Test
+    public void errorInWorkerDoesNotStopOtherBatches() {
+        driver.batches.add( asList( first ) );
+        driver.batches.add( asList( second ) );
+        driver.batches.add( asList( third ) );
+        driver.crashingFile = first;
+
+        computation.computeAll( statusCollector, monitor );
+
+        assertFailureReported();
+        assertEquals( set( second, third ), new HashSet<IFile>( driver.computed ) );
+        assertEquals( asList( first ), driver.notComputed );
+        assertEquals( 3, monitor.work );
+    }
+
+    private void assertFailureReported() {
+        try {
+            statusCollector.finish();
+            fail();
+        } catch( CoreException cex ) {
+            assertTrue( cex.getStatus().getChildren().length > 0 );
+        }
+    }
+
+    private static Set<IFile> set( IFile... files ) {
+        return new HashSet<IFile>( asList( files ) );
+    }
+
+    private static class Driver extends JDTDriver {
+
+        final LinkedList<List<IFile>> batches = new LinkedList<List<IFile>>();
+        final List<IFile> finished = Collections.synchronizedList( new ArrayList<IFile>() );
+        final List<IFile> handedBack = new ArrayList<IFile>();
+        final List<IFile> computed = new ArrayList<IFile>();
+        final List<IFile> notComputed = new ArrayList<IFile>();
+        volatile IFile crashingFile;
+
+        Driver() {
+            super( mock( ICodeProportionComputationTarget.class ), 2 );
+        }
+
+        @Override
+        List<IFile> nextBatch( IProgressMonitor monitor ) {
+            return batches.isEmpty() ? null : batches.removeFirst();
+        }
+
+        // a worker crashing on a deep AST, after it has completed the files before
+        @Override
+        void computeBatch( Set<MetricsCollector> metricsExtensions, Collection<IFile> batch, IFileComputationListener listener,
+                IProgressMonitor cancellation ) {
+            for( IFile file : batch ) {
+                if( file == crashingFile ) {
+                    throw new StackOverflowError();
+                }
+                listener.fileStarted( file );
+                listener.fileFinished( file );
+            }
+        }
+
+        @Override
+        void batchComputed( List<IFile> batch, List<IFile> completedFiles ) {
+            handedBack.addAll( batch );
+            computed.addAll( completedFiles );
+        }
+
+        @Override
+        void fileFinished( IFile file ) {
+            finished.add( file );
+        }
+
+        @Override
+        void fileNotComputed( IFile file ) {
+            notComputed.add( file );
+        }
+    }
+
+    private static class CountingMonitor extends NullProgressMonitor {
+        int work;
+
+        @Override
+        public void worked( int ticks ) {
+            work += ticks;
+        }
+    }
+}
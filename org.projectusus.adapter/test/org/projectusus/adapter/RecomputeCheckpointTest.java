@@ -0,0 +1,113 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.adapter;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RecomputeCheckpointTest {
+
+    private File log;
+    private IProject project;
+    private IProject otherProject;
+    private IFile file;
+    private IFile otherFile;
+    private IFile fileInOtherProject;
+
+    @Before
+    public void setup() throws IOException {
+        log = File.createTempFile( "recompute", ".checkpoint" );
+        log.delete();
+        project = createProject( "project" );
+        otherProject = createProject( "other" );
+        file = createFile( project, "/project/src/A.java" );
+        otherFile = createFile( project, "/project/src/B.java" );
+        fileInOtherProject = createFile( otherProject, "/other/src/C.java" );
+    }
+
+    @After
+    public void tearDown() {
+        log.delete();
+    }
+
+    @Test
+    public void completedFilesAreKnownAfterClose() {
+        RecomputeCheckpoint checkpoint = RecomputeCheckpoint.readFrom( log );
+        checkpoint.fileCompleted( file );
+        checkpoint.close();
+
+        RecomputeCheckpoint resumed = RecomputeCheckpoint.readFrom( log );
+        assertTrue( resumed.isCompleted( file ) );
+        assertFalse( resumed.isCompleted( otherFile ) );
+    }
+
+    @Test
+    public void savedRecordSurvivesWithoutClose() {
+        RecomputeCheckpoint checkpoint = RecomputeCheckpoint.readFrom( log );
+        checkpoint.fileCompleted( file );
+        checkpoint.save();
+
+        assertTrue( RecomputeCheckpoint.readFrom( log ).isCompleted( file ) );
+        checkpoint.close();
+    }
+
+    @Test
+    public void completedProjectCoversAllItsFiles() {
+        RecomputeCheckpoint checkpoint = RecomputeCheckpoint.readFrom( log );
+        checkpoint.projectCompleted( project );
+        checkpoint.close();
+
+        RecomputeCheckpoint resumed = RecomputeCheckpoint.readFrom( log );
+        assertTrue( resumed.isCompleted( file ) );
+        assertTrue( resumed.isCompleted( otherFile ) );
+        assertFalse( resumed.isCompleted( fileInOtherProject ) );
+    }
+
+    @Test
+    public void finishedRecordIsDropped() {
+        RecomputeCheckpoint checkpoint = RecomputeCheckpoint.readFrom( log );
+        checkpoint.fileCompleted( file );
+        checkpoint.finish();
+
+        assertFalse( log.exists() );
+        assertFalse( RecomputeCheckpoint.readFrom( log ).isCompleted( file ) );
+    }
+
+    @Test
+    public void otherFormatIsDropped() throws IOException {
+        FileWriter writer = new FileWriter( log );
+        writer.write( "something else\nF /project/src/A.java\n" );
+        writer.close();
+
+        assertFalse( RecomputeCheckpoint.readFrom( log ).isCompleted( file ) );
+        assertFalse( log.exists() );
+    }
+
+    private IProject createProject( String name ) {
+        IProject result = mock( IProject.class );
+        when( result.getName() ).thenReturn( name );
+        return result;
+    }
+
+    private IFile createFile( IProject parent, String path ) {
+        IFile result = mock( IFile.class );
+        when( result.getProject() ).thenReturn( parent );
+        when( result.getFullPath() ).thenReturn( new Path( path ) );
+        return result;
+    }
+}
@@ -36,6 +36,22 @@ public class ClassDescriptorContract extends UsusContractBase<ClassDescriptor> {
         C4JFileWriter.assertStatic( ClassDescriptor.getAll().isEmpty(), "Set of all class descriptors is empty" );
     }
 
+    public static void pre_startBulkLoad() {
+        // TODO no pre-condition identified yet
+    }
+
+    public static void post_startBulkLoad() {
+        // TODO no post-condition identified yet
+    }
+
+    public static void pre_finishBulkLoad() {
+        // TODO no pre-condition identified yet
+    }
+
+    public static void post_finishBulkLoad() {
+        // TODO no post-condition identified yet
+    }
+
     public static void pre_getAll() {
         // TODO no pre-condition identified yet
     }
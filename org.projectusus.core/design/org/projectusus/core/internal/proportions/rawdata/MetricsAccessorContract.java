@@ -30,6 +30,14 @@ public class MetricsAccessorContract extends UsusContractBase<MetricsAccessor> {
         // TODO no post-condition identified yet
     }
 
+    public void pre_getMetricsWriter( IFile file ) {
+        assertThat( file != null, "file_not_null" );
+    }
+
+    public void post_getMetricsWriter( IFile file ) {
+        assertThat( getReturnValue() != null, "builder_not_null" );
+    }
+
     public void pre_acceptAndGuide( IMetricsResultVisitor visitor ) {
         // TODO Auto-generated pre-condition
         assertThat( visitor != null, "visitor_not_null" );
@@ -39,6 +47,22 @@ public class MetricsAccessorContract extends UsusContractBase<MetricsAccessor> {
         // TODO no post-condition identified yet
     }
 
+    public void pre_publishSnapshot() {
+        // TODO no pre-condition identified yet
+    }
+
+    public void post_publishSnapshot() {
+        assertThat( getReturnValue() != null, "snapshot_not_null" );
+    }
+
+    public void pre_getSnapshot() {
+        // TODO no pre-condition identified yet
+    }
+
+    public void post_getSnapshot() {
+        assertThat( getReturnValue() != null, "snapshot_not_null" );
+    }
+
     public void pre_dropRawData( IProject project ) {
         // TODO Auto-generated pre-condition
         assertThat( project != null, "project_not_null" );
@@ -57,6 +81,22 @@ public class MetricsAccessorContract extends UsusContractBase<MetricsAccessor> {
         // TODO no post-condition identified yet
     }
 
+    public void pre_saveTo( RawDataCache cache ) {
+        assertThat( cache != null, "cache_not_null" );
+    }
+
+    public void post_saveTo( RawDataCache cache ) {
+        // TODO no post-condition identified yet
+    }
+
+    public void pre_restoreFrom( RawDataCache cache ) {
+        assertThat( cache != null, "cache_not_null" );
+    }
+
+    public void post_restoreFrom( RawDataCache cache ) {
+        // TODO no post-condition identified yet
+    }
+
     public void pre_cleanupRelations( IProgressMonitor monitor ) {
         // TODO Auto-generated pre-condition
         assertThat( monitor != null, "monitor_not_null" );
@@ -1,7 +1,9 @@
 package org.projectusus.core.statistics;
 
+import org.eclipse.core.resources.IFile;
 import org.projectusus.c4j.C4JFileWriter;
 import org.projectusus.c4j.UsusContractBase;
+import org.projectusus.core.IFileMetricsWriter;
 import org.projectusus.core.IMetricsResultVisitor;
 import org.projectusus.core.IMetricsWriter;
 import org.projectusus.core.IUsusModel;
@@ -35,6 +37,15 @@ public class UsusModelProviderContract extends UsusContractBase<UsusModelProvide
         // TODO no post-condition identified yet
     }
 
+    public static void pre_getMetricsWriter( IFile file ) {
+        C4JFileWriter.assertStatic( file != null, "file_not_null" );
+    }
+
+    public static void post_getMetricsWriter( IFile file ) {
+        IFileMetricsWriter returnValue = (IFileMetricsWriter)getReturnValue();
+        // TODO no post-condition identified yet
+    }
+
     public static void pre_ususModelForAdapter() {
         // TODO no pre-condition identified yet
     }
@@ -44,6 +55,14 @@ public class UsusModelProviderContract extends UsusContractBase<UsusModelProvide
         // TODO no post-condition identified yet
     }
 
+    public static void pre_getSnapshot() {
+        // TODO no pre-condition identified yet
+    }
+
+    public static void post_getSnapshot() {
+        C4JFileWriter.assertStatic( getReturnValue() != null, "snapshot_not_null" );
+    }
+
     public static void pre_acceptAndGuide( IMetricsResultVisitor visitor ) {
         // TODO Auto-generated pre-condition
         C4JFileWriter.assertStatic( visitor != null, "visitor_not_null" );
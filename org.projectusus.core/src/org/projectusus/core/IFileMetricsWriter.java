@@ -0,0 +1,13 @@
+package org.projectusus.core;
+
+/**
+ * writes the metrics of one file. The values are kept until {@link #commit()}, which replaces the file's raw data by them in one step, so
+ * that readers never see a file half written. Meant for the single thread computing the file.
+ */
+public interface IFileMetricsWriter extends IMetricsWriter {
+
+    /**
+     * replaces the raw data of the file by the values written. Without any values written, the file's raw data is only dropped.
+     */
+    void commit();
+}
@@ -0,0 +1,16 @@
+package org.projectusus.core;
+
+import org.eclipse.core.resources.IProject;
+import org.projectusus.core.basis.MethodColumns;
+
+/**
+ * a visitor that reads method metrics column by column instead of method by method.
+ * <p>
+ * When such a visitor traverses a whole project, it is given the project via <code>inspectProject</code> and then all methods of the
+ * project via {@link #inspectMethods(IProject, MethodColumns)}; the packages, files, classes and methods of the project are not inspected
+ * one by one. Visits restricted to a file, class or method take the usual way through the raw data tree.
+ */
+public interface IMethodColumnsVisitor extends IMetricsResultVisitor {
+
+    void inspectMethods( IProject project, MethodColumns methods );
+}
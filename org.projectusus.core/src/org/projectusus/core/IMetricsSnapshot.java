@@ -0,0 +1,18 @@
+package org.projectusus.core;
+
+/**
+ * one published version of the raw data tree. It does not change, so visitors can traverse it without locking while the next computation
+ * run writes; a reader keeps the snapshot it got for as long as it needs a consistent view.
+ * <p>
+ * The snapshot covers the raw data and the metrics results in it. Class relations are not versioned: visitors that navigate them, e.g.
+ * via <code>ClassDescriptor</code> or <code>Packagename</code>, still have to do so while no raw data can be written.
+ */
+public interface IMetricsSnapshot {
+
+    /**
+     * increases with every snapshot published.
+     */
+    long getVersion();
+
+    void acceptAndGuide( IMetricsResultVisitor visitor );
+}
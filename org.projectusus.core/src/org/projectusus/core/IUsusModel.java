@@ -19,4 +19,10 @@ public interface IUsusModel {
     void removeUsusModelListener( IUsusModelListener listener );
 
     boolean needsFullRecompute();
+
+    /**
+     * whether the code proportions are provisional: they were computed from the raw data of the files a running computation has done so
+     * far. Listeners are notified again when the run is finished.
+     */
+    boolean hasPartialCodeProportions();
 }
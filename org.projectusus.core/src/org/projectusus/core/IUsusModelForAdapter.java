@@ -17,8 +17,51 @@ public interface IUsusModelForAdapter {
 
     void dropRawData( IProject project );
 
+    /**
+     * the fingerprint of the source the raw data of the file was computed from, or <code>null</code> if there is none.
+     */
+    String getFingerprint( IFile file );
+
+    /**
+     * stores the fingerprint next to the raw data computed for the file. Does nothing if no data was computed for it.
+     */
+    void setFingerprint( IFile file, String fingerprint );
+
+    /**
+     * restores the raw data saved by the previous session, see {@link #saveRawData()}. Does nothing once raw data was computed or dropped
+     * in this session.
+     * 
+     * @return whether raw data was restored. It covers only the files which did not change since they were computed.
+     */
+    boolean restoreRawData();
+
+    /**
+     * saves the raw data for the next session. Does nothing if neither raw data was restored nor computed in this session, so that the data
+     * of the previous session is kept.
+     */
+    void saveRawData();
+
+    /**
+     * publishes provisional code proportions computed from the raw data of the files done so far, while the computation run goes on. They
+     * are replaced when {@link #updateAfterComputationRun(boolean, IProgressMonitor)} is called at the end of the run.
+     */
+    void updateDuringComputationRun();
+
     void updateAfterComputationRun( boolean ok, IProgressMonitor monitor );
 
     void aboutToStartFullRecompute();
 
+    /**
+     * starts adding many class relations at once, for a computation run. The data derived from the class relations is brought up to date
+     * once when it is next asked for, instead of with each relation. Must be followed by {@link #finishRelationsBulkLoad()}.
+     */
+    void startRelationsBulkLoad();
+
+    void finishRelationsBulkLoad();
+
+    /**
+     * whether to keep the metrics of methods in a compact form that takes less memory, but more time to read.
+     */
+    void setSummaryMode( boolean summaryMode );
+
 }
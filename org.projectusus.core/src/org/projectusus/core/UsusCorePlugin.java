@@ -21,6 +21,7 @@ import org.osgi.framework.BundleEvent;
 import org.osgi.framework.BundleListener;
 import org.osgi.service.prefs.BackingStoreException;
 import org.projectusus.c4j.C4JFileWriter;
+import org.projectusus.core.statistics.UsusModelProvider;
 
 public class UsusCorePlugin extends Plugin {
 
@@ -75,6 +76,7 @@ public class UsusCorePlugin extends Plugin {
 
     @Override
     public void stop( BundleContext context ) throws Exception {
+        UsusModelProvider.ususModelForAdapter().saveRawData();
         plugin.savePreferences();
         plugin = null;
         closeC4JFileWriter();
@@ -7,4 +7,7 @@ package org.projectusus.core;
 public class UsusPreferenceKeys {
 
     public static final String AUTO_COMPUTE = "computeAutomatically"; //$NON-NLS-1$
+    public static final String COMPUTATION_THREADS = "computationThreads"; //$NON-NLS-1$
+    public static final String PARTIAL_RESULTS_INTERVAL = "partialResultsInterval"; //$NON-NLS-1$
+    public static final String SUMMARY_MODE = "summaryMode"; //$NON-NLS-1$
 }
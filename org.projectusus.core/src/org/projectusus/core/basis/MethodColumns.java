@@ -0,0 +1,139 @@
+package org.projectusus.core.basis;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+
+/**
+ * the methods of one project in columns: method <code>i</code> has its location, results and owning class at index <code>i</code> of
+ * parallel arrays, and each int metric can be read as one contiguous column. The method results are held in a {@link MetricsTable}, not
+ * one object per method. Classes are numbered the same way, with their file.
+ * <p>
+ * The raw data tree fills the columns, see {@link #addClass(IFile, SourceCodeLocation, MetricsResults)} and
+ * {@link #addMethod(SourceCodeLocation, MetricsResults)}; visitors only read them.
+ */
+public class MethodColumns {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private SourceCodeLocation[] methodLocations = new SourceCodeLocation[INITIAL_CAPACITY];
+    private final MetricsTable methodResults = new MetricsTable();
+    private int[] owners = new int[INITIAL_CAPACITY];
+    private int methodCount;
+
+    private IFile[] classFiles = new IFile[INITIAL_CAPACITY];
+    private SourceCodeLocation[] classLocations = new SourceCodeLocation[INITIAL_CAPACITY];
+    private MetricsResults[] classResults = new MetricsResults[INITIAL_CAPACITY];
+    private int classCount;
+
+    private final Map<Long, int[]> columns = new HashMap<Long, int[]>();
+
+    /**
+     * adds a class; the methods added after it belong to it.
+     *
+     * @return the index of the class
+     */
+    public int addClass( IFile file, SourceCodeLocation location, MetricsResults results ) {
+        if( classCount == classLocations.length ) {
+            int capacity = 2 * classCount;
+            classFiles = grow( classFiles, new IFile[capacity] );
+            classLocations = grow( classLocations, new SourceCodeLocation[capacity] );
+            classResults = grow( classResults, new MetricsResults[capacity] );
+        }
+        classFiles[classCount] = file;
+        classLocations[classCount] = location;
+        classResults[classCount] = results;
+        return classCount++;
+    }
+
+    public void addMethod( SourceCodeLocation location, MetricsResults results ) {
+        if( classCount == 0 ) {
+            throw new IllegalStateException( "methods belong to a class" ); //$NON-NLS-1$
+        }
+        if( methodCount == methodLocations.length ) {
+            int capacity = 2 * methodCount;
+            methodLocations = grow( methodLocations, new SourceCodeLocation[capacity] );
+            int[] grownOwners = new int[capacity];
+            System.arraycopy( owners, 0, grownOwners, 0, methodCount );
+            owners = grownOwners;
+        }
+        methodLocations[methodCount] = location;
+        methodResults.add( results );
+        owners[methodCount] = classCount - 1;
+        methodCount++;
+    }
+
+    public int getMethodCount() {
+        return methodCount;
+    }
+
+    public SourceCodeLocation getLocation( int method ) {
+        return methodLocations[checkMethod( method )];
+    }
+
+    /**
+     * the results of the method, as a new object.
+     */
+    public MetricsResults getResults( int method ) {
+        return methodResults.get( checkMethod( method ) );
+    }
+
+    /**
+     * the index of the class the method belongs to.
+     */
+    public int getOwner( int method ) {
+        return owners[checkMethod( method )];
+    }
+
+    /**
+     * the values of an int metric for all methods, in method order. The column is built once and must not be changed.
+     */
+    public synchronized int[] getColumn( String key, int defaultValue ) {
+        Long columnKey = Long.valueOf( ((long)MetricKeys.idOf( key ) << Integer.SIZE) | (defaultValue & 0xFFFFFFFFL) );
+        int[] result = columns.get( columnKey );
+        if( result == null ) {
+            result = methodResults.getColumn( key, defaultValue );
+            columns.put( columnKey, result );
+        }
+        return result;
+    }
+
+    public int getClassCount() {
+        return classCount;
+    }
+
+    public IFile getFile( int owner ) {
+        return classFiles[checkClass( owner )];
+    }
+
+    public SourceCodeLocation getClassLocation( int owner ) {
+        return classLocations[checkClass( owner )];
+    }
+
+    public MetricsResults getClassResults( int owner ) {
+        return classResults[checkClass( owner )];
+    }
+
+    // internal
+    // ////////
+
+    private int checkMethod( int method ) {
+        if( method < 0 || method >= methodCount ) {
+            throw new IndexOutOfBoundsException( String.valueOf( method ) );
+        }
+        return method;
+    }
+
+    private int checkClass( int owner ) {
+        if( owner < 0 || owner >= classCount ) {
+            throw new IndexOutOfBoundsException( String.valueOf( owner ) );
+        }
+        return owner;
+    }
+
+    private static <T> T[] grow( T[] values, T[] grown ) {
+        System.arraycopy( values, 0, grown, 0, values.length );
+        return grown;
+    }
+}
@@ -0,0 +1,77 @@
+package org.projectusus.core.basis;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * assigns dense ids to the keys of {@link MetricsResults}, so that results can be held in arrays indexed by key. The keys known to Usus get
+ * the smallest ids; other keys get theirs when first written.
+ * <p>
+ * Lookups do not lock: a new key replaces the tables instead of changing them.
+ */
+public final class MetricKeys {
+
+    public static final int UNKNOWN = -1;
+
+    private static volatile Map<String, Integer> ids = new HashMap<String, Integer>();
+    private static volatile String[] keys = new String[0];
+
+    static {
+        idOf( MetricsResults.CC );
+        idOf( MetricsResults.ML );
+        idOf( MetricsResults.CCD );
+        idOf( MetricsResults.METHODS );
+        idOf( MetricsResults.CLASSES );
+        idOf( MetricsResults.PUBLIC_FIELDS );
+        idOf( MetricsResults.CLASS_CREATION );
+        idOf( MetricsResults.ABSTRACTNESS );
+        idOf( MetricsResults.TRAIN_WRECKS );
+        idOf( MetricsResults.CP );
+    }
+
+    private MetricKeys() {
+        // no instances
+    }
+
+    /**
+     * the id of the key, assigned now if the key is new.
+     */
+    public static int idOf( String key ) {
+        Integer id = ids.get( key );
+        return id == null ? register( key ) : id.intValue();
+    }
+
+    /**
+     * the id of the key, or {@link #UNKNOWN} if no results were ever written for it.
+     */
+    public static int lookup( String key ) {
+        Integer id = ids.get( key );
+        return id == null ? UNKNOWN : id.intValue();
+    }
+
+    public static String keyOf( int id ) {
+        return keys[id];
+    }
+
+    // internal
+    // ////////
+
+    private static synchronized int register( String key ) {
+        if( key == null ) {
+            throw new IllegalArgumentException( "key must not be null" ); //$NON-NLS-1$
+        }
+        Integer existing = ids.get( key );
+        if( existing != null ) {
+            return existing.intValue();
+        }
+        int id = keys.length;
+        String[] newKeys = new String[id + 1];
+        System.arraycopy( keys, 0, newKeys, 0, id );
+        newKeys[id] = key;
+        Map<String, Integer> newIds = new HashMap<String, Integer>( ids );
+        newIds.put( key, Integer.valueOf( id ) );
+        keys = newKeys;
+        ids = newIds;
+        return id;
+    }
+}
@@ -1,8 +1,13 @@
 package org.projectusus.core.basis;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
+/**
+ * the metrics computed for one element. Keys get dense ids from {@link MetricKeys}; int values are held unboxed in an array indexed by
+ * them, other values in a side table. Writing <code>null</code> removes a value.
+ */
 public class MetricsResults {
 
     public static final String METHODS = "NumberOfMethods"; //$NON-NLS-1$
@@ -16,18 +21,51 @@ public class MetricsResults {
     public static final String TRAIN_WRECKS = "TrainWrecks";
     public static final String CP = "ConstantParameters";
 
-    private Map<String, Object> results = new HashMap<String, Object>();
+    private static final int[] NO_INTS = new int[0];
+    private static final long[] NO_BITS = new long[0];
+
+    // values by key id: ints unboxed, other values in a side table allocated on first use
+    private int[] intValues = NO_INTS;
+    private Object[] objectValues;
+    private long[] present = NO_BITS;
 
     public void put( String key, Object value ) {
-        results.put( key, value );
+        if( value instanceof Integer ) {
+            put( key, ((Integer)value).intValue() );
+            return;
+        }
+        int id = MetricKeys.idOf( key );
+        if( value == null ) {
+            remove( id );
+            return;
+        }
+        put( id, value );
     }
 
     public void put( String key, int value ) {
-        results.put( key, Integer.valueOf( value ) );
+        put( MetricKeys.idOf( key ), value );
     }
 
     public Object get( String key ) {
-        return results.get( key );
+        int id = MetricKeys.lookup( key );
+        if( !isPresent( id ) ) {
+            return null;
+        }
+        Object value = objectValueAt( id );
+        return value == null ? Integer.valueOf( intValues[id] ) : value;
+    }
+
+    public Set<String> getKeys() {
+        Set<String> result = new LinkedHashSet<String>();
+        for( int word = 0; word < present.length; word++ ) {
+            long bits = present[word];
+            while( bits != 0 ) {
+                int bit = Long.numberOfTrailingZeros( bits );
+                result.add( MetricKeys.keyOf( word * Long.SIZE + bit ) );
+                bits &= bits - 1;
+            }
+        }
+        return Collections.unmodifiableSet( result );
     }
 
     public int getIntValue( String key ) {
@@ -35,11 +73,88 @@ public class MetricsResults {
     }
 
     public int getIntValue( String key, int defaultValue ) {
-        Integer result = (Integer)get( key );
-        if( result == null ) {
+        int id = MetricKeys.lookup( key );
+        if( !isPresent( id ) ) {
             return defaultValue;
         }
-        return result.intValue();
+        Object value = objectValueAt( id );
+        return value == null ? intValues[id] : ((Integer)value).intValue();
+    }
+
+    // internal
+    // ////////
+
+    void put( int id, int value ) {
+        if( intValues.length <= id ) {
+            int[] grown = new int[id + 1];
+            System.arraycopy( intValues, 0, grown, 0, intValues.length );
+            intValues = grown;
+        }
+        intValues[id] = value;
+        if( objectValues != null && objectValues.length > id ) {
+            objectValues[id] = null;
+        }
+        markPresent( id );
+    }
+
+    void put( int id, Object value ) {
+        if( objectValues == null || objectValues.length <= id ) {
+            objectValues = grow( objectValues, id + 1 );
+        }
+        objectValues[id] = value;
+        markPresent( id );
     }
 
+    // hands each value to the row of the table, ints unboxed
+    void addTo( MetricsTable table, int row ) {
+        for( int word = 0; word < present.length; word++ ) {
+            long bits = present[word];
+            while( bits != 0 ) {
+                int id = word * Long.SIZE + Long.numberOfTrailingZeros( bits );
+                Object value = objectValueAt( id );
+                if( value == null ) {
+                    table.put( id, row, intValues[id] );
+                } else {
+                    table.put( id, row, value );
+                }
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    private boolean isPresent( int id ) {
+        int word = id >>> 6;
+        return id != MetricKeys.UNKNOWN && word < present.length && (present[word] & (1L << id)) != 0;
+    }
+
+    private void markPresent( int id ) {
+        int word = id >>> 6;
+        if( present.length <= word ) {
+            long[] grown = new long[word + 1];
+            System.arraycopy( present, 0, grown, 0, present.length );
+            present = grown;
+        }
+        present[word] |= 1L << id;
+    }
+
+    private void remove( int id ) {
+        if( isPresent( id ) ) {
+            present[id >>> 6] &= ~(1L << id);
+            if( objectValues != null && objectValues.length > id ) {
+                objectValues[id] = null;
+            }
+        }
+    }
+
+    private Object objectValueAt( int id ) {
+        return objectValues == null || objectValues.length <= id ? null : objectValues[id];
+    }
+
+    private static Object[] grow( Object[] values, int size ) {
+        Object[] result = new Object[size];
+        if( values != null ) {
+            System.arraycopy( values, 0, result, 0, values.length );
+        }
+        return result;
+    }
 }
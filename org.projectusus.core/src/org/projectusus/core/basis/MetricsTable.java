@@ -0,0 +1,188 @@
+package org.projectusus.core.basis;
+
+/**
+ * the metrics results of many elements, held column by column instead of in one {@link MetricsResults} per element. Row <code>i</code>
+ * holds the results added <code>i</code>th; each key used has a column of unboxed ints, other values are held in a side column made on
+ * first use.
+ * <p>
+ * Meant to be filled once and then read: {@link #get(int)} makes a new results object for a row, so reading whole rows is for the few
+ * elements someone looks at.
+ */
+public class MetricsTable {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private Column[] columns = new Column[0];
+    private int rowCount;
+
+    /**
+     * adds a row with the given results.
+     *
+     * @return the index of the row
+     */
+    public int add( MetricsResults results ) {
+        results.addTo( this, rowCount );
+        return rowCount++;
+    }
+
+    public int size() {
+        return rowCount;
+    }
+
+    /**
+     * the results of the row, as a new object.
+     */
+    public MetricsResults get( int row ) {
+        checkRow( row );
+        MetricsResults result = new MetricsResults();
+        for( int id = 0; id < columns.length; id++ ) {
+            Column column = columns[id];
+            if( column != null && column.isPresent( row ) ) {
+                Object value = column.objectAt( row );
+                if( value == null ) {
+                    result.put( id, column.ints[row] );
+                } else {
+                    result.put( id, value );
+                }
+            }
+        }
+        return result;
+    }
+
+    public int getIntValue( int row, String key, int defaultValue ) {
+        checkRow( row );
+        Column column = columnOf( key );
+        if( column == null || !column.isPresent( row ) ) {
+            return defaultValue;
+        }
+        Object value = column.objectAt( row );
+        return value == null ? column.ints[row] : ((Integer)value).intValue();
+    }
+
+    /**
+     * the values of an int metric for all rows, in row order, as a new array.
+     */
+    public int[] getColumn( String key, int defaultValue ) {
+        int[] result = new int[rowCount];
+        Column column = columnOf( key );
+        for( int row = 0; row < rowCount; row++ ) {
+            result[row] = column == null || !column.isPresent( row ) ? defaultValue : column.intAt( row );
+        }
+        return result;
+    }
+
+    /**
+     * releases the room kept for rows not added yet.
+     */
+    public void trimToSize() {
+        for( Column column : columns ) {
+            if( column != null ) {
+                column.trimTo( rowCount );
+            }
+        }
+    }
+
+    // internal
+    // ////////
+
+    void put( int id, int row, int value ) {
+        column( id ).putInt( row, value );
+    }
+
+    void put( int id, int row, Object value ) {
+        column( id ).putObject( row, value );
+    }
+
+    private Column columnOf( String key ) {
+        int id = MetricKeys.lookup( key );
+        return id == MetricKeys.UNKNOWN || id >= columns.length ? null : columns[id];
+    }
+
+    private Column column( int id ) {
+        if( columns.length <= id ) {
+            Column[] grown = new Column[id + 1];
+            System.arraycopy( columns, 0, grown, 0, columns.length );
+            columns = grown;
+        }
+        if( columns[id] == null ) {
+            columns[id] = new Column();
+        }
+        return columns[id];
+    }
+
+    private void checkRow( int row ) {
+        if( row < 0 || row >= rowCount ) {
+            throw new IndexOutOfBoundsException( String.valueOf( row ) );
+        }
+    }
+
+    private static class Column {
+        int[] ints = new int[INITIAL_CAPACITY];
+        Object[] objects;
+        long[] present = new long[1];
+
+        void putInt( int row, int value ) {
+            ints = ensure( ints, row );
+            ints[row] = value;
+            markPresent( row );
+        }
+
+        void putObject( int row, Object value ) {
+            if( objects == null ) {
+                objects = new Object[Math.max( INITIAL_CAPACITY, row + 1 )];
+            } else if( objects.length <= row ) {
+                Object[] grown = new Object[Math.max( 2 * objects.length, row + 1 )];
+                System.arraycopy( objects, 0, grown, 0, objects.length );
+                objects = grown;
+            }
+            objects[row] = value;
+            markPresent( row );
+        }
+
+        boolean isPresent( int row ) {
+            int word = row >>> 6;
+            return word < present.length && (present[word] & (1L << row)) != 0;
+        }
+
+        Object objectAt( int row ) {
+            return objects == null || objects.length <= row ? null : objects[row];
+        }
+
+        int intAt( int row ) {
+            Object value = objectAt( row );
+            return value == null ? ints[row] : ((Integer)value).intValue();
+        }
+
+        void trimTo( int size ) {
+            if( ints.length > size ) {
+                int[] trimmed = new int[size];
+                System.arraycopy( ints, 0, trimmed, 0, size );
+                ints = trimmed;
+            }
+            if( objects != null && objects.length > size ) {
+                Object[] trimmed = new Object[size];
+                System.arraycopy( objects, 0, trimmed, 0, size );
+                objects = trimmed;
+            }
+        }
+
+        private void markPresent( int row ) {
+            int word = row >>> 6;
+            if( present.length <= word ) {
+                long[] grown = new long[Math.max( 2 * present.length, word + 1 )];
+                System.arraycopy( present, 0, grown, 0, present.length );
+                present = grown;
+            }
+            present[word] |= 1L << row;
+        }
+
+        private static int[] ensure( int[] values, int row ) {
+            if( values.length > row ) {
+                return values;
+            }
+            int[] grown = new int[Math.max( 2 * values.length, row + 1 )];
+            System.arraycopy( values, 0, grown, 0, values.length );
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.projectusus.core.basis;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * keeps each class and method name once, under a dense id, so that source code locations can refer to their names by id. Names are never
+ * removed: the names of a workspace change little between computation runs.
+ * <p>
+ * Lookups do not lock. The table of names grows by doubling, so unlike {@link MetricKeys} it stays cheap for hundreds of thousands of
+ * names.
+ */
+public final class Names {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<String, Integer>( INITIAL_CAPACITY );
+    private static volatile String[] names = new String[INITIAL_CAPACITY];
+    private static int count;
+
+    private Names() {
+        // no instances
+    }
+
+    /**
+     * the id of the name, assigned now if the name is new.
+     */
+    public static int idOf( String name ) {
+        Integer id = ids.get( name );
+        return id == null ? register( name ) : id.intValue();
+    }
+
+    public static String nameOf( int id ) {
+        return names[id];
+    }
+
+    // internal
+    // ////////
+
+    private static synchronized int register( String name ) {
+        if( name == null ) {
+            throw new IllegalArgumentException( "name must not be null" ); //$NON-NLS-1$
+        }
+        Integer existing = ids.get( name );
+        if( existing != null ) {
+            return existing.intValue();
+        }
+        String[] current = names;
+        if( count == current.length ) {
+            String[] grown = new String[current.length * 2];
+            System.arraycopy( current, 0, grown, 0, count );
+            current = grown;
+        }
+        current[count] = name;
+        // written again even if not grown: publishes the name before its id can be seen
+        names = current;
+        ids.put( name, Integer.valueOf( count ) );
+        return count++;
+    }
+}
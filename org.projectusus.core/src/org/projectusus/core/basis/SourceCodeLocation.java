@@ -1,25 +1,78 @@
 package org.projectusus.core.basis;
 
+/**
+ * where a class or method is declared. The names are kept in the {@link Names} table; the display name of a method is put together only
+ * when asked for.
+ */
 public class SourceCodeLocation {
 
+    private static final int NO_OWNER = -1;
+
     private final int startPosition;
-    private final String name;
+    private final int length;
     private final int lineNumber;
+    private final int nameId;
+    private final int ownerId;
 
     public SourceCodeLocation( String name, int startPosition, int lineNumber ) {
-        this.name = name;
+        this( name, startPosition, 0, lineNumber );
+    }
+
+    /**
+     * @param length
+     *            the number of characters the declaration takes in the source, 0 if unknown.
+     */
+    public SourceCodeLocation( String name, int startPosition, int length, int lineNumber ) {
+        this( NO_OWNER, Names.idOf( name ), startPosition, length, lineNumber );
+    }
+
+    private SourceCodeLocation( int ownerId, int nameId, int startPosition, int length, int lineNumber ) {
+        this.ownerId = ownerId;
+        this.nameId = nameId;
         this.startPosition = startPosition;
+        this.length = length;
         this.lineNumber = lineNumber;
     }
 
+    /**
+     * the location of a method declared in the named class.
+     */
+    public static SourceCodeLocation ofMethod( String className, String methodName, int startPosition, int length, int lineNumber ) {
+        return new SourceCodeLocation( Names.idOf( className ), Names.idOf( methodName ), startPosition, length, lineNumber );
+    }
+
+    /**
+     * the name to display: the class name for a class, <code>Class.method()</code> for a method.
+     */
     public String getName() {
-        return name;
+        if( ownerId == NO_OWNER ) {
+            return Names.nameOf( nameId );
+        }
+        return Names.nameOf( ownerId ) + "." + Names.nameOf( nameId ) + "()"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * the name of the method for a method, the name of the class for a class.
+     */
+    public String getSimpleName() {
+        return Names.nameOf( nameId );
+    }
+
+    /**
+     * the name of the class declaring the method for a method, <code>null</code> for a class.
+     */
+    public String getOwnerName() {
+        return ownerId == NO_OWNER ? null : Names.nameOf( ownerId );
     }
 
     public int getSourcePosition() {
         return startPosition;
     }
 
+    public int getSourceLength() {
+        return length;
+    }
+
     public int getLineNumber() {
         return lineNumber;
     }
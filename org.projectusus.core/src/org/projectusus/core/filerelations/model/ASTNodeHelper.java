@@ -1,11 +1,13 @@
 package org.projectusus.core.filerelations.model;
 
+import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.FieldAccess;
 import org.eclipse.jdt.core.dom.IBinding;
 import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.PackageDeclaration;
 import org.eclipse.jdt.core.dom.QualifiedName;
 import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.SimpleType;
@@ -40,6 +42,22 @@ public class ASTNodeHelper {
         return (AbstractTypeDeclaration)enclosingClass;
     }
 
+    /**
+     * the package of the compilation unit the type is declared in, taken from its package declaration, so that no binding is needed.
+     * <code>null</code> if the type is not part of a compilation unit.
+     */
+    public Packagename getPackagenameOf( AbstractTypeDeclaration node ) {
+        ASTNode root = node.getRoot();
+        if( !(root instanceof CompilationUnit) ) {
+            return null;
+        }
+        CompilationUnit cu = (CompilationUnit)root;
+        PackageDeclaration declaration = cu.getPackage();
+        String name = declaration == null ? "" : declaration.getName().getFullyQualifiedName(); //$NON-NLS-1$
+        IJavaElement javaElement = cu.getJavaElement();
+        return Packagename.of( name, javaElement == null ? null : javaElement.getParent() );
+    }
+
     public int calcLineNumberFor( ASTNode node ) {
         ASTNode root = node.getRoot();
         if( root instanceof CompilationUnit ) {
@@ -53,4 +71,8 @@ public class ASTNodeHelper {
         return node.getStartPosition();
     }
 
+    public int getLengthFor( ASTNode node ) {
+        return node.getLength();
+    }
+
 }
@@ -0,0 +1,155 @@
+package org.projectusus.core.filerelations.model;
+
+/**
+ * computes the CCD of all classes at once. The classes are condensed into their strongly connected components, which are numbered in
+ * reverse topological order (see {@link StrongComponents}). The classes are then numbered component by component in that order, so that a
+ * component reaches only classes numbered below its own, and its reachable classes are a bitset made of its own classes and the bitsets
+ * of the components it refers to.
+ * <p>
+ * Holding a bitset over all classes for every component would take quadratic room, so the classes are covered in blocks: each pass keeps
+ * only the words of one block per component, and components numbered entirely below the block are skipped.
+ */
+class BatchCCD {
+
+    private static final int MAX_WORDS = 1 << 22;
+    private static final int BITS_PER_WORD = 64;
+
+    private final int nodeCount;
+    private final int[] rowStarts;
+    private final int[] rowIds;
+    private final int maxWords;
+
+    private int[] componentOf;
+    private int componentCount;
+    private int[] componentStarts;
+    private int[] successorStarts;
+    private int[] successors;
+
+    /**
+     * @param rowStarts
+     *            where the children of each class start in <code>rowIds</code>, one more entry than classes
+     */
+    BatchCCD( int nodeCount, int[] rowStarts, int[] rowIds ) {
+        this( nodeCount, rowStarts, rowIds, MAX_WORDS );
+    }
+
+    /**
+     * @param maxWords
+     *            the number of bitset words to hold at most in one pass
+     */
+    BatchCCD( int nodeCount, int[] rowStarts, int[] rowIds, int maxWords ) {
+        this.nodeCount = nodeCount;
+        this.maxWords = maxWords;
+        this.rowStarts = rowStarts;
+        this.rowIds = rowIds;
+    }
+
+    /**
+     * the CCD of each class, by id.
+     */
+    int[] compute() {
+        findComponents();
+        condense();
+        int[] componentCCD = countReachable();
+        int[] result = new int[nodeCount];
+        for( int node = 0; node < nodeCount; node++ ) {
+            result[node] = componentCCD[componentOf[node]];
+        }
+        return result;
+    }
+
+    // internal
+    // ////////
+
+    private void findComponents() {
+        StrongComponents components = new StrongComponents( nodeCount, rowStarts, rowIds );
+        componentOf = components.getComponentOf();
+        componentCount = components.getCount();
+    }
+
+    private void condense() {
+        componentStarts = new int[componentCount + 1];
+        for( int node = 0; node < nodeCount; node++ ) {
+            componentStarts[componentOf[node] + 1]++;
+        }
+        for( int component = 0; component < componentCount; component++ ) {
+            componentStarts[component + 1] += componentStarts[component];
+        }
+        int[] members = new int[nodeCount];
+        int[] fill = new int[componentCount];
+        for( int node = 0; node < nodeCount; node++ ) {
+            int component = componentOf[node];
+            members[componentStarts[component] + fill[component]++] = node;
+        }
+
+        successorStarts = new int[componentCount + 1];
+        int[] found = new int[rowIds.length];
+        int foundCount = 0;
+        int[] lastSeenBy = new int[componentCount];
+        for( int component = 0; component < componentCount; component++ ) {
+            lastSeenBy[component] = -1;
+        }
+        for( int component = 0; component < componentCount; component++ ) {
+            for( int member = componentStarts[component]; member < componentStarts[component + 1]; member++ ) {
+                int node = members[member];
+                for( int edge = rowStarts[node]; edge < rowStarts[node + 1]; edge++ ) {
+                    int target = componentOf[rowIds[edge]];
+                    if( target != component && lastSeenBy[target] != component ) {
+                        lastSeenBy[target] = component;
+                        found[foundCount++] = target;
+                    }
+                }
+            }
+            successorStarts[component + 1] = foundCount;
+        }
+        successors = new int[foundCount];
+        System.arraycopy( found, 0, successors, 0, foundCount );
+    }
+
+    private int[] countReachable() {
+        int[] result = new int[componentCount];
+        if( componentCount == 0 ) {
+            return result;
+        }
+        int totalWords = (nodeCount + BITS_PER_WORD - 1) / BITS_PER_WORD;
+        int words = Math.max( 1, Math.min( totalWords, maxWords / componentCount ) );
+        int blockBits = words * BITS_PER_WORD;
+        long[] bits = new long[componentCount * words];
+        int firstComponent = 0;
+        for( int blockStart = 0; blockStart < nodeCount; blockStart += blockBits ) {
+            int blockEnd = Math.min( nodeCount, blockStart + blockBits );
+            while( componentStarts[firstComponent + 1] <= blockStart ) {
+                firstComponent++;
+            }
+            for( int component = firstComponent; component < componentCount; component++ ) {
+                int offset = component * words;
+                for( int word = 0; word < words; word++ ) {
+                    bits[offset + word] = 0;
+                }
+                setRange( bits, offset, Math.max( blockStart, componentStarts[component] ) - blockStart,
+                        Math.min( blockEnd, componentStarts[component + 1] ) - blockStart );
+                for( int edge = successorStarts[component]; edge < successorStarts[component + 1]; edge++ ) {
+                    int successor = successors[edge];
+                    if( successor >= firstComponent ) {
+                        int successorOffset = successor * words;
+                        for( int word = 0; word < words; word++ ) {
+                            bits[offset + word] |= bits[successorOffset + word];
+                        }
+                    }
+                }
+                int count = 0;
+                for( int word = 0; word < words; word++ ) {
+                    count += Long.bitCount( bits[offset + word] );
+                }
+                result[component] += count;
+            }
+        }
+        return result;
+    }
+
+    private static void setRange( long[] bits, int offset, int from, int to ) {
+        for( int bit = from; bit < to; bit++ ) {
+            bits[offset + bit / BITS_PER_WORD] |= 1L << bit;
+        }
+    }
+}
@@ -9,24 +9,36 @@ import java.util.Set;
 import net.sourceforge.c4j.ContractReference;
 
 import org.eclipse.core.resources.IFile;
-import org.projectusus.core.util.ForEach2;
-import org.projectusus.core.util.SelectUnique;
-
-import ch.akuhn.foreach.ForEach;
 
 @ContractReference( contractClassName = "ClassDescriptorContract" )
 public class ClassDescriptor {
 
     private static Map<ClassDescriptorKey, ClassDescriptor> classes = new HashMap<ClassDescriptorKey, ClassDescriptor>();
-
-    protected final Set<ClassDescriptor> parents;
-    protected final Set<ClassDescriptor> children;
+    private static final ClassGraph graph = new ClassGraph();
 
     private final ClassDescriptorKey key;
-    private final Set<ClassDescriptor> transitiveChildrenCache = new HashSet<ClassDescriptor>();
+    private int id;
 
     public static void clear() {
         classes.clear();
+        graph.clear();
+    }
+
+    /**
+     * starts adding or removing many relations at once: until the matching {@link #finishBulkLoad()}, the data derived from the relations
+     * is not kept up to date with each change, but brought up to date once when it is asked for or when the bulk load is finished. Bulk
+     * loads may be nested.
+     */
+    public static void startBulkLoad() {
+        graph.startBulkLoad();
+    }
+
+    public static void finishBulkLoad() {
+        graph.finishBulkLoad();
+    }
+
+    static PackageGraph getPackageGraph() {
+        return graph.getPackageGraph();
     }
 
     public static Set<ClassDescriptor> getAll() {
@@ -63,8 +75,7 @@ public class ClassDescriptor {
 
     private ClassDescriptor( ClassDescriptorKey key ) {
         this.key = key;
-        this.parents = new HashSet<ClassDescriptor>();
-        this.children = new HashSet<ClassDescriptor>();
+        this.id = graph.add( this );
         key.getPackagename().addClass( this );
     }
 
@@ -108,114 +119,75 @@ public class ClassDescriptor {
         return key.getPackagename() + "." + key.getClassname(); //$NON-NLS-1$
     }
 
-    private void clearOwnAndParentsTransitiveChildrenCache() {
-        if( transitiveChildrenCache.isEmpty() ) {
-            return;
-        }
-
-        transitiveChildrenCache.clear();
-        for( ClassDescriptor parent : parents ) {
-            parent.clearOwnAndParentsTransitiveChildrenCache();
-        }
-    }
-
     public Set<ClassDescriptor> getChildren() {
-        return Collections.unmodifiableSet( children );
+        return Collections.unmodifiableSet( graph.getDescriptors( childIds() ) );
     }
 
     public Set<ClassDescriptor> getParents() {
-        return Collections.unmodifiableSet( parents );
+        return Collections.unmodifiableSet( graph.getDescriptors( parentIds() ) );
     }
 
     public Set<ClassDescriptor> getChildrenInOtherPackages() {
-        for( SelectUnique<ClassDescriptor> target : ForEach2.selectUnique( children ) ) {
-            target.yield = !this.getPackagename().equals( target.value.getPackagename() );
-        }
-        return ForEach.result();
+        return selectByPackage( childIds(), false );
     }
 
     public Set<ClassDescriptor> getChildrenInSamePackage() {
-        for( SelectUnique<ClassDescriptor> target : ForEach2.selectUnique( children ) ) {
-            target.yield = this.getPackagename().equals( target.value.getPackagename() );
-        }
-        return ForEach.result();
-    }
-
-    private Set<ClassDescriptor> getTransitiveChildren() {
-        if( transitiveChildrenCache.isEmpty() ) {
-            collectTransitiveChildren( transitiveChildrenCache );
-        }
-        return transitiveChildrenCache;
-    }
-
-    private void collectTransitiveChildren( Set<ClassDescriptor> result ) {
-        result.add( this );
-        for( ClassDescriptor child : getChildren() ) {
-            if( !result.contains( child ) ) {
-                child.collectTransitiveChildren( result );
-            }
-        }
-    }
-
-    private Set<ClassDescriptor> getTransitiveParents() {
-        Set<ClassDescriptor> result = new HashSet<ClassDescriptor>();
-        collectTransitiveParents( result );
-        return result;
-    }
-
-    private void collectTransitiveParents( Set<ClassDescriptor> result ) {
-        result.add( this );
-        for( ClassDescriptor parent : parents ) {
-            if( !result.contains( parent ) ) {
-                parent.collectTransitiveParents( result );
-            }
-        }
+        return selectByPackage( childIds(), true );
     }
 
     public int getCCD() {
-        return getTransitiveChildren().size();
+        return isInPool() ? graph.getCCD( id ) : 1;
     }
 
     public int getTransitiveParentCount() {
-        return getTransitiveParents().size();
+        return isInPool() ? graph.getTransitiveParentCount( id ) : 1;
     }
 
     public void prepareRemoval() {
-        markAndRemoveAllOutgoingRelations();
-        ClassDescriptorCleanup.registerForCleanup( this );
-    }
-
-    private void markAndRemoveAllOutgoingRelations() {
-        for( ClassDescriptor target : children ) {
-            target.parents.remove( this );
+        if( isInPool() ) {
+            graph.removeChildren( id );
         }
-        children.clear();
-        clearOwnAndParentsTransitiveChildrenCache();
+        ClassDescriptorCleanup.registerForCleanup( this );
     }
 
     public void removeFromPool() {
-        clearOwnAndParentsTransitiveChildrenCache();
-        for( ClassDescriptor source : parents ) {
-            source.children.remove( this );
+        if( isInPool() ) {
+            graph.remove( id );
+            id = ClassGraph.NO_ID;
         }
-        parents.clear();
-        // also for outgoings, but we are only called when the outgoings are emptied already
         removeDescriptor( this.key );
     }
 
     public void addChild( ClassDescriptor target ) {
-        if( !this.equals( target ) ) {
-            children.add( target );
-            target.parents.add( this );
-            clearOwnAndParentsTransitiveChildrenCache();
+        if( !this.equals( target ) && isInPool() && target.isInPool() ) {
+            graph.addRelation( id, target.id );
         }
     }
 
     public Set<ClassDescriptor> getParentsInOtherPackages() {
+        return selectByPackage( parentIds(), false );
+    }
+
+    // internal
+    // ////////
+
+    private boolean isInPool() {
+        return id != ClassGraph.NO_ID;
+    }
+
+    private int[] childIds() {
+        return isInPool() ? graph.getChildren( id ) : new int[0];
+    }
+
+    private int[] parentIds() {
+        return isInPool() ? graph.getParents( id ) : new int[0];
+    }
+
+    private Set<ClassDescriptor> selectByPackage( int[] ids, boolean samePackage ) {
         Set<ClassDescriptor> result = new HashSet<ClassDescriptor>();
-        for( ClassDescriptor parent : parents ) {
-            if( !this.getPackagename().equals( parent.getPackagename() ) ) {
-                result.add( parent );
+        for( ClassDescriptor descriptor : graph.getDescriptors( ids ) ) {
+            if( getPackagename().equals( descriptor.getPackagename() ) == samePackage ) {
+                result.add( descriptor );
             }
         }
         return result;
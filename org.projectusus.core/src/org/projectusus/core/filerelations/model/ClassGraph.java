@@ -0,0 +1,430 @@
+package org.projectusus.core.filerelations.model;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * the classes and their relations, with each class known by a dense int id. The relations are held in both directions as compressed rows
+ * of ids (one array of row starts, one array of all ids) instead of a set of parents and a set of children per class.
+ * <p>
+ * Changes go to a small delta layer first: relations added and relations removed since the rows were last built. Once the delta gets large
+ * compared to the rows, the rows are built again from the current relations and the delta is emptied. The ids of removed classes are
+ * given to new classes again, so the id space stays as dense as the pool.
+ * <p>
+ * While a bulk load runs, changes neither build the rows again nor drop the CCDs kept: the CCDs are dropped once when the next one is
+ * asked for, and the rows are built at most once when the bulk load is finished.
+ */
+class ClassGraph {
+
+    static final int NO_ID = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MIN_DELTA_FOR_COMPACTION = 4096;
+    private static final int MIN_MISSES_FOR_BATCH = 16;
+    private static final int CLASSES_PER_MISS_FOR_BATCH = 64;
+
+    private ClassDescriptor[] nodes = new ClassDescriptor[INITIAL_CAPACITY];
+    private int idCount;
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int freeIdCount;
+
+    private final Adjacency children = new Adjacency();
+    private final Adjacency parents = new Adjacency();
+    private final PackageGraph packages = new PackageGraph();
+    private int deltaSize;
+    private int bulkLoads;
+    private boolean changedInBulkLoad;
+
+    private int modificationCount = 1;
+    private int[] ccd = new int[INITIAL_CAPACITY];
+    private int[] ccdModification = new int[INITIAL_CAPACITY];
+    private int ccdMisses;
+    private int batchModification;
+    private int[] visited = new int[INITIAL_CAPACITY];
+    private int visitCount;
+    private int[] queue = new int[INITIAL_CAPACITY];
+
+    synchronized int add( ClassDescriptor descriptor ) {
+        int id = freeIdCount > 0 ? freeIds[--freeIdCount] : newId();
+        nodes[id] = descriptor;
+        return id;
+    }
+
+    /**
+     * removes the class with all its relations. Its id may be given to a class added later.
+     */
+    synchronized void remove( int id ) {
+        removeChildren( id );
+        removeParents( id );
+        nodes[id] = null;
+        if( freeIdCount == freeIds.length ) {
+            freeIds = Arrays.copyOf( freeIds, 2 * freeIdCount );
+        }
+        freeIds[freeIdCount++] = id;
+    }
+
+    synchronized void clear() {
+        Arrays.fill( nodes, 0, idCount, null );
+        idCount = 0;
+        freeIdCount = 0;
+        children.clear();
+        parents.clear();
+        packages.clear();
+        deltaSize = 0;
+        modificationCount++;
+        ccdMisses = 0;
+        changedInBulkLoad = false;
+    }
+
+    /**
+     * starts a bulk load, see above. Bulk loads may be nested; they end with the outermost {@link #finishBulkLoad()}.
+     */
+    synchronized void startBulkLoad() {
+        bulkLoads++;
+    }
+
+    synchronized void finishBulkLoad() {
+        if( bulkLoads == 0 ) {
+            return;
+        }
+        bulkLoads--;
+        if( bulkLoads == 0 && changedInBulkLoad ) {
+            applyBulkLoadChanges();
+            compactIfLarge();
+        }
+    }
+
+    /**
+     * the number of ids handed out so far: all ids are below it, some of them may be free.
+     */
+    synchronized int getIdCount() {
+        return idCount;
+    }
+
+    synchronized ClassDescriptor getDescriptor( int id ) {
+        return nodes[id];
+    }
+
+    synchronized boolean addRelation( int source, int target ) {
+        if( source == target || !children.add( source, target ) ) {
+            return false;
+        }
+        parents.add( target, source );
+        packages.relationAdded( packageOf( source ), packageOf( target ) );
+        changed( 1 );
+        return true;
+    }
+
+    synchronized boolean containsRelation( int source, int target ) {
+        return children.contains( source, target );
+    }
+
+    synchronized void removeChildren( int id ) {
+        int[] targets = children.get( id );
+        for( int target : targets ) {
+            children.remove( id, target );
+            parents.remove( target, id );
+            packages.relationRemoved( packageOf( id ), packageOf( target ) );
+        }
+        if( targets.length > 0 ) {
+            changed( targets.length );
+        }
+    }
+
+    synchronized void removeParents( int id ) {
+        int[] sources = parents.get( id );
+        for( int source : sources ) {
+            parents.remove( id, source );
+            children.remove( source, id );
+            packages.relationRemoved( packageOf( source ), packageOf( id ) );
+        }
+        if( sources.length > 0 ) {
+            changed( sources.length );
+        }
+    }
+
+    /**
+     * the relations between the packages of the classes, kept up to date with the relations between the classes.
+     */
+    PackageGraph getPackageGraph() {
+        return packages;
+    }
+
+    /**
+     * the ids of the classes the class refers to, as a new array.
+     */
+    synchronized int[] getChildren( int id ) {
+        return children.get( id );
+    }
+
+    /**
+     * the ids of the classes referring to the class, as a new array.
+     */
+    synchronized int[] getParents( int id ) {
+        return parents.get( id );
+    }
+
+    synchronized Set<ClassDescriptor> getDescriptors( int[] ids ) {
+        Set<ClassDescriptor> result = new HashSet<ClassDescriptor>();
+        for( int id : ids ) {
+            result.add( nodes[id] );
+        }
+        return result;
+    }
+
+    /**
+     * the number of classes reachable from the class, the class itself included. The result is kept until the relations change.
+     * <p>
+     * The first few classes asked for after a change are walked one by one. Once more are asked for, the CCD of all classes is computed in
+     * one batch (see {@link BatchCCD}), which costs about as much as walking from one class per {@value #CLASSES_PER_MISS_FOR_BATCH}.
+     */
+    synchronized int getCCD( int id ) {
+        applyBulkLoadChanges();
+        if( ccdModification[id] != modificationCount ) {
+            ccdMisses++;
+            if( ccdMisses > Math.max( MIN_MISSES_FOR_BATCH, idCount / CLASSES_PER_MISS_FOR_BATCH ) ) {
+                computeAllCCDs();
+            } else {
+                ccd[id] = countReachable( id, children );
+                ccdModification[id] = modificationCount;
+            }
+        }
+        return ccd[id];
+    }
+
+    /**
+     * the sum of the CCD of all classes, for the average component dependency. Computes the CCD of all classes in one batch if needed.
+     */
+    synchronized long getCCDSum() {
+        applyBulkLoadChanges();
+        if( batchModification != modificationCount ) {
+            computeAllCCDs();
+        }
+        long result = 0;
+        for( int id = 0; id < idCount; id++ ) {
+            if( nodes[id] != null ) {
+                result += ccd[id];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * the number of classes from which the class is reachable, the class itself included.
+     */
+    synchronized int getTransitiveParentCount( int id ) {
+        return countReachable( id, parents );
+    }
+
+    // internal
+    // ////////
+
+    private int newId() {
+        if( idCount == nodes.length ) {
+            int capacity = 2 * idCount;
+            nodes = Arrays.copyOf( nodes, capacity );
+            ccd = Arrays.copyOf( ccd, capacity );
+            ccdModification = Arrays.copyOf( ccdModification, capacity );
+            visited = Arrays.copyOf( visited, capacity );
+            queue = Arrays.copyOf( queue, capacity );
+        }
+        return idCount++;
+    }
+
+    private Packagename packageOf( int id ) {
+        return nodes[id] == null ? null : nodes[id].getPackagename();
+    }
+
+    private void changed( int relationCount ) {
+        deltaSize += relationCount;
+        if( bulkLoads > 0 ) {
+            changedInBulkLoad = true;
+            return;
+        }
+        modificationCount++;
+        ccdMisses = 0;
+        compactIfLarge();
+    }
+
+    private void applyBulkLoadChanges() {
+        if( changedInBulkLoad ) {
+            modificationCount++;
+            ccdMisses = 0;
+            changedInBulkLoad = false;
+        }
+    }
+
+    private void compactIfLarge() {
+        if( deltaSize > MIN_DELTA_FOR_COMPACTION && deltaSize > children.getRowSize() / 4 ) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        children.compact( idCount );
+        parents.compact( idCount );
+        deltaSize = 0;
+    }
+
+    private void computeAllCCDs() {
+        if( deltaSize > 0 || children.rowStarts.length != idCount + 1 ) {
+            compact();
+        }
+        int[] result = new BatchCCD( idCount, children.rowStarts, children.rowIds ).compute();
+        System.arraycopy( result, 0, ccd, 0, idCount );
+        Arrays.fill( ccdModification, 0, idCount, modificationCount );
+        batchModification = modificationCount;
+    }
+
+    private int countReachable( int start, Adjacency adjacency ) {
+        visitCount++;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        visited[start] = visitCount;
+        while( head < tail ) {
+            int current = queue[head++];
+            int[] rowIds = adjacency.rowIds;
+            int rowEnd = adjacency.rowEnd( current );
+            IntSet removed = adjacency.removedAt( current );
+            for( int index = adjacency.rowStart( current ); index < rowEnd; index++ ) {
+                int next = rowIds[index];
+                if( visited[next] != visitCount && (removed == null || !removed.contains( next )) ) {
+                    visited[next] = visitCount;
+                    queue[tail++] = next;
+                }
+            }
+            IntSet added = adjacency.addedAt( current );
+            for( int index = 0; added != null && index < added.size(); index++ ) {
+                int next = added.get( index );
+                if( visited[next] != visitCount ) {
+                    visited[next] = visitCount;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * the relations in one direction: compressed rows, plus the relations added to and removed from them since they were built. Added
+     * relations are never in the rows, removed ones always are.
+     */
+    private static class Adjacency {
+        int[] rowStarts = new int[] { 0 };
+        int[] rowIds = new int[0];
+        private IntSet[] added = new IntSet[0];
+        private IntSet[] removed = new IntSet[0];
+
+        int rowStart( int id ) {
+            return id < rowStarts.length - 1 ? rowStarts[id] : 0;
+        }
+
+        int rowEnd( int id ) {
+            return id < rowStarts.length - 1 ? rowStarts[id + 1] : 0;
+        }
+
+        int getRowSize() {
+            return rowIds.length;
+        }
+
+        IntSet addedAt( int id ) {
+            return id < added.length ? added[id] : null;
+        }
+
+        IntSet removedAt( int id ) {
+            return id < removed.length ? removed[id] : null;
+        }
+
+        boolean contains( int from, int to ) {
+            if( isInRow( from, to ) ) {
+                IntSet removedFrom = removedAt( from );
+                return removedFrom == null || !removedFrom.contains( to );
+            }
+            IntSet addedFrom = addedAt( from );
+            return addedFrom != null && addedFrom.contains( to );
+        }
+
+        boolean add( int from, int to ) {
+            if( isInRow( from, to ) ) {
+                IntSet removedFrom = removedAt( from );
+                return removedFrom != null && removedFrom.remove( to );
+            }
+            added = ensure( added, from );
+            if( added[from] == null ) {
+                added[from] = new IntSet();
+            }
+            return added[from].add( to );
+        }
+
+        void remove( int from, int to ) {
+            if( isInRow( from, to ) ) {
+                removed = ensure( removed, from );
+                if( removed[from] == null ) {
+                    removed[from] = new IntSet();
+                }
+                removed[from].add( to );
+            } else if( addedAt( from ) != null ) {
+                added[from].remove( to );
+            }
+        }
+
+        int[] get( int id ) {
+            IntSet addedTo = addedAt( id );
+            IntSet removedFrom = removedAt( id );
+            int start = rowStart( id );
+            int end = rowEnd( id );
+            int size = end - start + (addedTo == null ? 0 : addedTo.size()) - (removedFrom == null ? 0 : removedFrom.size());
+            int[] result = new int[size];
+            int count = 0;
+            for( int index = start; index < end; index++ ) {
+                if( removedFrom == null || !removedFrom.contains( rowIds[index] ) ) {
+                    result[count++] = rowIds[index];
+                }
+            }
+            for( int index = 0; addedTo != null && index < addedTo.size(); index++ ) {
+                result[count++] = addedTo.get( index );
+            }
+            return result;
+        }
+
+        void compact( int idCount ) {
+            int[][] rows = new int[idCount][];
+            int total = 0;
+            for( int id = 0; id < idCount; id++ ) {
+                rows[id] = get( id );
+                Arrays.sort( rows[id] );
+                total += rows[id].length;
+            }
+            int[] starts = new int[idCount + 1];
+            int[] ids = new int[total];
+            for( int id = 0; id < idCount; id++ ) {
+                System.arraycopy( rows[id], 0, ids, starts[id], rows[id].length );
+                starts[id + 1] = starts[id] + rows[id].length;
+            }
+            rowStarts = starts;
+            rowIds = ids;
+            added = new IntSet[0];
+            removed = new IntSet[0];
+        }
+
+        void clear() {
+            rowStarts = new int[] { 0 };
+            rowIds = new int[0];
+            added = new IntSet[0];
+            removed = new IntSet[0];
+        }
+
+        private boolean isInRow( int from, int to ) {
+            return Arrays.binarySearch( rowIds, rowStart( from ), rowEnd( from ), to ) >= 0;
+        }
+
+        private static IntSet[] ensure( IntSet[] sets, int id ) {
+            if( id < sets.length ) {
+                return sets;
+            }
+            return Arrays.copyOf( sets, Math.max( id + 1, 2 * sets.length ) );
+        }
+    }
+}
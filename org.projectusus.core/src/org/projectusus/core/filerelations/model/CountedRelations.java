@@ -0,0 +1,171 @@
+package org.projectusus.core.filerelations.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * relations which are added more than once and counted: a relation stays until it is removed as often as it was added. The count of a
+ * relation and the highest count of all relations are known without looking through the relations.
+ */
+class CountedRelations<K> {
+
+    private final Map<K, Map<K, int[]>> outgoing = new HashMap<K, Map<K, int[]>>();
+    private final Map<K, Set<K>> incoming = new HashMap<K, Set<K>>();
+    // how many relations there are with each count, to find the next highest count when the highest one goes
+    private int[] relationsByCount = new int[16];
+    private int maxCount;
+
+    CountedRelations() {
+        super();
+    }
+
+    CountedRelations( CountedRelations<K> original ) {
+        for( Map.Entry<K, Map<K, int[]>> source : original.outgoing.entrySet() ) {
+            for( Map.Entry<K, int[]> target : source.getValue().entrySet() ) {
+                add( source.getKey(), target.getKey(), target.getValue()[0] );
+            }
+        }
+    }
+
+    /**
+     * @return whether the relation is new
+     */
+    boolean add( K source, K target ) {
+        return add( source, target, 1 );
+    }
+
+    /**
+     * @return whether the relation is new
+     */
+    boolean add( K source, K target, int times ) {
+        Map<K, int[]> targets = outgoing.get( source );
+        if( targets == null ) {
+            targets = new HashMap<K, int[]>();
+            outgoing.put( source, targets );
+        }
+        int[] count = targets.get( target );
+        boolean isNew = count == null;
+        if( isNew ) {
+            count = new int[1];
+            targets.put( target, count );
+            Set<K> sources = incoming.get( target );
+            if( sources == null ) {
+                sources = new HashSet<K>();
+                incoming.put( target, sources );
+            }
+            sources.add( source );
+        } else {
+            relationsByCount[count[0]]--;
+        }
+        count[0] += times;
+        countRelation( count[0] );
+        return isNew;
+    }
+
+    /**
+     * @return whether the relation is gone, having been removed as often as it was added
+     */
+    boolean remove( K source, K target ) {
+        Map<K, int[]> targets = outgoing.get( source );
+        int[] count = targets == null ? null : targets.get( target );
+        if( count == null ) {
+            return false;
+        }
+        int oldCount = count[0]--;
+        if( count[0] > 0 ) {
+            relationsByCount[count[0]]++;
+        }
+        uncountRelation( oldCount );
+        if( count[0] > 0 ) {
+            return false;
+        }
+        targets.remove( target );
+        if( targets.isEmpty() ) {
+            outgoing.remove( source );
+        }
+        Set<K> sources = incoming.get( target );
+        sources.remove( source );
+        if( sources.isEmpty() ) {
+            incoming.remove( target );
+        }
+        return true;
+    }
+
+    boolean contains( K source, K target ) {
+        Map<K, int[]> targets = outgoing.get( source );
+        return targets != null && targets.containsKey( target );
+    }
+
+    /**
+     * how often the relation was added and not removed, 0 if there is none.
+     */
+    int getCount( K source, K target ) {
+        Map<K, int[]> targets = outgoing.get( source );
+        int[] count = targets == null ? null : targets.get( target );
+        return count == null ? 0 : count[0];
+    }
+
+    /**
+     * the highest count of all relations, 0 if there are none.
+     */
+    int getMaxCount() {
+        return maxCount;
+    }
+
+    Set<K> getTargets( K source ) {
+        Map<K, int[]> targets = outgoing.get( source );
+        return targets == null ? Collections.<K> emptySet() : Collections.unmodifiableSet( targets.keySet() );
+    }
+
+    Set<K> getSources( K target ) {
+        Set<K> sources = incoming.get( target );
+        return sources == null ? Collections.<K> emptySet() : Collections.unmodifiableSet( sources );
+    }
+
+    /**
+     * the keys with relations from them, each with the keys they relate to.
+     */
+    Map<K, ? extends Map<K, ?>> getTargetsBySource() {
+        return Collections.unmodifiableMap( outgoing );
+    }
+
+    Set<K> keySet() {
+        Set<K> result = new HashSet<K>( outgoing.keySet() );
+        result.addAll( incoming.keySet() );
+        return result;
+    }
+
+    boolean isEmpty() {
+        return outgoing.isEmpty();
+    }
+
+    void clear() {
+        outgoing.clear();
+        incoming.clear();
+        relationsByCount = new int[relationsByCount.length];
+        maxCount = 0;
+    }
+
+    // internal
+    // ////////
+
+    private void countRelation( int count ) {
+        if( count >= relationsByCount.length ) {
+            int[] grown = new int[Math.max( count + 1, relationsByCount.length * 2 )];
+            System.arraycopy( relationsByCount, 0, grown, 0, relationsByCount.length );
+            relationsByCount = grown;
+        }
+        relationsByCount[count]++;
+        maxCount = Math.max( maxCount, count );
+    }
+
+    private void uncountRelation( int count ) {
+        relationsByCount[count]--;
+        while( maxCount > 0 && relationsByCount[maxCount] == 0 ) {
+            maxCount--;
+        }
+    }
+}
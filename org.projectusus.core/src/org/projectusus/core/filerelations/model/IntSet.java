@@ -0,0 +1,55 @@
+package org.projectusus.core.filerelations.model;
+
+import java.util.Arrays;
+
+/**
+ * a small set of ints, kept sorted in an array.
+ */
+class IntSet {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] values = new int[INITIAL_CAPACITY];
+    private int size;
+
+    boolean add( int value ) {
+        int index = indexOf( value );
+        if( index >= 0 ) {
+            return false;
+        }
+        int insertAt = -index - 1;
+        if( size == values.length ) {
+            values = Arrays.copyOf( values, 2 * size );
+        }
+        System.arraycopy( values, insertAt, values, insertAt + 1, size - insertAt );
+        values[insertAt] = value;
+        size++;
+        return true;
+    }
+
+    boolean remove( int value ) {
+        int index = indexOf( value );
+        if( index < 0 ) {
+            return false;
+        }
+        System.arraycopy( values, index + 1, values, index, size - index - 1 );
+        size--;
+        return true;
+    }
+
+    boolean contains( int value ) {
+        return indexOf( value ) >= 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get( int index ) {
+        return values[index];
+    }
+
+    private int indexOf( int value ) {
+        return Arrays.binarySearch( values, 0, size, value );
+    }
+}
@@ -0,0 +1,230 @@
+package org.projectusus.core.filerelations.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * the relations between packages, kept up to date with each class relation added or removed: a package refers to another one as often as
+ * its classes refer to classes of the other one.
+ * <p>
+ * The strongly connected components (the package cycles) are brought up to date when they are next asked for, and only where the
+ * relations changed: a component which lost a relation inside it is split again, and the components on a new cycle are merged. After many
+ * changes, all components are found again instead.
+ */
+class PackageGraph {
+
+    private static final int MIN_CHANGES_FOR_FULL_UPDATE = 16;
+    private static final int PACKAGES_PER_CHANGE_FOR_FULL_UPDATE = 8;
+
+    private final CountedRelations<Packagename> relations = new CountedRelations<Packagename>();
+
+    private final Map<Packagename, Set<Packagename>> components = new HashMap<Packagename, Set<Packagename>>();
+    private final List<Packagename[]> addedRelations = new ArrayList<Packagename[]>();
+    private final Map<Set<Packagename>, Boolean> componentsToSplit = new IdentityHashMap<Set<Packagename>, Boolean>();
+
+    private int version;
+
+    synchronized void relationAdded( Packagename source, Packagename target ) {
+        if( source == null || target == null || source.equals( target ) ) {
+            return;
+        }
+        version++;
+        if( !relations.add( source, target ) ) {
+            return;
+        }
+        Set<Packagename> component = components.get( source );
+        if( component == null || component != components.get( target ) ) {
+            addedRelations.add( new Packagename[] { source, target } );
+        }
+    }
+
+    synchronized void relationRemoved( Packagename source, Packagename target ) {
+        if( source == null || target == null || source.equals( target ) ) {
+            return;
+        }
+        if( !relations.contains( source, target ) ) {
+            return;
+        }
+        version++;
+        if( !relations.remove( source, target ) ) {
+            return;
+        }
+        Set<Packagename> component = components.get( source );
+        if( component != null && component == components.get( target ) ) {
+            componentsToSplit.put( component, Boolean.TRUE );
+        }
+    }
+
+    synchronized void clear() {
+        version++;
+        relations.clear();
+        components.clear();
+        addedRelations.clear();
+        componentsToSplit.clear();
+    }
+
+    /**
+     * changes with each class relation between packages added or removed.
+     */
+    synchronized int getVersion() {
+        return version;
+    }
+
+    /**
+     * the package relations, each counted as often as classes of the source package refer to classes of the target package, as a copy.
+     */
+    synchronized CountedRelations<Packagename> getCrossLinks() {
+        return new CountedRelations<Packagename>( relations );
+    }
+
+    /**
+     * the package cycles: the strongly connected components of more than one package, each as a new set.
+     */
+    synchronized List<Set<Packagename>> getCycles() {
+        updateComponents();
+        List<Set<Packagename>> result = new ArrayList<Set<Packagename>>();
+        Set<Set<Packagename>> seen = Collections.newSetFromMap( new IdentityHashMap<Set<Packagename>, Boolean>() );
+        for( Set<Packagename> component : components.values() ) {
+            if( seen.add( component ) ) {
+                result.add( new HashSet<Packagename>( component ) );
+            }
+        }
+        return result;
+    }
+
+    /**
+     * the strongly connected components of more than one package among the given packages, following only the relations among them.
+     */
+    static List<Set<Packagename>> findCycles( Collection<Packagename> packages, Map<Packagename, ? extends Map<Packagename, ?>> relations ) {
+        List<Packagename> nodes = new ArrayList<Packagename>( packages );
+        Map<Packagename, Integer> ids = new HashMap<Packagename, Integer>();
+        for( int id = 0; id < nodes.size(); id++ ) {
+            ids.put( nodes.get( id ), Integer.valueOf( id ) );
+        }
+        int[] rowStarts = new int[nodes.size() + 1];
+        List<Integer> rowIds = new ArrayList<Integer>();
+        for( int id = 0; id < nodes.size(); id++ ) {
+            Map<Packagename, ?> targets = relations.get( nodes.get( id ) );
+            if( targets != null ) {
+                for( Packagename target : targets.keySet() ) {
+                    Integer targetId = ids.get( target );
+                    if( targetId != null ) {
+                        rowIds.add( targetId );
+                    }
+                }
+            }
+            rowStarts[id + 1] = rowIds.size();
+        }
+        StrongComponents strongComponents = new StrongComponents( nodes.size(), rowStarts, toArray( rowIds ) );
+        List<Set<Packagename>> byComponent = new ArrayList<Set<Packagename>>();
+        for( int component = 0; component < strongComponents.getCount(); component++ ) {
+            byComponent.add( new HashSet<Packagename>() );
+        }
+        int[] componentOf = strongComponents.getComponentOf();
+        for( int id = 0; id < nodes.size(); id++ ) {
+            byComponent.get( componentOf[id] ).add( nodes.get( id ) );
+        }
+        List<Set<Packagename>> result = new ArrayList<Set<Packagename>>();
+        for( Set<Packagename> component : byComponent ) {
+            if( component.size() > 1 ) {
+                result.add( component );
+            }
+        }
+        return result;
+    }
+
+    // internal
+    // ////////
+
+    private void updateComponents() {
+        int changes = addedRelations.size() + componentsToSplit.size();
+        if( changes > Math.max( MIN_CHANGES_FOR_FULL_UPDATE, relations.getTargetsBySource().size() / PACKAGES_PER_CHANGE_FOR_FULL_UPDATE ) ) {
+            components.clear();
+            putComponents( findCycles( relations.keySet(), relations.getTargetsBySource() ) );
+        } else {
+            for( Set<Packagename> component : componentsToSplit.keySet() ) {
+                split( component );
+            }
+            for( Packagename[] relation : addedRelations ) {
+                merge( relation[0], relation[1] );
+            }
+        }
+        addedRelations.clear();
+        componentsToSplit.clear();
+    }
+
+    private void split( Set<Packagename> component ) {
+        for( Packagename member : component ) {
+            components.remove( member );
+        }
+        putComponents( findCycles( component, relations.getTargetsBySource() ) );
+    }
+
+    // a new relation source -> target closes a cycle if target reaches source; then everything on the way is strongly connected
+    private void merge( Packagename source, Packagename target ) {
+        if( !relations.contains( source, target ) ) {
+            return;
+        }
+        Set<Packagename> component = components.get( source );
+        if( component != null && component == components.get( target ) ) {
+            return;
+        }
+        Set<Packagename> reachedFromTarget = reach( target, true );
+        if( !reachedFromTarget.contains( source ) ) {
+            return;
+        }
+        Set<Packagename> reachingSource = reach( source, false );
+        reachedFromTarget.retainAll( reachingSource );
+        Set<Packagename> merged = new HashSet<Packagename>();
+        for( Packagename member : reachedFromTarget ) {
+            Set<Packagename> old = components.get( member );
+            if( old == null ) {
+                merged.add( member );
+            } else {
+                merged.addAll( old );
+            }
+        }
+        putComponents( Collections.singletonList( merged ) );
+    }
+
+    private Set<Packagename> reach( Packagename start, boolean forward ) {
+        Set<Packagename> result = new HashSet<Packagename>();
+        LinkedList<Packagename> open = new LinkedList<Packagename>();
+        result.add( start );
+        open.add( start );
+        while( !open.isEmpty() ) {
+            Packagename current = open.removeFirst();
+            Collection<Packagename> next = forward ? relations.getTargets( current ) : relations.getSources( current );
+            for( Packagename packagename : next ) {
+                if( result.add( packagename ) ) {
+                    open.add( packagename );
+                }
+            }
+        }
+        return result;
+    }
+
+    private void putComponents( List<Set<Packagename>> cycles ) {
+        for( Set<Packagename> cycle : cycles ) {
+            for( Packagename member : cycle ) {
+                components.put( member, cycle );
+            }
+        }
+    }
+
+    private static int[] toArray( List<Integer> values ) {
+        int[] result = new int[values.size()];
+        for( int index = 0; index < result.length; index++ ) {
+            result[index] = values.get( index ).intValue();
+        }
+        return result;
+    }
+}
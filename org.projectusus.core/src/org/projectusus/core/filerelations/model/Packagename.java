@@ -20,11 +20,11 @@ public class Packagename {
     private Set<ClassDescriptor> classesInPackage = new HashSet<ClassDescriptor>();
     private final IJavaElement javaElement;
 
-    public static void clear() {
+    public static synchronized void clear() {
         allPackages = new HashMap<String, Packagename>();
     }
 
-    public static Packagename of( String name, IJavaElement javaElement ) {
+    public static synchronized Packagename of( String name, IJavaElement javaElement ) {
         if( allPackages.containsKey( name ) ) {
             return allPackages.get( name );
         }
@@ -33,7 +33,7 @@ public class Packagename {
         return newPackage;
     }
 
-    public static Set<Packagename> getAll() {
+    public static synchronized Set<Packagename> getAll() {
         return new HashSet<Packagename>( allPackages.values() );
     }
 
@@ -49,10 +49,14 @@ public class Packagename {
     public void removeClass( ClassDescriptor clazz ) {
         classesInPackage.remove( clazz );
         if( classesInPackage.isEmpty() ) {
-            allPackages.remove( name );
+            removeFromAllPackages( name );
         }
     }
 
+    private static synchronized void removeFromAllPackages( String name ) {
+        allPackages.remove( name );
+    }
+
     public boolean containsClass( ClassDescriptor clazz ) {
         return classesInPackage.contains( clazz );
     }
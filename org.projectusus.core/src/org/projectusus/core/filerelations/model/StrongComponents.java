@@ -0,0 +1,87 @@
+package org.projectusus.core.filerelations.model;
+
+/**
+ * the strongly connected components of a graph given as compressed rows of int ids. They are numbered in reverse topological order: a
+ * component reachable from another one has a lower number.
+ */
+class StrongComponents {
+
+    private final int[] componentOf;
+    private int count;
+
+    /**
+     * @param rowStarts
+     *            where the children of each node start in <code>rowIds</code>, one more entry than nodes
+     */
+    StrongComponents( int nodeCount, int[] rowStarts, int[] rowIds ) {
+        componentOf = new int[nodeCount];
+        find( nodeCount, rowStarts, rowIds );
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * the component of each node, by id.
+     */
+    int[] getComponentOf() {
+        return componentOf;
+    }
+
+    // internal
+    // ////////
+
+    // Tarjan's algorithm, without recursion: class hierarchies are deep enough to overflow the call stack
+    private void find( int nodeCount, int[] rowStarts, int[] rowIds ) {
+        int[] index = new int[nodeCount];
+        int[] lowLink = new int[nodeCount];
+        boolean[] onStack = new boolean[nodeCount];
+        int[] stack = new int[nodeCount];
+        int stackSize = 0;
+        int[] callStack = new int[nodeCount];
+        int[] nextChild = new int[nodeCount];
+        int nextIndex = 1;
+        for( int root = 0; root < nodeCount; root++ ) {
+            if( index[root] != 0 ) {
+                continue;
+            }
+            int depth = 0;
+            callStack[depth++] = root;
+            index[root] = lowLink[root] = nextIndex++;
+            nextChild[root] = rowStarts[root];
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            while( depth > 0 ) {
+                int node = callStack[depth - 1];
+                if( nextChild[node] < rowStarts[node + 1] ) {
+                    int child = rowIds[nextChild[node]++];
+                    if( index[child] == 0 ) {
+                        index[child] = lowLink[child] = nextIndex++;
+                        nextChild[child] = rowStarts[child];
+                        stack[stackSize++] = child;
+                        onStack[child] = true;
+                        callStack[depth++] = child;
+                    } else if( onStack[child] ) {
+                        lowLink[node] = Math.min( lowLink[node], index[child] );
+                    }
+                    continue;
+                }
+                depth--;
+                if( depth > 0 ) {
+                    int parent = callStack[depth - 1];
+                    lowLink[parent] = Math.min( lowLink[parent], lowLink[node] );
+                }
+                if( lowLink[node] == index[node] ) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        componentOf[member] = count;
+                    } while( member != node );
+                    count++;
+                }
+            }
+        }
+    }
+}
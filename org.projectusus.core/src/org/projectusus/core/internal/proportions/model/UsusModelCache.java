@@ -16,12 +16,25 @@ import org.projectusus.core.basis.CodeProportion;
 
 public class UsusModelCache {
     private final Map<String, CodeProportion> metricsValues;
+    private final boolean partial;
 
     public UsusModelCache() {
+        this( false );
+    }
+
+    public UsusModelCache( boolean partial ) {
         super();
+        this.partial = partial;
         metricsValues = new HashMap<String, CodeProportion>();
     }
 
+    /**
+     * whether the entries were computed while a computation run was still going on, and so cover only the files done so far.
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+
     public void refresh( CodeProportion proportion ) {
         metricsValues.put( proportion.getMetricLabel(), proportion );
     }
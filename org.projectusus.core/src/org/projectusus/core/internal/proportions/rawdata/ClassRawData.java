@@ -4,12 +4,14 @@
 // See http://www.eclipse.org/legal/epl-v10.html for details.
 package org.projectusus.core.internal.proportions.rawdata;
 
-import static org.projectusus.core.internal.proportions.rawdata.JDTSupport.getCompilationUnit;
+import static org.projectusus.core.internal.proportions.rawdata.JDTSupport.getSourceRange;
+
+import java.util.Collection;
+import java.util.List;
 
-import org.eclipse.jdt.core.ICompilationUnit;
-import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IMethod;
-import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.ISourceRange;
+import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.Initializer;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.projectusus.core.IMetricsResultVisitor;
@@ -28,21 +30,114 @@ public class ClassRawData extends RawData<Integer, MethodRawData> {
 
     private ClassDescriptor descriptor;
     private ASTNodeHelper nodeHelper;
+    private volatile SourceRanges<MethodRawData> methodRanges;
+    private final HandleIndex<MethodRawData> methodsByHandle = new HandleIndex<MethodRawData>();
+    private volatile PackedMethods packedMethods;
 
-    public ClassRawData( WrappedTypeBinding binding, String name, ASTNodeHelper nodeHelper, int startPosition, int line ) {
+    public ClassRawData( WrappedTypeBinding binding, String name, ASTNodeHelper nodeHelper, int startPosition, int length, int line ) {
         super();
         this.nodeHelper = nodeHelper;
-        location = new SourceCodeLocation( name, startPosition, line );
+        location = new SourceCodeLocation( name, startPosition, length, line );
         data = new MetricsResults();
         this.descriptor = ClassDescriptor.of( binding );
     }
 
+    ClassRawData( ClassDescriptor descriptor, SourceCodeLocation location ) {
+        super();
+        this.location = location;
+        data = new MetricsResults();
+        this.descriptor = descriptor;
+    }
+
     // for debugging:
     @Override
     public String toString() {
         return "Class " + location.getName() + " in line " + location.getLineNumber() + " with " + getRawDataElementCount() + " methods."; //$NON-NLS-1$//$NON-NLS-2$//$NON-NLS-3$ //$NON-NLS-4$
     }
 
+    SourceCodeLocation getLocation() {
+        return location;
+    }
+
+    ClassDescriptor getDescriptor() {
+        return descriptor;
+    }
+
+    MetricsResults getData() {
+        return data;
+    }
+
+    @Override
+    Collection<Integer> getAllKeys() {
+        PackedMethods packed = packedMethods;
+        if( packed == null ) {
+            Collection<Integer> result = super.getAllKeys();
+            // packing sets the packed methods before it removes the nodes
+            packed = packedMethods;
+            if( packed == null ) {
+                return result;
+            }
+        }
+        return packed.getStarts();
+    }
+
+    @Override
+    Collection<MethodRawData> getAllRawDataElements() {
+        PackedMethods packed = packedMethods;
+        if( packed == null ) {
+            Collection<MethodRawData> result = super.getAllRawDataElements();
+            packed = packedMethods;
+            if( packed == null ) {
+                return result;
+            }
+        }
+        return packed.unpack();
+    }
+
+    @Override
+    int getRawDataElementCount() {
+        PackedMethods packed = packedMethods;
+        if( packed == null ) {
+            int result = super.getRawDataElementCount();
+            packed = packedMethods;
+            if( packed == null ) {
+                return result;
+            }
+        }
+        return packed.size();
+    }
+
+    /**
+     * keeps the methods in packed form from now on, see {@link PackedMethods}. Readers go on seeing the same methods, but get new raw data
+     * objects for them once the class has not been read for a while.
+     */
+    synchronized void packMethods() {
+        if( packedMethods == null && super.getRawDataElementCount() > 0 ) {
+            packedMethods = new PackedMethods( super.getAllRawDataElements() );
+            removeAll();
+            methodsByHandle.clear();
+            methodRanges = null;
+        }
+    }
+
+    // before methods are written
+    private synchronized void unpackMethods() {
+        PackedMethods packed = packedMethods;
+        if( packed != null ) {
+            for( MethodRawData methodRawData : packed.unpack() ) {
+                super.addRawData( Integer.valueOf( methodRawData.getLocation().getSourcePosition() ), methodRawData );
+            }
+            packed.forget();
+            packedMethods = null;
+            methodsByHandle.clear();
+        }
+    }
+
+    void addMethodRawData( MethodRawData methodRawData ) {
+        unpackMethods();
+        super.addRawData( Integer.valueOf( methodRawData.getLocation().getSourcePosition() ), methodRawData );
+    }
+
     void putData( MethodDeclaration node, String dataKey, Object value ) {
         MethodRawData methodRawData = getOrCreateMethodRawData( node );
         if( methodRawData != null ) {
@@ -58,36 +153,66 @@ public class ClassRawData extends RawData<Integer, MethodRawData> {
     }
 
     private MethodRawData getOrCreateMethodRawData( MethodDeclaration node ) {
-        return getOrCreateMethodRawData( nodeHelper.getStartPositionFor( node ), nodeHelper.calcLineNumberFor( node ), node.getName().toString() );
+        return getOrCreateMethodRawData( node, node.getName().toString() );
     }
 
     private MethodRawData getOrCreateMethodRawData( Initializer node ) {
-        return getOrCreateMethodRawData( nodeHelper.getStartPositionFor( node ), nodeHelper.calcLineNumberFor( node ), "initializer" ); //$NON-NLS-1$
+        return getOrCreateMethodRawData( node, "initializer" ); //$NON-NLS-1$
     }
 
-    private MethodRawData getOrCreateMethodRawData( IMethod method ) {
-        ICompilationUnit compilationUnit = getCompilationUnit( method );
-        if( compilationUnit == null ) {
-            return null;
-        }
-        try {
-            for( Integer start : getAllKeys() ) {
-                IJavaElement foundElement = compilationUnit.getElementAt( start.intValue() );
-                if( method.equals( foundElement ) ) {
-                    return getOrCreateMethodRawData( start.intValue(), 0, "" ); //$NON-NLS-1$
-                }
+    private MethodRawData getOrCreateMethodRawData( ASTNode node, String methodName ) {
+        return getOrCreateMethodRawData( nodeHelper.getStartPositionFor( node ), nodeHelper.getLengthFor( node ), nodeHelper
+                .calcLineNumberFor( node ), methodName );
+    }
+
+    // packed methods are made again once the class has not been read for a while, so they are not held by handle
+    MethodRawData findMethodRawData( IMethod method ) {
+        boolean isPacked = packedMethods != null;
+        MethodRawData result = isPacked ? null : methodsByHandle.get( method );
+        if( result == null ) {
+            ISourceRange range = getSourceRange( method );
+            result = range == null ? null : getMethodRanges().getDeclaredIn( range.getOffset(), range.getLength() );
+            if( !isPacked ) {
+                methodsByHandle.put( method, result );
             }
-            return null;
-        } catch( JavaModelException e ) {
-            return null;
         }
+        return result;
+    }
+
+    /**
+     * the innermost method whose declaration contains the offset, <code>null</code> if there is none.
+     */
+    MethodRawData getMethodRawDataAt( int offset ) {
+        return getMethodRanges().getInnermostAt( offset );
+    }
+
+    /**
+     * all methods whose declarations overlap the given source range.
+     */
+    List<MethodRawData> getMethodRawDataIn( int offset, int length ) {
+        return getMethodRanges().getOverlapping( offset, length );
     }
 
-    private MethodRawData getOrCreateMethodRawData( int start, int lineNr, String methodName ) {
+    private SourceRanges<MethodRawData> getMethodRanges() {
+        PackedMethods packed = packedMethods;
+        if( packed != null ) {
+            return packed.getMethodRanges();
+        }
+        int version = getVersion();
+        SourceRanges<MethodRawData> result = methodRanges;
+        if( result == null || !result.isOfVersion( version ) ) {
+            result = SourceRanges.ofMethods( getAllRawDataElements(), version );
+            methodRanges = result;
+        }
+        return result;
+    }
+
+    private MethodRawData getOrCreateMethodRawData( int start, int length, int lineNr, String methodName ) {
+        unpackMethods();
         Integer startObject = new Integer( start );
         MethodRawData rawData = super.getRawData( startObject );
         if( rawData == null ) {
-            rawData = new MethodRawData( start, lineNr, location.getName(), methodName );
+            rawData = new MethodRawData( start, length, lineNr, location.getName(), methodName );
             super.addRawData( startObject, rawData );
         }
         return rawData;
@@ -104,7 +229,10 @@ public class ClassRawData extends RawData<Integer, MethodRawData> {
         visitor.inspectClass( location, data );
         JavaModelPath path = visitor.getPath();
         if( path.isRestrictedToMethod() ) {
-            this.getOrCreateMethodRawData( path.getMethod() ).acceptAndGuide( visitor );
+            MethodRawData methodRawData = findMethodRawData( path.getMethod() );
+            if( methodRawData != null ) {
+                methodRawData.acceptAndGuide( visitor );
+            }
         } else {
             for( MethodRawData rawData : getAllRawDataElements() ) {
                 rawData.acceptAndGuide( visitor );
@@ -112,7 +240,7 @@ public class ClassRawData extends RawData<Integer, MethodRawData> {
         }
     }
 
-    private void updateData() {
+    void updateData() {
         putData( MetricsResults.METHODS, getRawDataElementCount() );
         putData( MetricsResults.CCD, descriptor.getCCD() );
     }
@@ -4,13 +4,15 @@
 // See http://www.eclipse.org/legal/epl-v10.html for details.
 package org.projectusus.core.internal.proportions.rawdata;
 
-import static org.projectusus.core.internal.proportions.rawdata.JDTSupport.getCompilationUnit;
+import static org.projectusus.core.internal.proportions.rawdata.JDTSupport.getSourceRange;
+
+import java.util.List;
+
 import net.sourceforge.c4j.ContractReference;
 
 import org.eclipse.core.resources.IFile;
-import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
-import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.ISourceRange;
 import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.Initializer;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
@@ -28,11 +30,24 @@ public class FileRawData extends RawData<Integer, ClassRawData> {
     private MetricsResults data;
     private final IFile file;
     private final ASTNodeHelper nodeHelper;
+    private final long modificationStamp;
+    private String fingerprint;
+    private volatile SourceRanges<ClassRawData> classRanges;
+    private final HandleIndex<ClassRawData> classesByHandle = new HandleIndex<ClassRawData>();
 
     public FileRawData( IFile file, ASTNodeHelper nodeHelper ) {
+        this( file, nodeHelper, file.getModificationStamp() );
+    }
+
+    FileRawData( IFile file, long modificationStamp ) {
+        this( file, null, modificationStamp );
+    }
+
+    private FileRawData( IFile file, ASTNodeHelper nodeHelper, long modificationStamp ) {
         super(); // sagt AL ;)
         this.file = file;
         this.nodeHelper = nodeHelper;
+        this.modificationStamp = modificationStamp;
         data = new MetricsResults();
     }
 
@@ -41,6 +56,37 @@ public class FileRawData extends RawData<Integer, ClassRawData> {
         return "Data for " + file.getFullPath() + ", " + getRawDataElementCount() + " classes"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
     }
 
+    /**
+     * identifies the source and the collectors this data was computed from, see
+     * {@link org.projectusus.core.proportions.rawdata.jdtdriver.FileFingerprint}. <code>null</code> if unknown.
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint( String fingerprint ) {
+        this.fingerprint = fingerprint;
+    }
+
+    IFile getFile() {
+        return file;
+    }
+
+    /**
+     * the modification stamp the file had when this data was computed from it.
+     */
+    long getModificationStamp() {
+        return modificationStamp;
+    }
+
+    MetricsResults getData() {
+        return data;
+    }
+
+    void addClassRawData( ClassRawData classRawData ) {
+        super.addRawData( Integer.valueOf( classRawData.getLocation().getSourcePosition() ), classRawData );
+    }
+
     public void putData( WrappedTypeBinding boundType, MethodDeclaration methodDecl, String dataKey, Object value ) {
         ClassRawData classRawData = getOrCreateClassRawData( boundType, methodDecl );
         if( classRawData != null ) {
@@ -63,14 +109,15 @@ public class FileRawData extends RawData<Integer, ClassRawData> {
     }
 
     private ClassRawData getOrCreateClassRawData( WrappedTypeBinding boundType, AbstractTypeDeclaration node ) {
-        return getOrCreateClassRawData( boundType, nodeHelper.getStartPositionFor( node ), nodeHelper.calcLineNumberFor( node ), node.getName().toString() );
+        return getOrCreateClassRawData( boundType, nodeHelper.getStartPositionFor( node ), nodeHelper.getLengthFor( node ), nodeHelper
+                .calcLineNumberFor( node ), node.getName().toString() );
     }
 
-    private ClassRawData getOrCreateClassRawData( WrappedTypeBinding typeBinding, int start, int lineNumber, String name ) {
+    private ClassRawData getOrCreateClassRawData( WrappedTypeBinding typeBinding, int start, int length, int lineNumber, String name ) {
         Integer startObject = Integer.valueOf( start );
         ClassRawData rawData = super.getRawData( startObject );
         if( rawData == null ) {
-            rawData = new ClassRawData( typeBinding, name, nodeHelper, start, lineNumber );
+            rawData = new ClassRawData( typeBinding, name, nodeHelper, start, length, lineNumber );
             super.addRawData( startObject, rawData );
         }
         return rawData;
@@ -84,26 +131,46 @@ public class FileRawData extends RawData<Integer, ClassRawData> {
         return getOrCreateClassRawData( boundType, nodeHelper.findEnclosingClassOf( node ) );
     }
 
-    private ClassRawData getClassRawData( IJavaElement element ) {
-        ICompilationUnit compilationUnit = getCompilationUnit( element );
-        if( compilationUnit != null ) {
-            try {
-                return getClassRawData( element, compilationUnit );
-            } catch( JavaModelException e ) {
-                // catch silently
-            }
+    ClassRawData getClassRawData( IJavaElement element ) {
+        ClassRawData result = classesByHandle.get( element );
+        if( result == null ) {
+            ISourceRange range = getSourceRange( element );
+            result = range == null ? null : getClassRanges().getDeclaredIn( range.getOffset(), range.getLength() );
+            classesByHandle.put( element, result );
         }
-        return null;
+        return result;
     }
 
-    private ClassRawData getClassRawData( IJavaElement element, ICompilationUnit compilationUnit ) throws JavaModelException {
-        for( Integer startPosition : getAllKeys() ) {
-            IJavaElement foundElement = compilationUnit.getElementAt( startPosition.intValue() );
-            if( element.equals( foundElement ) ) {
-                return super.getRawData( startPosition );
-            }
+    /**
+     * the innermost class whose declaration contains the offset, <code>null</code> if there is none.
+     */
+    ClassRawData getClassRawDataAt( int offset ) {
+        return getClassRanges().getInnermostAt( offset );
+    }
+
+    /**
+     * the innermost method whose declaration contains the offset, <code>null</code> if there is none.
+     */
+    MethodRawData getMethodRawDataAt( int offset ) {
+        ClassRawData classRawData = getClassRawDataAt( offset );
+        return classRawData == null ? null : classRawData.getMethodRawDataAt( offset );
+    }
+
+    /**
+     * all classes whose declarations overlap the given source range, enclosing classes first.
+     */
+    List<ClassRawData> getClassRawDataIn( int offset, int length ) {
+        return getClassRanges().getOverlapping( offset, length );
+    }
+
+    private SourceRanges<ClassRawData> getClassRanges() {
+        int version = getVersion();
+        SourceRanges<ClassRawData> result = classRanges;
+        if( result == null || !result.isOfVersion( version ) ) {
+            result = SourceRanges.ofClasses( getAllRawDataElements(), version );
+            classRanges = result;
         }
-        return null;
+        return result;
     }
 
     private ClassRawData findClass( Classname classname ) {
@@ -115,18 +182,28 @@ public class FileRawData extends RawData<Integer, ClassRawData> {
         return null;
     }
 
+    void packMethods() {
+        for( ClassRawData classRawData : getAllRawDataElements() ) {
+            classRawData.packMethods();
+        }
+    }
+
     public void dropRawData() {
         for( ClassRawData classRD : getAllRawDataElements() ) {
             classRD.dropRawData();
         }
         removeAll();
+        classesByHandle.clear();
     }
 
     public void acceptAndGuide( IMetricsResultVisitor visitor ) {
         visitor.inspectFile( file, data );
         JavaModelPath path = visitor.getPath();
         if( path.isRestrictedToType() ) {
-            this.getClassRawData( path.getType() ).acceptAndGuide( visitor );
+            ClassRawData classRawData = getClassRawData( path.getType() );
+            if( classRawData != null ) {
+                classRawData.acceptAndGuide( visitor );
+            }
         } else {
             for( ClassRawData classRD : getAllRawDataElements() ) {
                 classRD.acceptAndGuide( visitor );
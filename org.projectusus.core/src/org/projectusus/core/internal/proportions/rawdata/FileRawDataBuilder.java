@@ -0,0 +1,221 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.core.internal.proportions.rawdata;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.Initializer;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.projectusus.core.IFileMetricsWriter;
+import org.projectusus.core.basis.MetricsResults;
+import org.projectusus.core.basis.SourceCodeLocation;
+import org.projectusus.core.filerelations.model.ASTNodeHelper;
+import org.projectusus.core.filerelations.model.ClassDescriptor;
+import org.projectusus.core.filerelations.model.Classname;
+import org.projectusus.core.filerelations.model.Packagename;
+import org.projectusus.core.filerelations.model.WrappedTypeBinding;
+
+/**
+ * collects what the metrics collectors write about one file, and hands it to the raw data tree in one step when the file is done, see
+ * {@link #commit()}. The enclosing class and the source location of a declaration are looked up once, not for every value written about it.
+ * Classes are identified by their name and source range in the file, so writing metrics does not need bindings.
+ * <p>
+ * Readers of the raw data tree see either the previous data of the file or the complete new data, never a file half written. A builder is
+ * meant for the single thread computing its file.
+ */
+public class FileRawDataBuilder implements IFileMetricsWriter {
+
+    private static final String INITIALIZER = "initializer"; //$NON-NLS-1$
+
+    private final IFile file;
+    private final MetricsAccessor accessor;
+    private final ASTNodeHelper nodeHelper;
+    private final Map<AbstractTypeDeclaration, PendingClass> classesByDeclaration = new IdentityHashMap<AbstractTypeDeclaration, PendingClass>();
+    private final Map<ASTNode, MethodRawData> methodsByDeclaration = new IdentityHashMap<ASTNode, MethodRawData>();
+    private final Map<DeclaredAt, PendingClass> classes = new LinkedHashMap<DeclaredAt, PendingClass>();
+    private final List<WrappedTypeBinding[]> classReferences = new ArrayList<WrappedTypeBinding[]>();
+
+    FileRawDataBuilder( IFile file, MetricsAccessor accessor, ASTNodeHelper nodeHelper ) {
+        this.file = file;
+        this.accessor = accessor;
+        this.nodeHelper = nodeHelper;
+    }
+
+    public void putData( IFile ignored, MethodDeclaration methodDecl, String dataKey, int value ) {
+        putMethodData( methodDecl, methodDecl.getName().toString(), dataKey, Integer.valueOf( value ) );
+    }
+
+    public void putData( IFile ignored, MethodDeclaration methodDecl, String dataKey, Object value ) {
+        putMethodData( methodDecl, methodDecl.getName().toString(), dataKey, value );
+    }
+
+    public void putData( IFile ignored, Initializer initializer, String dataKey, int value ) {
+        putMethodData( initializer, INITIALIZER, dataKey, Integer.valueOf( value ) );
+    }
+
+    public void putData( IFile ignored, Initializer initializer, String dataKey, Object value ) {
+        putMethodData( initializer, INITIALIZER, dataKey, value );
+    }
+
+    public void putData( IFile ignored, AbstractTypeDeclaration node, String dataKey, int value ) {
+        putData( ignored, node, dataKey, Integer.valueOf( value ) );
+    }
+
+    public void putData( IFile ignored, AbstractTypeDeclaration node, String dataKey, Object value ) {
+        PendingClass pendingClass = classFor( node );
+        if( pendingClass != null ) {
+            pendingClass.data.put( dataKey, value );
+        }
+    }
+
+    public void addClassReference( WrappedTypeBinding source, WrappedTypeBinding target ) {
+        classReferences.add( new WrappedTypeBinding[] { source, target } );
+    }
+
+    public void commit() {
+        accessor.commit( this );
+    }
+
+    /**
+     * called by the accessor while it holds its lock: class descriptors are shared between all files and must only be touched there.
+     * 
+     * @param packMethods
+     *            whether to keep the methods in packed form, see {@link PackedMethods}.
+     */
+    void commitTo( WorkspaceRawData workspaceRawData, boolean packMethods ) {
+        workspaceRawData.dropRawData( file );
+        if( !classes.isEmpty() ) {
+            FileRawData fileRawData = new FileRawData( file, nodeHelper );
+            for( PendingClass pendingClass : classes.values() ) {
+                fileRawData.addClassRawData( pendingClass.build( file ) );
+            }
+            if( packMethods ) {
+                fileRawData.packMethods();
+            }
+            Packagename packagename = classes.values().iterator().next().packagename;
+            workspaceRawData.getOrCreateProjectRawData( file.getProject() ).addFileRawData( packagename, fileRawData );
+        }
+        for( WrappedTypeBinding[] reference : classReferences ) {
+            ClassDescriptor.of( reference[0] ).addChild( ClassDescriptor.of( reference[1] ) );
+        }
+    }
+
+    // internal
+    // ////////
+
+    private void putMethodData( ASTNode declaration, String name, String dataKey, Object value ) {
+        MethodRawData methodRawData = methodFor( declaration, name );
+        if( methodRawData != null ) {
+            methodRawData.putData( dataKey, value );
+        }
+    }
+
+    private MethodRawData methodFor( ASTNode declaration, String name ) {
+        if( methodsByDeclaration.containsKey( declaration ) ) {
+            return methodsByDeclaration.get( declaration );
+        }
+        MethodRawData result = null;
+        PendingClass pendingClass = classFor( nodeHelper.findEnclosingClassOf( declaration ) );
+        if( pendingClass != null ) {
+            result = pendingClass.methodAt( nodeHelper.getStartPositionFor( declaration ), nodeHelper.getLengthFor( declaration ), nodeHelper
+                    .calcLineNumberFor( declaration ), name );
+        }
+        methodsByDeclaration.put( declaration, result );
+        return result;
+    }
+
+    private PendingClass classFor( AbstractTypeDeclaration declaration ) {
+        if( declaration == null ) {
+            return null;
+        }
+        if( classesByDeclaration.containsKey( declaration ) ) {
+            return classesByDeclaration.get( declaration );
+        }
+        PendingClass result = null;
+        Packagename packagename = nodeHelper.getPackagenameOf( declaration );
+        if( packagename != null ) {
+            String name = declaration.getName().toString();
+            int start = nodeHelper.getStartPositionFor( declaration );
+            int length = nodeHelper.getLengthFor( declaration );
+            DeclaredAt key = new DeclaredAt( name, start, length );
+            result = classes.get( key );
+            if( result == null ) {
+                SourceCodeLocation location = new SourceCodeLocation( name, start, length, nodeHelper.calcLineNumberFor( declaration ) );
+                result = new PendingClass( new Classname( name ), packagename, location );
+                classes.put( key, result );
+            }
+        }
+        classesByDeclaration.put( declaration, result );
+        return result;
+    }
+
+    private static class DeclaredAt {
+        private final String name;
+        private final int start;
+        private final int length;
+
+        DeclaredAt( String name, int start, int length ) {
+            this.name = name;
+            this.start = start;
+            this.length = length;
+        }
+
+        @Override
+        public boolean equals( Object obj ) {
+            if( !(obj instanceof DeclaredAt) ) {
+                return false;
+            }
+            DeclaredAt other = (DeclaredAt)obj;
+            return start == other.start && length == other.length && name.equals( other.name );
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * start + length) + name.hashCode();
+        }
+    }
+
+    private static class PendingClass {
+        final Classname classname;
+        final Packagename packagename;
+        final SourceCodeLocation location;
+        final MetricsResults data = new MetricsResults();
+        final Map<Integer, MethodRawData> methods = new LinkedHashMap<Integer, MethodRawData>();
+
+        PendingClass( Classname classname, Packagename packagename, SourceCodeLocation location ) {
+            this.classname = classname;
+            this.packagename = packagename;
+            this.location = location;
+        }
+
+        MethodRawData methodAt( int start, int length, int lineNumber, String name ) {
+            Integer key = Integer.valueOf( start );
+            MethodRawData result = methods.get( key );
+            if( result == null ) {
+                result = new MethodRawData( start, length, lineNumber, location.getName(), name );
+                methods.put( key, result );
+            }
+            return result;
+        }
+
+        ClassRawData build( IFile file ) {
+            ClassRawData result = new ClassRawData( ClassDescriptor.of( file, classname, packagename ), location );
+            for( String key : data.getKeys() ) {
+                result.putData( key, data.get( key ) );
+            }
+            for( MethodRawData method : methods.values() ) {
+                result.addMethodRawData( method );
+            }
+            return result;
+        }
+    }
+}
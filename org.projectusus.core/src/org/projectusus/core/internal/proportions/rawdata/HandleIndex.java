@@ -0,0 +1,62 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.core.internal.proportions.rawdata;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.jdt.core.IJavaElement;
+
+/**
+ * the raw data found for Java elements before, by their handle identifiers (see {@link IJavaElement#getHandleIdentifier()}), so that the
+ * next lookup of the same element does not have to find it again.
+ * <p>
+ * Only the elements actually looked up are held, and the map is made at the first of them: most nodes are never looked up by element.
+ */
+class HandleIndex<T> {
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int CONCURRENCY_LEVEL = 1;
+
+    private volatile ConcurrentMap<String, T> nodes;
+
+    /**
+     * the raw data found for the element before, <code>null</code> if none was.
+     */
+    T get( IJavaElement element ) {
+        ConcurrentMap<String, T> current = nodes;
+        String handle = handleOf( element );
+        return current == null || handle == null ? null : current.get( handle );
+    }
+
+    /**
+     * remembers the raw data found for the element. Nothing is remembered if none was found.
+     */
+    void put( IJavaElement element, T node ) {
+        String handle = handleOf( element );
+        if( handle != null && node != null ) {
+            getOrCreateNodes().put( handle, node );
+        }
+    }
+
+    void clear() {
+        nodes = null;
+    }
+
+    // internal
+    // ////////
+
+    private static String handleOf( IJavaElement element ) {
+        return element == null ? null : element.getHandleIdentifier();
+    }
+
+    private synchronized ConcurrentMap<String, T> getOrCreateNodes() {
+        if( nodes == null ) {
+            nodes = new ConcurrentHashMap<String, T>( INITIAL_CAPACITY, LOAD_FACTOR, CONCURRENCY_LEVEL );
+        }
+        return nodes;
+    }
+}
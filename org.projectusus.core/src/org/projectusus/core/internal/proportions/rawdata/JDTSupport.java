@@ -7,6 +7,9 @@ package org.projectusus.core.internal.proportions.rawdata;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IOpenable;
+import org.eclipse.jdt.core.ISourceRange;
+import org.eclipse.jdt.core.ISourceReference;
+import org.eclipse.jdt.core.JavaModelException;
 
 class JDTSupport {
 
@@ -17,6 +20,21 @@ class JDTSupport {
         return toCompilationUnit( element.getOpenable() );
     }
 
+    /**
+     * the source range of the element's declaration, as far as the Java model knows it; <code>null</code> if unknown.
+     */
+    public static ISourceRange getSourceRange( IJavaElement element ) {
+        if( !(element instanceof ISourceReference) ) {
+            return null;
+        }
+        try {
+            ISourceRange range = ((ISourceReference)element).getSourceRange();
+            return range == null || range.getOffset() < 0 ? null : range;
+        } catch( JavaModelException e ) {
+            return null;
+        }
+    }
+
     private static ICompilationUnit toCompilationUnit( IOpenable openable ) {
         return openable instanceof ICompilationUnit ? (ICompilationUnit)openable : null;
     }
@@ -14,11 +14,28 @@ public class MethodRawData implements IRawData {
     private SourceCodeLocation location;
     private MetricsResults data;
 
-    public MethodRawData( int startPosition, int lineNumber, String className, String methodName ) {
-        location = new SourceCodeLocation( className + "." + methodName + "()", startPosition, lineNumber ); //$NON-NLS-1$ //$NON-NLS-2$
+    public MethodRawData( int startPosition, int length, int lineNumber, String className, String methodName ) {
+        location = SourceCodeLocation.ofMethod( className, methodName, startPosition, length, lineNumber );
         data = new MetricsResults();
     }
 
+    MethodRawData( SourceCodeLocation location ) {
+        this( location, new MetricsResults() );
+    }
+
+    MethodRawData( SourceCodeLocation location, MetricsResults data ) {
+        this.location = location;
+        this.data = data;
+    }
+
+    SourceCodeLocation getLocation() {
+        return location;
+    }
+
+    MetricsResults getData() {
+        return data;
+    }
+
     public void putData( String dataKey, Object value ) {
         data.put( dataKey, value );
     }
@@ -1,5 +1,6 @@
 package org.projectusus.core.internal.proportions.rawdata;
 
+import java.io.IOException;
 import java.util.Set;
 
 import net.sourceforge.c4j.ContractReference;
@@ -11,70 +12,179 @@ import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.Initializer;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.projectusus.core.IMetricsResultVisitor;
+import org.projectusus.core.IMetricsSnapshot;
 import org.projectusus.core.IMetricsWriter;
 import org.projectusus.core.filerelations.model.ASTNodeHelper;
 import org.projectusus.core.filerelations.model.ClassDescriptor;
 import org.projectusus.core.filerelations.model.ClassDescriptorCleanup;
 import org.projectusus.core.filerelations.model.WrappedTypeBinding;
 
+/**
+ * write access to the raw data tree. All modifications are serialized on the accessor, so that metrics collectors running on several worker threads can share it.
+ */
 @ContractReference( contractClassName = "MetricsAccessorContract" )
 public class MetricsAccessor implements IMetricsWriter {
-    private final WorkspaceRawData workspaceRawData;
+    private final ASTNodeHelper converter;
+    private WorkspaceRawData workspaceRawData;
+    private volatile RawDataSnapshot snapshot = RawDataSnapshot.EMPTY;
+    private boolean summaryMode;
 
     public MetricsAccessor( ASTNodeHelper converter ) {
         super();
+        this.converter = converter;
         workspaceRawData = new WorkspaceRawData( converter );
     }
 
-    public void putData( IFile file, MethodDeclaration methodDecl, String dataKey, int value ) {
+    public synchronized void putData( IFile file, MethodDeclaration methodDecl, String dataKey, int value ) {
         workspaceRawData.putData( file, methodDecl, dataKey, Integer.valueOf( value ) );
     }
 
-    public void putData( IFile file, MethodDeclaration methodDecl, String dataKey, Object value ) {
+    public synchronized void putData( IFile file, MethodDeclaration methodDecl, String dataKey, Object value ) {
         workspaceRawData.putData( file, methodDecl, dataKey, value );
     }
 
-    public void putData( IFile file, Initializer initializer, String dataKey, int value ) {
+    public synchronized void putData( IFile file, Initializer initializer, String dataKey, int value ) {
         workspaceRawData.putData( file, initializer, dataKey, Integer.valueOf( value ) );
     }
 
-    public void putData( IFile file, Initializer initializer, String dataKey, Object value ) {
+    public synchronized void putData( IFile file, Initializer initializer, String dataKey, Object value ) {
         workspaceRawData.putData( file, initializer, dataKey, value );
     }
 
-    public void putData( IFile file, AbstractTypeDeclaration node, String dataKey, int value ) {
+    public synchronized void putData( IFile file, AbstractTypeDeclaration node, String dataKey, int value ) {
         workspaceRawData.putData( file, node, dataKey, Integer.valueOf( value ) );
     }
 
-    public void putData( IFile file, AbstractTypeDeclaration node, String dataKey, Object value ) {
+    public synchronized void putData( IFile file, AbstractTypeDeclaration node, String dataKey, Object value ) {
         workspaceRawData.putData( file, node, dataKey, value );
     }
 
-    public void acceptAndGuide( IMetricsResultVisitor visitor ) {
+    /**
+     * a writer for the metrics of the given file, which replaces the file's raw data when it is committed.
+     */
+    public FileRawDataBuilder getMetricsWriter( IFile file ) {
+        return new FileRawDataBuilder( file, this, converter );
+    }
+
+    synchronized void commit( FileRawDataBuilder builder ) {
+        builder.commitTo( workspaceRawData, summaryMode );
+    }
+
+    /**
+     * in summary mode, the methods of a class are kept in packed form, see {@link PackedMethods}: far less memory for the same metrics, at
+     * the price of making method raw data again when a class not read recently is visited. Turning it on packs the raw data there is;
+     * turning it off applies to the files computed from then on.
+     */
+    public synchronized void setSummaryMode( boolean summaryMode ) {
+        if( this.summaryMode == summaryMode ) {
+            return;
+        }
+        this.summaryMode = summaryMode;
+        if( summaryMode ) {
+            packMethods();
+        }
+    }
+
+    public synchronized void acceptAndGuide( IMetricsResultVisitor visitor ) {
         workspaceRawData.acceptAndGuide( visitor );
     }
 
-    public void dropRawData( IProject project ) {
+    /**
+     * makes the current state of the raw data the snapshot readers get, see {@link #getSnapshot()}.
+     */
+    public synchronized IMetricsSnapshot publishSnapshot() {
+        snapshot = RawDataSnapshot.of( workspaceRawData, snapshot );
+        return snapshot;
+    }
+
+    /**
+     * the snapshot published last. Reading it does not wait for writers.
+     */
+    public IMetricsSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public synchronized void dropRawData( IProject project ) {
         workspaceRawData.dropRawData( project );
     }
 
-    public void dropRawData( IFile file ) {
+    public synchronized void dropRawData( IFile file ) {
         workspaceRawData.dropRawData( file );
     }
 
-    public void cleanupRelations( IProgressMonitor monitor ) {
+    public synchronized String getFingerprint( IFile file ) {
+        return workspaceRawData.getFingerprint( file );
+    }
+
+    public synchronized void setFingerprint( IFile file, String fingerprint ) {
+        workspaceRawData.setFingerprint( file, fingerprint );
+    }
+
+    public synchronized void saveTo( RawDataCache cache ) throws IOException {
+        cache.write( workspaceRawData );
+    }
+
+    /**
+     * replaces the raw data by the data stored in the cache, if there is any. Meant for a fresh accessor only, see {@link RawDataCache}.
+     */
+    public synchronized boolean restoreFrom( RawDataCache cache ) throws IOException {
+        WorkspaceRawData restored = readInBulkLoad( cache );
+        if( restored == null ) {
+            return false;
+        }
+        workspaceRawData = restored;
+        if( summaryMode ) {
+            packMethods();
+        }
+        return true;
+    }
+
+    /**
+     * runs the given code while no raw data can be written, so that it sees the raw data and the class relations in a consistent state even
+     * if a computation is running.
+     */
+    public synchronized void runExclusively( Runnable runnable ) {
+        runnable.run();
+    }
+
+    public synchronized void cleanupRelations( IProgressMonitor monitor ) {
         Set<ClassDescriptor> candidates = ClassDescriptorCleanup.extractDescriptorsRegisteredForCleanup();
         monitor.beginTask( null, candidates.size() );
         monitor.subTask( "Updating file relations" ); //$NON-NLS-1$
-        for( ClassDescriptor descriptor : candidates ) {
-            workspaceRawData.removeRelationIfTargetIsGone( descriptor );
-            monitor.worked( 1 );
+        ClassDescriptor.startBulkLoad();
+        try {
+            for( ClassDescriptor descriptor : candidates ) {
+                workspaceRawData.removeRelationIfTargetIsGone( descriptor );
+                monitor.worked( 1 );
+            }
+        } finally {
+            ClassDescriptor.finishBulkLoad();
         }
         monitor.done();
     }
 
-    public void addClassReference( WrappedTypeBinding source, WrappedTypeBinding target ) {
+    public synchronized void addClassReference( WrappedTypeBinding source, WrappedTypeBinding target ) {
         ClassDescriptor.of( source ).addChild( ClassDescriptor.of( target ) );
     }
 
+    // the cache restores all class relations of the workspace at once
+    private WorkspaceRawData readInBulkLoad( RawDataCache cache ) throws IOException {
+        ClassDescriptor.startBulkLoad();
+        try {
+            return cache.read( converter );
+        } finally {
+            ClassDescriptor.finishBulkLoad();
+        }
+    }
+
+    private void packMethods() {
+        for( ProjectRawData projectRawData : workspaceRawData.getAllRawDataElements() ) {
+            for( PackageRawData packageRawData : projectRawData.getAllRawDataElements() ) {
+                for( FileRawData fileRawData : packageRawData.getAllRawDataElements() ) {
+                    fileRawData.packMethods();
+                }
+            }
+        }
+    }
+
 }
@@ -44,6 +44,14 @@ class PackageRawData extends RawData<IFile, FileRawData> {
         return rawData;
     }
 
+    Packagename getPackagename() {
+        return pkg;
+    }
+
+    void addFileRawData( FileRawData fileRawData ) {
+        super.addRawData( fileRawData.getFile(), fileRawData );
+    }
+
     public void dropRawData( IFile file ) {
         FileRawData fileRawData = getFileRawData( file );
         if( fileRawData != null ) {
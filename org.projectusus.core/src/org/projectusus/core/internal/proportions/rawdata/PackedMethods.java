@@ -0,0 +1,124 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.core.internal.proportions.rawdata;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.projectusus.core.basis.MetricsTable;
+import org.projectusus.core.basis.SourceCodeLocation;
+
+/**
+ * the methods of a class in summary mode: their locations and a {@link MetricsTable} of their results, instead of a raw data node and a
+ * results object per method. Nothing is lost; {@link #unpack()} makes the method raw data again when someone looks at the methods.
+ * <p>
+ * The method raw data made for the classes read last is kept and shared by their readers, so that a class looked at again and again (in a
+ * hover, say) is not unpacked each time. Only a bounded number of classes is kept so; the others are unpacked again when they are read.
+ */
+class PackedMethods {
+
+    private static final int MAX_RECENTLY_READ = 64;
+
+    private static final Map<PackedMethods, Unpacked> recentlyRead = new LinkedHashMap<PackedMethods, Unpacked>( 16, 0.75f, true ) {
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<PackedMethods, Unpacked> eldest ) {
+            return size() > MAX_RECENTLY_READ;
+        }
+    };
+
+    private final SourceCodeLocation[] locations;
+    private final MetricsTable results = new MetricsTable();
+
+    PackedMethods( Collection<MethodRawData> methods ) {
+        locations = new SourceCodeLocation[methods.size()];
+        int index = 0;
+        for( MethodRawData method : methods ) {
+            locations[index++] = method.getLocation();
+            results.add( method.getData() );
+        }
+        results.trimToSize();
+    }
+
+    int size() {
+        return locations.length;
+    }
+
+    List<Integer> getStarts() {
+        List<Integer> result = new ArrayList<Integer>( locations.length );
+        for( SourceCodeLocation location : locations ) {
+            result.add( Integer.valueOf( location.getSourcePosition() ) );
+        }
+        return unmodifiableList( result );
+    }
+
+    /**
+     * method raw data for all methods. The same objects are handed out while the class is among those read last.
+     */
+    List<MethodRawData> unpack() {
+        return unpacked().methods;
+    }
+
+    /**
+     * the source ranges of the methods handed out by {@link #unpack()}.
+     */
+    SourceRanges<MethodRawData> getMethodRanges() {
+        return unpacked().getMethodRanges();
+    }
+
+    /**
+     * stops keeping the method raw data made for this class, which is about to be unpacked for good.
+     */
+    void forget() {
+        synchronized( recentlyRead ) {
+            recentlyRead.remove( this );
+        }
+    }
+
+    // internal
+    // ////////
+
+    private Unpacked unpacked() {
+        synchronized( recentlyRead ) {
+            Unpacked result = recentlyRead.get( this );
+            if( result == null ) {
+                result = new Unpacked( createMethods() );
+                recentlyRead.put( this, result );
+            }
+            return result;
+        }
+    }
+
+    private List<MethodRawData> createMethods() {
+        List<MethodRawData> result = new ArrayList<MethodRawData>( locations.length );
+        for( int index = 0; index < locations.length; index++ ) {
+            result.add( new MethodRawData( locations[index], results.get( index ) ) );
+        }
+        return unmodifiableList( result );
+    }
+
+    private static class Unpacked {
+        final List<MethodRawData> methods;
+        private volatile SourceRanges<MethodRawData> methodRanges;
+
+        Unpacked( List<MethodRawData> methods ) {
+            this.methods = methods;
+        }
+
+        SourceRanges<MethodRawData> getMethodRanges() {
+            SourceRanges<MethodRawData> result = methodRanges;
+            if( result == null ) {
+                // unpacked methods do not change, there is only one version of them
+                result = SourceRanges.ofMethods( methods, 0 );
+                methodRanges = result;
+            }
+            return result;
+        }
+    }
+}
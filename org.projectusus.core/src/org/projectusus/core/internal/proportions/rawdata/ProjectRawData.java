@@ -4,13 +4,21 @@
 // See http://www.eclipse.org/legal/epl-v10.html for details.
 package org.projectusus.core.internal.proportions.rawdata;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.Initializer;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.projectusus.core.IMethodColumnsVisitor;
 import org.projectusus.core.IMetricsResultVisitor;
 import org.projectusus.core.basis.JavaModelPath;
+import org.projectusus.core.basis.MethodColumns;
 import org.projectusus.core.basis.MetricsResults;
 import org.projectusus.core.filerelations.model.ASTNodeHelper;
 import org.projectusus.core.filerelations.model.ClassDescriptor;
@@ -21,13 +29,22 @@ class ProjectRawData extends RawData<Packagename, PackageRawData> {
 
     MetricsResults data;
     private IProject project;
+    // the package holding each file, so that a file is found without asking every package
+    private final Map<IFile, PackageRawData> packagesByFile = new ConcurrentHashMap<IFile, PackageRawData>();
+    // the methods in columns, built when first asked for after a change
+    private final AtomicInteger version = new AtomicInteger();
+    private volatile Columns columns;
 
     public ProjectRawData( IProject project ) {
         this.project = project;
         data = new MetricsResults();
     }
 
-    private PackageRawData getOrCreatePackageRawData( Packagename pkg ) {
+    IProject getProject() {
+        return project;
+    }
+
+    PackageRawData getOrCreatePackageRawData( Packagename pkg ) {
         PackageRawData rawData = getPackageRawData( pkg );
         if( rawData == null ) {
             rawData = createPackageRawData( pkg );
@@ -40,13 +57,19 @@ class ProjectRawData extends RawData<Packagename, PackageRawData> {
     }
 
     private PackageRawData getPackageRawData( IFile file ) {
-        for( PackageRawData pkg : getAllRawDataElements() ) {
-            FileRawData fileRawData = pkg.getRawData( file );
-            if( fileRawData != null ) {
-                return pkg;
-            }
-        }
-        return null;
+        return packagesByFile.get( file );
+    }
+
+    FileRawData getFileRawData( IFile file ) {
+        PackageRawData rawData = getPackageRawData( file );
+        return rawData == null ? null : rawData.getRawData( file );
+    }
+
+    void addFileRawData( Packagename pkg, FileRawData fileRawData ) {
+        PackageRawData rawData = getOrCreatePackageRawData( pkg );
+        rawData.addFileRawData( fileRawData );
+        indexFile( fileRawData.getFile(), rawData );
+        version.incrementAndGet();
     }
 
     private PackageRawData createPackageRawData( Packagename pkg ) {
@@ -55,9 +78,23 @@ class ProjectRawData extends RawData<Packagename, PackageRawData> {
         return rawData;
     }
 
+    public String getFingerprint( IFile file ) {
+        FileRawData fileRawData = getFileRawData( file );
+        return fileRawData == null ? null : fileRawData.getFingerprint();
+    }
+
+    public void setFingerprint( IFile file, String fingerprint ) {
+        FileRawData fileRawData = getFileRawData( file );
+        if( fileRawData != null ) {
+            fileRawData.setFingerprint( fingerprint );
+        }
+    }
+
     public void dropRawData( IFile file ) {
-        for( PackageRawData rawData : getAllRawDataElements() ) {
+        PackageRawData rawData = packagesByFile.remove( file );
+        if( rawData != null ) {
             rawData.dropRawData( file );
+            version.incrementAndGet();
         }
     }
 
@@ -66,13 +103,20 @@ class ProjectRawData extends RawData<Packagename, PackageRawData> {
             rawData.dropRawData();
         }
         removeAll();
+        packagesByFile.clear();
+        version.incrementAndGet();
     }
 
     public void acceptAndGuide( IMetricsResultVisitor visitor ) {
         visitor.inspectProject( project, data );
         JavaModelPath path = visitor.getPath();
         if( path.isRestrictedToFile() ) {
-            this.getPackageRawData( path.getFile() ).acceptAndGuide( visitor );
+            PackageRawData rawData = getPackageRawData( path.getFile() );
+            if( rawData != null ) {
+                rawData.acceptAndGuide( visitor );
+            }
+        } else if( visitor instanceof IMethodColumnsVisitor ) {
+            ((IMethodColumnsVisitor)visitor).inspectMethods( project, getMethodColumns() );
         } else {
             for( PackageRawData rawData : getAllRawDataElements() ) {
                 rawData.acceptAndGuide( visitor );
@@ -80,10 +124,25 @@ class ProjectRawData extends RawData<Packagename, PackageRawData> {
         }
     }
 
+    MethodColumns getMethodColumns() {
+        Columns current = columns;
+        int currentVersion = version.get();
+        if( current == null || current.version != currentVersion ) {
+            current = new Columns( currentVersion );
+            columns = current;
+        }
+        for( ClassRawData classRawData : current.classes ) {
+            classRawData.updateData();
+        }
+        return current.methods;
+    }
+
     public void putData( WrappedTypeBinding boundType, IFile file, MethodDeclaration methodDecl, ASTNodeHelper nodeHelper, String dataKey, Object value ) {
         PackageRawData rawData = getOrCreatePackageRawData( boundType.getPackagename() );
         if( rawData != null ) {
             rawData.putData( boundType, file, methodDecl, nodeHelper, dataKey, value );
+            indexFile( file, rawData );
+            version.incrementAndGet();
         }
     }
 
@@ -91,6 +150,8 @@ class ProjectRawData extends RawData<Packagename, PackageRawData> {
         PackageRawData rawData = getOrCreatePackageRawData( boundType.getPackagename() );
         if( rawData != null ) {
             rawData.putData( boundType, file, initializer, nodeHelper, dataKey, value );
+            indexFile( file, rawData );
+            version.incrementAndGet();
         }
     }
 
@@ -98,6 +159,8 @@ class ProjectRawData extends RawData<Packagename, PackageRawData> {
         PackageRawData rawData = getOrCreatePackageRawData( boundType.getPackagename() );
         if( rawData != null ) {
             rawData.putData( boundType, file, node, nodeHelper, dataKey, value );
+            indexFile( file, rawData );
+            version.incrementAndGet();
         }
     }
 
@@ -111,4 +174,40 @@ class ProjectRawData extends RawData<Packagename, PackageRawData> {
             rawData.removeRelationIfTargetIsGone( descriptor );
         }
     }
+
+    // internal
+    // ////////
+
+    // a file lives in one package only: if its package changed, the data in the former one is stale
+    private void indexFile( IFile file, PackageRawData rawData ) {
+        if( packagesByFile.get( file ) == rawData ) {
+            return;
+        }
+        PackageRawData previous = packagesByFile.put( file, rawData );
+        if( previous != null && previous != rawData ) {
+            previous.dropRawData( file );
+        }
+    }
+
+    private class Columns {
+        final int version;
+        final MethodColumns methods = new MethodColumns();
+        // class data depends on other classes, too, and is brought up to date for each visit
+        final List<ClassRawData> classes = new ArrayList<ClassRawData>();
+
+        Columns( int version ) {
+            this.version = version;
+            for( PackageRawData packageRawData : getAllRawDataElements() ) {
+                for( FileRawData fileRawData : packageRawData.getAllRawDataElements() ) {
+                    for( ClassRawData classRawData : fileRawData.getAllRawDataElements() ) {
+                        classes.add( classRawData );
+                        methods.addClass( fileRawData.getFile(), classRawData.getLocation(), classRawData.getData() );
+                        for( MethodRawData methodRawData : classRawData.getAllRawDataElements() ) {
+                            methods.addMethod( methodRawData.getLocation(), methodRawData.getData() );
+                        }
+                    }
+                }
+            }
+        }
+    }
 }
@@ -4,46 +4,73 @@
 // See http://www.eclipse.org/legal/epl-v10.html for details.
 package org.projectusus.core.internal.proportions.rawdata;
 
+import static java.util.Collections.unmodifiableList;
+
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Hashtable;
-import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.projectusus.core.basis.IRawData;
 
+/**
+ * the children of one node in the raw data tree. Lookups do not lock, writes lock only a segment of the map.
+ * <p>
+ * {@link #getAllKeys()} and {@link #getAllRawDataElements()} return snapshots: they may be iterated while the node is changed, and do not
+ * see the change. A snapshot is made for each call and not kept, so that an idle tree does not hold a copy of its children; whoever wants
+ * to keep something derived from them can tell by {@link #getVersion()} whether it is still up to date.
+ */
 class RawData<S, T extends IRawData> implements IRawData {
 
-    private Map<S, T> rawDataMap;
+    // most nodes hold a handful of children and are written by one thread at a time
+    private static final int INITIAL_CAPACITY = 8;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int CONCURRENCY_LEVEL = 2;
+
+    private final ConcurrentMap<S, T> rawDataMap;
+    private final AtomicInteger version = new AtomicInteger();
 
     RawData() {
-        rawDataMap = new Hashtable<S, T>();
+        rawDataMap = new ConcurrentHashMap<S, T>( INITIAL_CAPACITY, LOAD_FACTOR, CONCURRENCY_LEVEL );
     }
 
-    synchronized T getRawData( S key ) {
+    T getRawData( S key ) {
         return rawDataMap.get( key );
     }
 
-    synchronized void addRawData( S key, T newObject ) {
+    void addRawData( S key, T newObject ) {
         rawDataMap.put( key, newObject );
+        version.incrementAndGet();
     }
 
-    synchronized int getRawDataElementCount() {
+    int getRawDataElementCount() {
         return rawDataMap.size();
     }
 
-    synchronized void remove( S key ) {
-        rawDataMap.remove( key );
+    void remove( S key ) {
+        if( rawDataMap.remove( key ) != null ) {
+            version.incrementAndGet();
+        }
     }
 
-    synchronized void removeAll() {
+    void removeAll() {
         rawDataMap.clear();
+        version.incrementAndGet();
+    }
+
+    Collection<S> getAllKeys() {
+        return unmodifiableList( new ArrayList<S>( rawDataMap.keySet() ) );
     }
 
-    synchronized Set<S> getAllKeys() {
-        return rawDataMap.keySet();
+    Collection<T> getAllRawDataElements() {
+        return unmodifiableList( new ArrayList<T>( rawDataMap.values() ) );
     }
 
-    synchronized Collection<T> getAllRawDataElements() {
-        return rawDataMap.values();
+    /**
+     * changes with every change of the children. Read it before the children, so that a change made meanwhile shows in the next version.
+     */
+    int getVersion() {
+        return version.get();
     }
 }
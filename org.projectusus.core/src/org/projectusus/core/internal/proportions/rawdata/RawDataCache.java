@@ -0,0 +1,493 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.core.internal.proportions.rawdata;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.JavaCore;
+import org.projectusus.core.basis.MetricsResults;
+import org.projectusus.core.basis.SourceCodeLocation;
+import org.projectusus.core.filerelations.model.ASTNodeHelper;
+import org.projectusus.core.filerelations.model.ClassDescriptor;
+import org.projectusus.core.filerelations.model.ClassDescriptorCleanup;
+import org.projectusus.core.filerelations.model.Classname;
+import org.projectusus.core.filerelations.model.Packagename;
+
+/**
+ * a file holding the raw data tree and the class relations of a session, so that the next session can start from them instead of
+ * computing the whole workspace again.
+ * <p>
+ * The file is a gzipped binary stream which starts with a format version; files of another version are ignored. Only files whose
+ * computation has finished are written. On reading, a file whose modification stamp differs from the one its raw data was computed from is
+ * left out, and so are the relations starting at its classes. Its class descriptors are kept for the relations pointing to them, but
+ * registered for cleanup, so that the next computation run removes those classes which no longer exist.
+ * <p>
+ * Reading expects the class descriptor and package registries to be empty.
+ */
+public class RawDataCache {
+
+    static final int MAGIC = 0x55535553;
+    static final int FORMAT_VERSION = 4;
+
+    private static final byte INTEGER = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte BOOLEAN = 3;
+    private static final byte STRING = 4;
+    private static final byte LIST = 5;
+    // metric values may be longer than writeUTF allows
+    private static final String VALUE_ENCODING = "UTF-8"; //$NON-NLS-1$
+
+    private final File file;
+    private final IWorkspaceRoot root;
+
+    public RawDataCache( File file, IWorkspaceRoot root ) {
+        this.file = file;
+        this.root = root;
+    }
+
+    public void delete() {
+        file.delete();
+    }
+
+    void write( WorkspaceRawData workspaceRawData ) throws IOException {
+        File temporaryFile = new File( file.getPath() + ".tmp" ); //$NON-NLS-1$
+        DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new GZIPOutputStream( new FileOutputStream( temporaryFile ) ) ) );
+        try {
+            out.writeInt( MAGIC );
+            out.writeInt( FORMAT_VERSION );
+            new Writer( out ).write( workspaceRawData );
+        } finally {
+            out.close();
+        }
+        file.delete();
+        if( !temporaryFile.renameTo( file ) ) {
+            throw new IOException( "Could not rename " + temporaryFile + " to " + file ); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    /**
+     * the raw data stored in the file, or <code>null</code> if there is no file of the current format.
+     */
+    WorkspaceRawData read( ASTNodeHelper nodeHelper ) throws IOException {
+        if( !file.isFile() ) {
+            return null;
+        }
+        DataInputStream in = new DataInputStream( new BufferedInputStream( new GZIPInputStream( new FileInputStream( file ) ) ) );
+        try {
+            if( in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION ) {
+                return null;
+            }
+            return new Reader( in ).read( new WorkspaceRawData( nodeHelper ) );
+        } finally {
+            in.close();
+        }
+    }
+
+    // internal
+    // ////////
+
+    private static class UnsupportedValueException extends Exception {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static class Writer {
+
+        private final DataOutputStream out;
+        private final Map<Packagename, Integer> packages = new LinkedHashMap<Packagename, Integer>();
+        private final Map<ClassDescriptor, Integer> descriptors = new LinkedHashMap<ClassDescriptor, Integer>();
+
+        Writer( DataOutputStream out ) {
+            this.out = out;
+        }
+
+        void write( WorkspaceRawData workspaceRawData ) throws IOException {
+            indexAll( workspaceRawData );
+            writePackages();
+            writeDescriptors();
+            writeProjects( workspaceRawData );
+            writeRelations();
+        }
+
+        private void indexAll( WorkspaceRawData workspaceRawData ) {
+            for( ProjectRawData projectRawData : workspaceRawData.getAllRawDataElements() ) {
+                for( PackageRawData packageRawData : projectRawData.getAllRawDataElements() ) {
+                    indexOf( packageRawData.getPackagename() );
+                    for( FileRawData fileRawData : packageRawData.getAllRawDataElements() ) {
+                        for( ClassRawData classRawData : fileRawData.getAllRawDataElements() ) {
+                            indexOf( classRawData.getDescriptor() );
+                        }
+                    }
+                }
+            }
+            for( ClassDescriptor descriptor : ClassDescriptor.getAll() ) {
+                indexOf( descriptor );
+            }
+        }
+
+        private void writePackages() throws IOException {
+            out.writeInt( packages.size() );
+            for( Packagename packagename : packages.keySet() ) {
+                out.writeUTF( packagename.toString() );
+                IJavaElement javaElement = packagename.getJavaElement();
+                out.writeUTF( javaElement == null ? "" : javaElement.getHandleIdentifier() ); //$NON-NLS-1$
+            }
+        }
+
+        private void writeDescriptors() throws IOException {
+            out.writeInt( descriptors.size() );
+            for( ClassDescriptor descriptor : descriptors.keySet() ) {
+                out.writeUTF( descriptor.getFile().getFullPath().toString() );
+                out.writeUTF( descriptor.getClassname().toString() );
+                out.writeInt( packages.get( descriptor.getPackagename() ).intValue() );
+            }
+        }
+
+        private void writeProjects( WorkspaceRawData workspaceRawData ) throws IOException {
+            out.writeInt( workspaceRawData.getRawDataElementCount() );
+            for( ProjectRawData projectRawData : workspaceRawData.getAllRawDataElements() ) {
+                out.writeUTF( projectRawData.getProject().getName() );
+                out.writeInt( projectRawData.getRawDataElementCount() );
+                for( PackageRawData packageRawData : projectRawData.getAllRawDataElements() ) {
+                    writePackage( packageRawData );
+                }
+            }
+        }
+
+        private void writePackage( PackageRawData packageRawData ) throws IOException {
+            List<byte[]> files = new ArrayList<byte[]>();
+            for( FileRawData fileRawData : packageRawData.getAllRawDataElements() ) {
+                if( fileRawData.getFingerprint() != null ) {
+                    try {
+                        files.add( encode( fileRawData ) );
+                    } catch( UnsupportedValueException uvex ) {
+                        // left out, computed again in the next session
+                    }
+                }
+            }
+            out.writeInt( packages.get( packageRawData.getPackagename() ).intValue() );
+            out.writeInt( files.size() );
+            for( byte[] bytes : files ) {
+                out.write( bytes );
+            }
+        }
+
+        private byte[] encode( FileRawData fileRawData ) throws IOException, UnsupportedValueException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream fileOut = new DataOutputStream( bytes );
+            fileOut.writeUTF( fileRawData.getFile().getFullPath().toString() );
+            fileOut.writeLong( fileRawData.getModificationStamp() );
+            fileOut.writeUTF( fileRawData.getFingerprint() );
+            writeResults( fileOut, fileRawData.getData() );
+            fileOut.writeInt( fileRawData.getRawDataElementCount() );
+            for( ClassRawData classRawData : fileRawData.getAllRawDataElements() ) {
+                fileOut.writeInt( descriptors.get( classRawData.getDescriptor() ).intValue() );
+                writeLocation( fileOut, classRawData.getLocation() );
+                writeResults( fileOut, classRawData.getData() );
+                fileOut.writeInt( classRawData.getRawDataElementCount() );
+                for( MethodRawData methodRawData : classRawData.getAllRawDataElements() ) {
+                    writeLocation( fileOut, methodRawData.getLocation() );
+                    writeResults( fileOut, methodRawData.getData() );
+                }
+            }
+            fileOut.flush();
+            return bytes.toByteArray();
+        }
+
+        private void writeRelations() throws IOException {
+            List<int[]> relations = new ArrayList<int[]>();
+            for( ClassDescriptor source : descriptors.keySet() ) {
+                for( ClassDescriptor target : source.getChildren() ) {
+                    Integer targetIndex = descriptors.get( target );
+                    if( targetIndex != null ) {
+                        relations.add( new int[] { descriptors.get( source ).intValue(), targetIndex.intValue() } );
+                    }
+                }
+            }
+            out.writeInt( relations.size() );
+            for( int[] relation : relations ) {
+                out.writeInt( relation[0] );
+                out.writeInt( relation[1] );
+            }
+        }
+
+        private int indexOf( ClassDescriptor descriptor ) {
+            Integer index = descriptors.get( descriptor );
+            if( index == null ) {
+                indexOf( descriptor.getPackagename() );
+                index = Integer.valueOf( descriptors.size() );
+                descriptors.put( descriptor, index );
+            }
+            return index.intValue();
+        }
+
+        private int indexOf( Packagename packagename ) {
+            Integer index = packages.get( packagename );
+            if( index == null ) {
+                index = Integer.valueOf( packages.size() );
+                packages.put( packagename, index );
+            }
+            return index.intValue();
+        }
+
+        private static void writeLocation( DataOutputStream fileOut, SourceCodeLocation location ) throws IOException {
+            String ownerName = location.getOwnerName();
+            fileOut.writeUTF( ownerName == null ? "" : ownerName ); //$NON-NLS-1$
+            fileOut.writeUTF( location.getSimpleName() );
+            fileOut.writeInt( location.getSourcePosition() );
+            fileOut.writeInt( location.getSourceLength() );
+            fileOut.writeInt( location.getLineNumber() );
+        }
+
+        private static void writeResults( DataOutputStream fileOut, MetricsResults results ) throws IOException, UnsupportedValueException {
+            fileOut.writeInt( results.getKeys().size() );
+            for( String key : results.getKeys() ) {
+                fileOut.writeUTF( key );
+                writeValue( fileOut, results.get( key ) );
+            }
+        }
+
+        private static void writeValue( DataOutputStream fileOut, Object value ) throws IOException, UnsupportedValueException {
+            if( value instanceof Integer ) {
+                fileOut.writeByte( INTEGER );
+                fileOut.writeInt( ((Integer)value).intValue() );
+            } else if( value instanceof Long ) {
+                fileOut.writeByte( LONG );
+                fileOut.writeLong( ((Long)value).longValue() );
+            } else if( value instanceof Double ) {
+                fileOut.writeByte( DOUBLE );
+                fileOut.writeDouble( ((Double)value).doubleValue() );
+            } else if( value instanceof Boolean ) {
+                fileOut.writeByte( BOOLEAN );
+                fileOut.writeBoolean( ((Boolean)value).booleanValue() );
+            } else if( value instanceof String ) {
+                fileOut.writeByte( STRING );
+                byte[] bytes = ((String)value).getBytes( VALUE_ENCODING );
+                fileOut.writeInt( bytes.length );
+                fileOut.write( bytes );
+            } else if( value instanceof List<?> ) {
+                List<?> list = (List<?>)value;
+                fileOut.writeByte( LIST );
+                fileOut.writeInt( list.size() );
+                for( Object element : list ) {
+                    writeValue( fileOut, element );
+                }
+            } else {
+                throw new UnsupportedValueException();
+            }
+        }
+    }
+
+    private class Reader {
+
+        private final DataInputStream in;
+        private final Map<String, IFile> files = new HashMap<String, IFile>();
+        private final Set<IFile> validFiles = new HashSet<IFile>();
+        private String[] packageNames;
+        private String[] packageHandles;
+        private Packagename[] packages;
+        private ClassDescriptor[] descriptors;
+
+        Reader( DataInputStream in ) {
+            this.in = in;
+        }
+
+        WorkspaceRawData read( WorkspaceRawData workspaceRawData ) throws IOException {
+            readPackages();
+            readDescriptors();
+            readProjects( workspaceRawData );
+            readRelations();
+            for( ClassDescriptor descriptor : descriptors ) {
+                if( !validFiles.contains( descriptor.getFile() ) ) {
+                    ClassDescriptorCleanup.registerForCleanup( descriptor );
+                }
+            }
+            return workspaceRawData;
+        }
+
+        private void readPackages() throws IOException {
+            int count = in.readInt();
+            packageNames = new String[count];
+            packageHandles = new String[count];
+            packages = new Packagename[count];
+            for( int index = 0; index < count; index++ ) {
+                packageNames[index] = in.readUTF();
+                packageHandles[index] = in.readUTF();
+            }
+        }
+
+        private void readDescriptors() throws IOException {
+            descriptors = new ClassDescriptor[in.readInt()];
+            for( int index = 0; index < descriptors.length; index++ ) {
+                IFile descriptorFile = fileAt( in.readUTF() );
+                Classname classname = new Classname( in.readUTF() );
+                descriptors[index] = ClassDescriptor.of( descriptorFile, classname, packageAt( in.readInt() ) );
+            }
+        }
+
+        private void readProjects( WorkspaceRawData workspaceRawData ) throws IOException {
+            int projectCount = in.readInt();
+            for( int projectIndex = 0; projectIndex < projectCount; projectIndex++ ) {
+                String projectName = in.readUTF();
+                int packageCount = in.readInt();
+                for( int packageIndex = 0; packageIndex < packageCount; packageIndex++ ) {
+                    Packagename packagename = packageAt( in.readInt() );
+                    int fileCount = in.readInt();
+                    for( int fileIndex = 0; fileIndex < fileCount; fileIndex++ ) {
+                        FileRawData fileRawData = readFile();
+                        if( isUnchanged( fileRawData ) ) {
+                            validFiles.add( fileRawData.getFile() );
+                            ProjectRawData projectRawData = workspaceRawData.getOrCreateProjectRawData( root.getProject( projectName ) );
+                            projectRawData.addFileRawData( packagename, fileRawData );
+                        }
+                    }
+                }
+            }
+        }
+
+        private FileRawData readFile() throws IOException {
+            FileRawData fileRawData = new FileRawData( fileAt( in.readUTF() ), in.readLong() );
+            fileRawData.setFingerprint( in.readUTF() );
+            readResults( fileRawData.getData() );
+            int classCount = in.readInt();
+            for( int classIndex = 0; classIndex < classCount; classIndex++ ) {
+                ClassDescriptor descriptor = descriptorAt( in.readInt() );
+                ClassRawData classRawData = new ClassRawData( descriptor, readLocation() );
+                readResults( classRawData.getData() );
+                int methodCount = in.readInt();
+                for( int methodIndex = 0; methodIndex < methodCount; methodIndex++ ) {
+                    MethodRawData methodRawData = new MethodRawData( readLocation() );
+                    readResults( methodRawData.getData() );
+                    classRawData.addMethodRawData( methodRawData );
+                }
+                fileRawData.addClassRawData( classRawData );
+            }
+            return fileRawData;
+        }
+
+        private boolean isUnchanged( FileRawData fileRawData ) {
+            IFile fileOfData = fileRawData.getFile();
+            return fileOfData.exists() && fileOfData.getModificationStamp() == fileRawData.getModificationStamp();
+        }
+
+        private void readRelations() throws IOException {
+            int count = in.readInt();
+            for( int index = 0; index < count; index++ ) {
+                ClassDescriptor source = descriptorAt( in.readInt() );
+                ClassDescriptor target = descriptorAt( in.readInt() );
+                if( validFiles.contains( source.getFile() ) ) {
+                    source.addChild( target );
+                }
+            }
+        }
+
+        private SourceCodeLocation readLocation() throws IOException {
+            String ownerName = in.readUTF();
+            String name = in.readUTF();
+            int startPosition = in.readInt();
+            int length = in.readInt();
+            if( ownerName.length() == 0 ) {
+                return new SourceCodeLocation( name, startPosition, length, in.readInt() );
+            }
+            return SourceCodeLocation.ofMethod( ownerName, name, startPosition, length, in.readInt() );
+        }
+
+        private void readResults( MetricsResults results ) throws IOException {
+            int count = in.readInt();
+            for( int index = 0; index < count; index++ ) {
+                String key = in.readUTF();
+                results.put( key, readValue() );
+            }
+        }
+
+        private Object readValue() throws IOException {
+            byte type = in.readByte();
+            switch( type ) {
+            case INTEGER:
+                return Integer.valueOf( in.readInt() );
+            case LONG:
+                return Long.valueOf( in.readLong() );
+            case DOUBLE:
+                return Double.valueOf( in.readDouble() );
+            case BOOLEAN:
+                return Boolean.valueOf( in.readBoolean() );
+            case STRING:
+                return readString();
+            case LIST:
+                int size = in.readInt();
+                List<Object> list = new ArrayList<Object>( size );
+                for( int index = 0; index < size; index++ ) {
+                    list.add( readValue() );
+                }
+                return list;
+            default:
+                throw new IOException( "Unknown value type " + type ); //$NON-NLS-1$
+            }
+        }
+
+        private String readString() throws IOException {
+            int length = in.readInt();
+            if( length < 0 ) {
+                throw new IOException( "Corrupt raw data cache: text of length " + length ); //$NON-NLS-1$
+            }
+            byte[] bytes = new byte[length];
+            in.readFully( bytes );
+            return new String( bytes, VALUE_ENCODING );
+        }
+
+        private IFile fileAt( String path ) {
+            IFile result = files.get( path );
+            if( result == null ) {
+                result = root.getFile( new Path( path ) );
+                files.put( path, result );
+            }
+            return result;
+        }
+
+        private Packagename packageAt( int index ) throws IOException {
+            checkIndex( index, packages.length );
+            if( packages[index] == null ) {
+                packages[index] = Packagename.of( packageNames[index], javaElementFor( packageHandles[index] ) );
+            }
+            return packages[index];
+        }
+
+        private ClassDescriptor descriptorAt( int index ) throws IOException {
+            checkIndex( index, descriptors.length );
+            return descriptors[index];
+        }
+
+        private IJavaElement javaElementFor( String handleIdentifier ) {
+            return handleIdentifier.length() == 0 ? null : JavaCore.create( handleIdentifier );
+        }
+
+        private void checkIndex( int index, int length ) throws IOException {
+            if( index < 0 || index >= length ) {
+                throw new IOException( "Corrupt raw data cache: index " + index + " out of " + length ); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+    }
+}
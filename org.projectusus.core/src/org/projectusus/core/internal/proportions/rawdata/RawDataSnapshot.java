@@ -0,0 +1,270 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.core.internal.proportions.rawdata;
+
+import static java.util.Collections.unmodifiableMap;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.projectusus.core.IMethodColumnsVisitor;
+import org.projectusus.core.IMetricsResultVisitor;
+import org.projectusus.core.IMetricsSnapshot;
+import org.projectusus.core.basis.JavaModelPath;
+import org.projectusus.core.basis.MethodColumns;
+import org.projectusus.core.basis.MetricsResults;
+import org.projectusus.core.filerelations.model.Packagename;
+
+/**
+ * an immutable version of the raw data tree. A new version shares every project, package and file that did not change with the version
+ * before it.
+ * <p>
+ * File raw data is replaced, not changed, when a file is computed again (see {@link FileRawDataBuilder}), so a version refers to it
+ * directly. The class data derived from the class relations (number of methods and CCD) is the exception: a version holds a copy of it,
+ * taken when the version was made.
+ */
+class RawDataSnapshot implements IMetricsSnapshot {
+
+    static final RawDataSnapshot EMPTY = new RawDataSnapshot( 0, Collections.<IProject, ProjectSnapshot> emptyMap() );
+
+    private final long version;
+    private final Map<IProject, ProjectSnapshot> projects;
+
+    private RawDataSnapshot( long version, Map<IProject, ProjectSnapshot> projects ) {
+        this.version = version;
+        this.projects = projects;
+    }
+
+    /**
+     * the current state of the raw data tree as the version following <code>previous</code>. To be called while no raw data can be
+     * written: the class data is brought up to date on the way.
+     */
+    static RawDataSnapshot of( WorkspaceRawData workspaceRawData, RawDataSnapshot previous ) {
+        Map<IProject, ProjectSnapshot> projects = new HashMap<IProject, ProjectSnapshot>();
+        for( ProjectRawData projectRawData : workspaceRawData.getAllRawDataElements() ) {
+            IProject project = projectRawData.getProject();
+            projects.put( project, ProjectSnapshot.of( projectRawData, previous.projects.get( project ) ) );
+        }
+        return new RawDataSnapshot( previous.version + 1, unmodifiableMap( projects ) );
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void acceptAndGuide( IMetricsResultVisitor visitor ) {
+        JavaModelPath path = visitor.getPath();
+        if( path.isRestrictedToProject() ) {
+            ProjectSnapshot project = projects.get( path.getProject() );
+            if( project != null ) {
+                project.acceptAndGuide( visitor );
+            }
+        } else {
+            for( ProjectSnapshot project : projects.values() ) {
+                project.acceptAndGuide( visitor );
+            }
+        }
+    }
+
+    // internal
+    // ////////
+
+    private static MetricsResults copyOf( MetricsResults results ) {
+        MetricsResults result = new MetricsResults();
+        for( String key : results.getKeys() ) {
+            result.put( key, results.get( key ) );
+        }
+        return result;
+    }
+
+    private static class ProjectSnapshot {
+        private final IProject project;
+        private final MetricsResults data;
+        private final Map<Packagename, PackageSnapshot> packages;
+        private final Map<IFile, PackageSnapshot> packagesByFile = new HashMap<IFile, PackageSnapshot>();
+        private volatile MethodColumns methodColumns;
+
+        private ProjectSnapshot( ProjectRawData projectRawData, Map<Packagename, PackageSnapshot> packages ) {
+            this.project = projectRawData.getProject();
+            this.data = copyOf( projectRawData.data );
+            this.packages = packages;
+            for( PackageSnapshot pkg : packages.values() ) {
+                for( IFile file : pkg.files.keySet() ) {
+                    packagesByFile.put( file, pkg );
+                }
+            }
+        }
+
+        static ProjectSnapshot of( ProjectRawData projectRawData, ProjectSnapshot previous ) {
+            Map<Packagename, PackageSnapshot> packages = new HashMap<Packagename, PackageSnapshot>();
+            boolean unchanged = previous != null;
+            for( PackageRawData packageRawData : projectRawData.getAllRawDataElements() ) {
+                Packagename packagename = packageRawData.getPackagename();
+                PackageSnapshot previousPackage = previous == null ? null : previous.packages.get( packagename );
+                PackageSnapshot pkg = PackageSnapshot.of( packageRawData, previousPackage );
+                unchanged &= pkg == previousPackage;
+                packages.put( packagename, pkg );
+            }
+            if( unchanged && packages.size() == previous.packages.size() ) {
+                return previous;
+            }
+            return new ProjectSnapshot( projectRawData, packages );
+        }
+
+        void acceptAndGuide( IMetricsResultVisitor visitor ) {
+            visitor.inspectProject( project, data );
+            JavaModelPath path = visitor.getPath();
+            if( path.isRestrictedToFile() ) {
+                PackageSnapshot pkg = packagesByFile.get( path.getFile() );
+                if( pkg != null ) {
+                    pkg.acceptAndGuide( visitor );
+                }
+            } else if( visitor instanceof IMethodColumnsVisitor ) {
+                ((IMethodColumnsVisitor)visitor).inspectMethods( project, getMethodColumns() );
+            } else {
+                for( PackageSnapshot pkg : packages.values() ) {
+                    pkg.acceptAndGuide( visitor );
+                }
+            }
+        }
+
+        // built once per version of the project, and shared by all later versions that did not change it
+        private MethodColumns getMethodColumns() {
+            MethodColumns result = methodColumns;
+            if( result == null ) {
+                result = new MethodColumns();
+                for( PackageSnapshot pkg : packages.values() ) {
+                    for( FileSnapshot file : pkg.files.values() ) {
+                        file.addTo( result );
+                    }
+                }
+                methodColumns = result;
+            }
+            return result;
+        }
+    }
+
+    private static class PackageSnapshot {
+        private final Packagename pkg;
+        private final MetricsResults data;
+        private final Map<IFile, FileSnapshot> files;
+
+        private PackageSnapshot( PackageRawData packageRawData, Map<IFile, FileSnapshot> files ) {
+            this.pkg = packageRawData.getPackagename();
+            this.files = files;
+            data = copyOf( packageRawData.data );
+            data.put( MetricsResults.CLASSES, files.size() );
+        }
+
+        static PackageSnapshot of( PackageRawData packageRawData, PackageSnapshot previous ) {
+            Map<IFile, FileSnapshot> files = new HashMap<IFile, FileSnapshot>();
+            boolean unchanged = previous != null;
+            for( FileRawData fileRawData : packageRawData.getAllRawDataElements() ) {
+                IFile file = fileRawData.getFile();
+                FileSnapshot previousFile = previous == null ? null : previous.files.get( file );
+                FileSnapshot fileSnapshot = FileSnapshot.of( fileRawData, previousFile );
+                unchanged &= fileSnapshot == previousFile;
+                files.put( file, fileSnapshot );
+            }
+            if( unchanged && files.size() == previous.files.size() ) {
+                return previous;
+            }
+            return new PackageSnapshot( packageRawData, files );
+        }
+
+        void acceptAndGuide( IMetricsResultVisitor visitor ) {
+            visitor.inspectPackage( pkg, data );
+            JavaModelPath path = visitor.getPath();
+            if( path.isRestrictedToFile() ) {
+                FileSnapshot file = files.get( path.getFile() );
+                if( file != null ) {
+                    file.acceptAndGuide( visitor );
+                }
+            } else {
+                for( FileSnapshot file : files.values() ) {
+                    file.acceptAndGuide( visitor );
+                }
+            }
+        }
+    }
+
+    private static class FileSnapshot {
+        private final FileRawData fileRawData;
+        private final ClassRawData[] classes;
+        private final MetricsResults[] classData;
+
+        private FileSnapshot( FileRawData fileRawData, ClassRawData[] classes ) {
+            this.fileRawData = fileRawData;
+            this.classes = classes;
+            classData = new MetricsResults[classes.length];
+            for( int index = 0; index < classes.length; index++ ) {
+                classData[index] = copyOf( classes[index].getData() );
+            }
+        }
+
+        static FileSnapshot of( FileRawData fileRawData, FileSnapshot previous ) {
+            Collection<ClassRawData> allClasses = fileRawData.getAllRawDataElements();
+            ClassRawData[] classes = allClasses.toArray( new ClassRawData[allClasses.size()] );
+            boolean unchanged = previous != null && previous.fileRawData == fileRawData && previous.classes.length == classes.length;
+            for( int index = 0; index < classes.length; index++ ) {
+                classes[index].updateData();
+                unchanged = unchanged && previous.classes[index] == classes[index] && hasSameDerivedData( previous.classData[index], classes[index] );
+            }
+            return unchanged ? previous : new FileSnapshot( fileRawData, classes );
+        }
+
+        // the file's raw data is the same, so only the data derived from the class relations may have changed
+        private static boolean hasSameDerivedData( MetricsResults frozen, ClassRawData classRawData ) {
+            MetricsResults current = classRawData.getData();
+            return frozen.getIntValue( MetricsResults.METHODS ) == current.getIntValue( MetricsResults.METHODS )
+                    && frozen.getIntValue( MetricsResults.CCD ) == current.getIntValue( MetricsResults.CCD );
+        }
+
+        void acceptAndGuide( IMetricsResultVisitor visitor ) {
+            visitor.inspectFile( fileRawData.getFile(), fileRawData.getData() );
+            JavaModelPath path = visitor.getPath();
+            if( path.isRestrictedToType() ) {
+                ClassRawData classRawData = fileRawData.getClassRawData( path.getType() );
+                for( int index = 0; index < classes.length; index++ ) {
+                    if( classes[index] == classRawData ) {
+                        acceptAndGuide( index, visitor );
+                    }
+                }
+            } else {
+                for( int index = 0; index < classes.length; index++ ) {
+                    acceptAndGuide( index, visitor );
+                }
+            }
+        }
+
+        private void acceptAndGuide( int index, IMetricsResultVisitor visitor ) {
+            visitor.inspectClass( classes[index].getLocation(), classData[index] );
+            JavaModelPath path = visitor.getPath();
+            if( path.isRestrictedToMethod() ) {
+                MethodRawData methodRawData = classes[index].findMethodRawData( path.getMethod() );
+                if( methodRawData != null ) {
+                    methodRawData.acceptAndGuide( visitor );
+                }
+            } else {
+                for( MethodRawData methodRawData : classes[index].getAllRawDataElements() ) {
+                    methodRawData.acceptAndGuide( visitor );
+                }
+            }
+        }
+
+        void addTo( MethodColumns methods ) {
+            for( int index = 0; index < classes.length; index++ ) {
+                methods.addClass( fileRawData.getFile(), classes[index].getLocation(), classData[index] );
+                for( MethodRawData methodRawData : classes[index].getAllRawDataElements() ) {
+                    methods.addMethod( methodRawData.getLocation(), methodRawData.getData() );
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.core.internal.proportions.rawdata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import org.projectusus.core.basis.SourceCodeLocation;
+
+/**
+ * the source ranges of the classes in a file, or of the methods in a class, sorted by their start offsets. Finds the raw data for an
+ * offset or a range of the source by binary search, without asking the Java model.
+ * <p>
+ * Declarations are either nested or apart, so each range knows the range directly enclosing it. A range of unknown length (see
+ * {@link SourceCodeLocation#getSourceLength()}) is only found by its start.
+ */
+class SourceRanges<T> {
+
+    private static final int NONE = -1;
+
+    private final int version;
+    private final Object[] elements;
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] parents;
+
+    /**
+     * @param version
+     *            the version of the raw data node the classes were taken from, see {@link RawData#getVersion()}.
+     */
+    static SourceRanges<ClassRawData> ofClasses( Collection<ClassRawData> classes, int version ) {
+        List<SourceCodeLocation> locations = new ArrayList<SourceCodeLocation>( classes.size() );
+        for( ClassRawData classRawData : classes ) {
+            locations.add( classRawData.getLocation() );
+        }
+        return new SourceRanges<ClassRawData>( classes, locations, version );
+    }
+
+    /**
+     * @param version
+     *            the version of the raw data node the methods were taken from, see {@link RawData#getVersion()}.
+     */
+    static SourceRanges<MethodRawData> ofMethods( Collection<MethodRawData> methods, int version ) {
+        List<SourceCodeLocation> locations = new ArrayList<SourceCodeLocation>( methods.size() );
+        for( MethodRawData methodRawData : methods ) {
+            locations.add( methodRawData.getLocation() );
+        }
+        return new SourceRanges<MethodRawData>( methods, locations, version );
+    }
+
+    private SourceRanges( Collection<T> source, final List<SourceCodeLocation> locations, int version ) {
+        this.version = version;
+        Integer[] order = new Integer[locations.size()];
+        for( int index = 0; index < order.length; index++ ) {
+            order[index] = Integer.valueOf( index );
+        }
+        // enclosing ranges before the ranges they enclose
+        Arrays.sort( order, new Comparator<Integer>() {
+            public int compare( Integer first, Integer second ) {
+                SourceCodeLocation firstLocation = locations.get( first.intValue() );
+                SourceCodeLocation secondLocation = locations.get( second.intValue() );
+                int result = compare( firstLocation.getSourcePosition(), secondLocation.getSourcePosition() );
+                return result != 0 ? result : compare( secondLocation.getSourceLength(), firstLocation.getSourceLength() );
+            }
+
+            private int compare( int first, int second ) {
+                return first < second ? -1 : (first == second ? 0 : 1);
+            }
+        } );
+        Object[] all = source.toArray();
+        elements = new Object[order.length];
+        starts = new int[order.length];
+        ends = new int[order.length];
+        parents = new int[order.length];
+        for( int index = 0; index < order.length; index++ ) {
+            SourceCodeLocation location = locations.get( order[index].intValue() );
+            elements[index] = all[order[index].intValue()];
+            starts[index] = location.getSourcePosition();
+            ends[index] = starts[index] + location.getSourceLength();
+            parents[index] = findParent( index );
+        }
+    }
+
+    /**
+     * whether this index was built from the given version of its raw data node, see {@link RawData#getVersion()}.
+     */
+    boolean isOfVersion( int nodeVersion ) {
+        return version == nodeVersion;
+    }
+
+    /**
+     * the outermost raw data declared within the given range, if it starts there or covers the range to its end; the raw data for a
+     * declaration whose source range the Java model reports, <code>null</code> if there is none.
+     */
+    T getDeclaredIn( int offset, int length ) {
+        int index = firstStartingAtOrAfter( offset );
+        if( index == starts.length || starts[index] >= offset + Math.max( length, 1 ) ) {
+            return null;
+        }
+        return starts[index] == offset || ends[index] >= offset + length ? elementAt( index ) : null;
+    }
+
+    /**
+     * the innermost raw data whose range contains the offset, <code>null</code> if there is none.
+     */
+    T getInnermostAt( int offset ) {
+        int index = innermostAt( offset );
+        return index == NONE ? null : elementAt( index );
+    }
+
+    /**
+     * all raw data whose ranges overlap the given range, enclosing ranges before the ranges they enclose.
+     */
+    List<T> getOverlapping( int offset, int length ) {
+        List<T> result = new ArrayList<T>();
+        for( int index = innermostAt( offset ); index != NONE; index = parents[index] ) {
+            result.add( 0, elementAt( index ) );
+        }
+        for( int index = firstStartingAtOrAfter( offset ); index < starts.length && starts[index] < offset + length; index++ ) {
+            if( starts[index] > offset || ends[index] == starts[index] ) {
+                result.add( elementAt( index ) );
+            }
+        }
+        return result;
+    }
+
+    // internal
+    // ////////
+
+    // the last range before the one at index that has not ended when it starts
+    private int findParent( int index ) {
+        int candidate = index - 1;
+        while( candidate != NONE && ends[candidate] <= starts[index] ) {
+            candidate = parents[candidate];
+        }
+        return candidate;
+    }
+
+    // nested ranges start after the ranges enclosing them, so the innermost range is among those enclosing the last one starting at or
+    // before the offset
+    private int innermostAt( int offset ) {
+        int index = firstStartingAtOrAfter( offset + 1 ) - 1;
+        while( index != NONE && ends[index] <= offset ) {
+            index = parents[index];
+        }
+        return index;
+    }
+
+    private int firstStartingAtOrAfter( int offset ) {
+        int low = 0;
+        int high = starts.length;
+        while( low < high ) {
+            int middle = (low + high) >>> 1;
+            if( starts[middle] < offset ) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private T elementAt( int index ) {
+        return (T)elements[index];
+    }
+}
@@ -27,7 +27,7 @@ class WorkspaceRawData extends RawData<IProject, ProjectRawData> {
         this.converter = new BoundTypeConverter( nodeHelper );
     }
 
-    private ProjectRawData getOrCreateProjectRawData( IProject project ) {
+    ProjectRawData getOrCreateProjectRawData( IProject project ) {
         ProjectRawData rawData = getProjectRawData( project );
         if( rawData == null ) {
             rawData = new ProjectRawData( project );
@@ -55,6 +55,18 @@ class WorkspaceRawData extends RawData<IProject, ProjectRawData> {
         }
     }
 
+    public String getFingerprint( IFile file ) {
+        ProjectRawData projectRawData = getProjectRawData( file.getProject() );
+        return projectRawData == null ? null : projectRawData.getFingerprint( file );
+    }
+
+    public void setFingerprint( IFile file, String fingerprint ) {
+        ProjectRawData projectRawData = getProjectRawData( file.getProject() );
+        if( projectRawData != null ) {
+            projectRawData.setFingerprint( file, fingerprint );
+        }
+    }
+
     public void acceptAndGuide( IMetricsResultVisitor visitor ) {
         JavaModelPath path = visitor.getPath();
         if( path.isRestrictedToProject() ) {
@@ -35,5 +35,8 @@ public class UsusPreferenceInitializer extends AbstractPreferenceInitializer {
 
     private void setDefaultValues( IEclipsePreferences prefs ) {
         prefs.putBoolean( UsusPreferenceKeys.AUTO_COMPUTE, true );
+        prefs.putInt( UsusPreferenceKeys.COMPUTATION_THREADS, Runtime.getRuntime().availableProcessors() );
+        prefs.putInt( UsusPreferenceKeys.PARTIAL_RESULTS_INTERVAL, 500 );
+        prefs.putBoolean( UsusPreferenceKeys.SUMMARY_MODE, false );
     }
 }
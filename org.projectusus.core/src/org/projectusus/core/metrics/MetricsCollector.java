@@ -1,21 +1,57 @@
 package org.projectusus.core.metrics;
 
+import static java.util.Collections.unmodifiableSet;
+import static org.projectusus.core.metrics.ParserRequirement.BINDINGS;
+import static org.projectusus.core.metrics.ParserRequirement.METHOD_BODIES;
+
+import java.util.EnumSet;
+import java.util.Set;
+
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IExecutableExtension;
 import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.projectusus.core.CollectibleExtension;
 import org.projectusus.core.IMetricsWriter;
 
-public abstract class MetricsCollector extends ASTVisitor implements CollectibleExtension {
+public abstract class MetricsCollector extends ASTVisitor implements CollectibleExtension, IExecutableExtension {
 
     public final static String EXTENSION_POINT_ID = "org.projectusus.core.metrics"; //$NON-NLS-1$
 
     private IFile file;
     private IMetricsWriter metricsWriter;
+    private final Set<ParserRequirement> parserRequirements = EnumSet.of( BINDINGS, METHOD_BODIES );
 
     public MetricsCollector() {
         super();
     }
 
+    public void setInitializationData( IConfigurationElement config, String propertyName, Object data ) {
+        for( ParserRequirement requirement : ParserRequirement.values() ) {
+            String declared = config.getAttribute( requirement.getAttributeName() );
+            if( declared != null ) {
+                setRequired( requirement, Boolean.parseBoolean( declared ) );
+            }
+        }
+    }
+
+    /**
+     * what this collector needs the parser to deliver. Unless declared otherwise in the extension, these are bindings and method bodies.
+     * Values written through the {@link IMetricsWriter} are filed under the name and source range of their enclosing type, so only a
+     * collector which resolves bindings itself has to require them.
+     */
+    public Set<ParserRequirement> getParserRequirements() {
+        return unmodifiableSet( parserRequirements );
+    }
+
+    protected void setRequired( ParserRequirement requirement, boolean required ) {
+        if( required ) {
+            parserRequirements.add( requirement );
+        } else {
+            parserRequirements.remove( requirement );
+        }
+    }
+
     public void setup( IFile newFile, IMetricsWriter newMetricsWriter ) {
         this.file = newFile;
         this.metricsWriter = newMetricsWriter;
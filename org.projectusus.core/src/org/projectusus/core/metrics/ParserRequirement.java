@@ -0,0 +1,29 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.core.metrics;
+
+/**
+ * what a {@link MetricsCollector} needs from the AST it visits. Each value corresponds to a boolean attribute of the <code>metrics</code>
+ * element in the <code>org.projectusus.core.metrics</code> extension point.
+ */
+public enum ParserRequirement {
+
+    /** type, method and variable bindings must be resolved */
+    BINDINGS( "requiresBindings" ), //$NON-NLS-1$
+    /** the statements inside method bodies must be parsed */
+    METHOD_BODIES( "requiresMethodBodies" ), //$NON-NLS-1$
+    /** statements with syntax errors must be recovered instead of being dropped */
+    STATEMENTS_RECOVERY( "requiresStatementsRecovery" ); //$NON-NLS-1$
+
+    private final String attributeName;
+
+    private ParserRequirement( String attributeName ) {
+        this.attributeName = attributeName;
+    }
+
+    public String getAttributeName() {
+        return attributeName;
+    }
+}
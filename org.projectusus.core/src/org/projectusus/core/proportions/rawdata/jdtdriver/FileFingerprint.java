@@ -0,0 +1,99 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.core.proportions.rawdata.jdtdriver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+import org.projectusus.core.metrics.MetricsCollector;
+
+/**
+ * identifies the input a file's raw data was computed from: the bytes of the file and the set of collectors which ran over it. If both
+ * fingerprints of a file match, computing it again would produce the same raw data.
+ * <p>
+ * Instances reuse their digest and buffer and must not be shared between threads.
+ */
+public class FileFingerprint {
+
+    private static final String ALGORITHM = "MD5"; //$NON-NLS-1$
+    private static final int BUFFER_SIZE = 8192;
+
+    private final MessageDigest digest;
+    private final byte[] collectorSetVersion;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    public FileFingerprint( Set<? extends MetricsCollector> metricsExtensions ) {
+        digest = createDigest();
+        collectorSetVersion = digest.digest( describe( metricsExtensions ).getBytes() );
+    }
+
+    /**
+     * the fingerprint of the current contents of the file, or <code>null</code> if they cannot be read.
+     */
+    public String of( IFile file ) {
+        try {
+            return hexString( digestOf( file ) );
+        } catch( CoreException cex ) {
+            return null;
+        } catch( IOException ioex ) {
+            return null;
+        }
+    }
+
+    // internal
+    // ////////
+
+    private byte[] digestOf( IFile file ) throws CoreException, IOException {
+        digest.reset();
+        digest.update( collectorSetVersion );
+        InputStream contents = file.getContents( true );
+        try {
+            for( int read = contents.read( buffer ); read != -1; read = contents.read( buffer ) ) {
+                digest.update( buffer, 0, read );
+            }
+        } finally {
+            contents.close();
+        }
+        return digest.digest();
+    }
+
+    private static String describe( Set<? extends MetricsCollector> metricsExtensions ) {
+        Set<String> descriptions = new TreeSet<String>();
+        for( MetricsCollector collector : metricsExtensions ) {
+            descriptions.add( collector.getClass().getName() + '@' + versionOf( collector.getClass() ) + collector.getParserRequirements() );
+        }
+        return descriptions.toString();
+    }
+
+    private static String versionOf( Class<?> type ) {
+        Bundle bundle = FrameworkUtil.getBundle( type );
+        return bundle == null ? "" : bundle.getVersion().toString(); //$NON-NLS-1$
+    }
+
+    private static String hexString( byte[] bytes ) {
+        StringBuilder result = new StringBuilder( bytes.length * 2 );
+        for( byte b : bytes ) {
+            result.append( Character.forDigit( (b >> 4) & 0xF, 16 ) );
+            result.append( Character.forDigit( b & 0xF, 16 ) );
+        }
+        return result.toString();
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance( ALGORITHM );
+        } catch( NoSuchAlgorithmException nsaex ) {
+            throw new IllegalStateException( nsaex );
+        }
+    }
+}
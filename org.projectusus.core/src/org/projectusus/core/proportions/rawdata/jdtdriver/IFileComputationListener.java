@@ -0,0 +1,19 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.core.proportions.rawdata.jdtdriver;
+
+import org.eclipse.core.resources.IFile;
+
+/**
+ * is informed by the {@link JavaFileBatchDriver} about the progress of the individual files of a batch.
+ */
+public interface IFileComputationListener {
+
+    void fileStarted( IFile file );
+
+    void fileFinished( IFile file );
+
+    void fileFailed( IFile file, Throwable throwable );
+}
@@ -0,0 +1,157 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.core.proportions.rawdata.jdtdriver;
+
+import static org.eclipse.jdt.core.JavaCore.createCompilationUnitFrom;
+import static org.eclipse.jdt.core.dom.ASTParser.newParser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTRequestor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.projectusus.core.metrics.MetricsCollector;
+import org.projectusus.core.util.FileSupport;
+
+/**
+ * computes the metrics for a batch of files of the same project.
+ * <p>
+ * All compilation units of the batch are handed to a single {@link ASTParser#createASTs} call, so that JDT builds the name environment
+ * for binding resolution only once per batch. The parser only does what the collectors declare they need, see {@link ParserProfile}. The
+ * collectors run while each AST is delivered, and the AST is released afterwards, so the memory needed stays bounded by the batch size.
+ * <p>
+ * If the parser itself fails, the files it has not delivered yet are computed one by one, as if they were not batched, so that only a file
+ * which fails on its own is reported as failed.
+ * <p>
+ * A cancelled batch stops after the current file. The files not reached are neither started nor finished, so they keep their raw data.
+ */
+public class JavaFileBatchDriver {
+
+    private final Collection<IFile> files;
+
+    public JavaFileBatchDriver( Collection<IFile> files ) {
+        this.files = files;
+    }
+
+    public void compute( Set<MetricsCollector> metricsExtensions, IFileComputationListener listener, IProgressMonitor monitor ) {
+        Map<ICompilationUnit, IFile> units = collectCompilationUnits( listener );
+        if( units.isEmpty() ) {
+            return;
+        }
+        Requestor requestor = new Requestor( units, metricsExtensions, listener, monitor );
+        try {
+            createASTs( units.keySet().toArray( new ICompilationUnit[units.size()] ), metricsExtensions, requestor, monitor );
+        } catch( OperationCanceledException ocex ) {
+            // the caller notices the cancellation itself
+        } catch( RuntimeException rex ) {
+            requestor.computeRemainingAlone();
+        }
+    }
+
+    // internal
+    // ////////
+
+    ICompilationUnit getCompilationUnit( IFile file ) {
+        if( FileSupport.isJavaFile( file ) && file.exists() ) {
+            return createCompilationUnitFrom( file );
+        }
+        return null;
+    }
+
+    void createASTs( ICompilationUnit[] units, Set<MetricsCollector> metricsExtensions, ASTRequestor requestor, IProgressMonitor monitor ) {
+        ASTParser parser = newParser( AST.JLS3 );
+        parser.setKind( ASTParser.K_COMPILATION_UNIT );
+        new ParserProfile( metricsExtensions ).configure( parser, units[0].getJavaProject() );
+        parser.createASTs( units, new String[0], requestor, monitor );
+    }
+
+    void compute( IFile file, CompilationUnit ast, Set<MetricsCollector> metricsExtensions ) {
+        new JavaFileDriver( file ).compute( ast, metricsExtensions );
+    }
+
+    void computeAlone( IFile file, Set<MetricsCollector> metricsExtensions ) {
+        new JavaFileDriver( file ).compute( metricsExtensions );
+    }
+
+    void dropRawData( IFile file ) {
+        new JavaFileDriver( file ).dropRawData();
+    }
+
+    private Map<ICompilationUnit, IFile> collectCompilationUnits( IFileComputationListener listener ) {
+        Map<ICompilationUnit, IFile> units = new LinkedHashMap<ICompilationUnit, IFile>();
+        for( IFile file : files ) {
+            ICompilationUnit unit = getCompilationUnit( file );
+            if( unit == null ) {
+                listener.fileStarted( file );
+                dropRawData( file );
+                listener.fileFinished( file );
+            } else {
+                units.put( unit, file );
+            }
+        }
+        return units;
+    }
+
+    private class Requestor extends ASTRequestor {
+
+        private final Map<ICompilationUnit, IFile> pendingUnits;
+        private final Set<MetricsCollector> metricsExtensions;
+        private final IFileComputationListener listener;
+        private final IProgressMonitor monitor;
+
+        Requestor( Map<ICompilationUnit, IFile> units, Set<MetricsCollector> metricsExtensions, IFileComputationListener listener,
+                IProgressMonitor monitor ) {
+            this.pendingUnits = new LinkedHashMap<ICompilationUnit, IFile>( units );
+            this.metricsExtensions = metricsExtensions;
+            this.listener = listener;
+            this.monitor = monitor;
+        }
+
+        @Override
+        public void acceptAST( ICompilationUnit source, CompilationUnit ast ) {
+            if( monitor.isCanceled() ) {
+                return;
+            }
+            IFile file = pendingUnits.remove( source );
+            if( file == null ) {
+                return;
+            }
+            listener.fileStarted( file );
+            try {
+                compute( file, ast, metricsExtensions );
+                listener.fileFinished( file );
+            } catch( RuntimeException rex ) {
+                listener.fileFailed( file, rex );
+            }
+        }
+
+        void computeRemainingAlone() {
+            List<IFile> remaining = new ArrayList<IFile>( pendingUnits.values() );
+            pendingUnits.clear();
+            for( IFile file : remaining ) {
+                if( monitor.isCanceled() ) {
+                    return;
+                }
+                listener.fileStarted( file );
+                try {
+                    computeAlone( file, metricsExtensions );
+                    listener.fileFinished( file );
+                } catch( RuntimeException rex ) {
+                    listener.fileFailed( file, rex );
+                }
+            }
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.projectusus.core.IFileMetricsWriter;
 import org.projectusus.core.metrics.MetricsCollector;
 import org.projectusus.core.statistics.UsusModelProvider;
 
@@ -26,25 +27,34 @@ public class JavaFileDriver {
     }
 
     public void compute( Set<MetricsCollector> metricsExtensions ) {
-        CompilationUnit compilationUnit = parseFile();
+        compute( parseFile( new ParserProfile( metricsExtensions ) ), metricsExtensions );
+    }
+
+    // the collectors write into a builder for the file, which replaces the file's raw data only once all of them are done
+    void compute( CompilationUnit compilationUnit, Set<MetricsCollector> metricsExtensions ) {
+        IFileMetricsWriter builder = UsusModelProvider.getMetricsWriter( file );
         for( MetricsCollector visitor : metricsExtensions ) {
-            setup( visitor );
-            compilationUnit.accept( visitor );
+            visitor.setup( file, builder );
         }
+        compilationUnit.accept( new MultiplexingVisitor( metricsExtensions ) );
+        builder.commit();
     }
 
-    private void setup( MetricsCollector visitor ) {
-        visitor.setup( file, UsusModelProvider.getMetricsWriter() );
+    /**
+     * drops the raw data of a file which has no Java source (any more).
+     */
+    void dropRawData() {
+        UsusModelProvider.getMetricsWriter( file ).commit();
     }
 
-    private CompilationUnit parseFile() {
-        return parse( createCompilationUnitFrom( file ) );
+    private CompilationUnit parseFile( ParserProfile profile ) {
+        return parse( createCompilationUnitFrom( file ), profile );
     }
 
-    private static CompilationUnit parse( ICompilationUnit unit ) {
+    private static CompilationUnit parse( ICompilationUnit unit, ParserProfile profile ) {
         ASTParser parser = newParser( AST.JLS3 );
         parser.setKind( ASTParser.K_COMPILATION_UNIT );
-        parser.setResolveBindings( true );
+        profile.configure( parser, unit.getJavaProject() );
         parser.setSource( unit );
         return (CompilationUnit)parser.createAST( null );
     }
@@ -0,0 +1,1831 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.core.proportions.rawdata.jdtdriver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.jdt.core.dom.AnnotationTypeDeclaration;
+import org.eclipse.jdt.core.dom.AnnotationTypeMemberDeclaration;
+import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
+import org.eclipse.jdt.core.dom.ArrayAccess;
+import org.eclipse.jdt.core.dom.ArrayCreation;
+import org.eclipse.jdt.core.dom.ArrayInitializer;
+import org.eclipse.jdt.core.dom.ArrayType;
+import org.eclipse.jdt.core.dom.AssertStatement;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.BlockComment;
+import org.eclipse.jdt.core.dom.BooleanLiteral;
+import org.eclipse.jdt.core.dom.BreakStatement;
+import org.eclipse.jdt.core.dom.CastExpression;
+import org.eclipse.jdt.core.dom.CatchClause;
+import org.eclipse.jdt.core.dom.CharacterLiteral;
+import org.eclipse.jdt.core.dom.ClassInstanceCreation;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.ConditionalExpression;
+import org.eclipse.jdt.core.dom.ConstructorInvocation;
+import org.eclipse.jdt.core.dom.ContinueStatement;
+import org.eclipse.jdt.core.dom.DoStatement;
+import org.eclipse.jdt.core.dom.EmptyStatement;
+import org.eclipse.jdt.core.dom.EnhancedForStatement;
+import org.eclipse.jdt.core.dom.EnumConstantDeclaration;
+import org.eclipse.jdt.core.dom.EnumDeclaration;
+import org.eclipse.jdt.core.dom.ExpressionStatement;
+import org.eclipse.jdt.core.dom.FieldAccess;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.ForStatement;
+import org.eclipse.jdt.core.dom.IfStatement;
+import org.eclipse.jdt.core.dom.ImportDeclaration;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.Initializer;
+import org.eclipse.jdt.core.dom.InstanceofExpression;
+import org.eclipse.jdt.core.dom.Javadoc;
+import org.eclipse.jdt.core.dom.LabeledStatement;
+import org.eclipse.jdt.core.dom.LineComment;
+import org.eclipse.jdt.core.dom.MarkerAnnotation;
+import org.eclipse.jdt.core.dom.MemberRef;
+import org.eclipse.jdt.core.dom.MemberValuePair;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.MethodRef;
+import org.eclipse.jdt.core.dom.MethodRefParameter;
+import org.eclipse.jdt.core.dom.Modifier;
+import org.eclipse.jdt.core.dom.NormalAnnotation;
+import org.eclipse.jdt.core.dom.NullLiteral;
+import org.eclipse.jdt.core.dom.NumberLiteral;
+import org.eclipse.jdt.core.dom.PackageDeclaration;
+import org.eclipse.jdt.core.dom.ParameterizedType;
+import org.eclipse.jdt.core.dom.ParenthesizedExpression;
+import org.eclipse.jdt.core.dom.PostfixExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+import org.eclipse.jdt.core.dom.PrimitiveType;
+import org.eclipse.jdt.core.dom.QualifiedName;
+import org.eclipse.jdt.core.dom.QualifiedType;
+import org.eclipse.jdt.core.dom.ReturnStatement;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.SimpleType;
+import org.eclipse.jdt.core.dom.SingleMemberAnnotation;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.StringLiteral;
+import org.eclipse.jdt.core.dom.SuperConstructorInvocation;
+import org.eclipse.jdt.core.dom.SuperFieldAccess;
+import org.eclipse.jdt.core.dom.SuperMethodInvocation;
+import org.eclipse.jdt.core.dom.SwitchCase;
+import org.eclipse.jdt.core.dom.SwitchStatement;
+import org.eclipse.jdt.core.dom.SynchronizedStatement;
+import org.eclipse.jdt.core.dom.TagElement;
+import org.eclipse.jdt.core.dom.TextElement;
+import org.eclipse.jdt.core.dom.ThisExpression;
+import org.eclipse.jdt.core.dom.ThrowStatement;
+import org.eclipse.jdt.core.dom.TryStatement;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.core.dom.TypeDeclarationStatement;
+import org.eclipse.jdt.core.dom.TypeLiteral;
+import org.eclipse.jdt.core.dom.TypeParameter;
+import org.eclipse.jdt.core.dom.VariableDeclarationExpression;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
+import org.eclipse.jdt.core.dom.WhileStatement;
+import org.eclipse.jdt.core.dom.WildcardType;
+
+import com.google.common.primitives.Ints;
+
+/**
+ * Walks an AST once on behalf of several visitors.
+ * <p>
+ * Each <code>visit</code> and <code>endVisit</code> is handed to every visitor which overrides it. A visitor whose <code>visit</code> (or
+ * <code>preVisit2</code>) returns <code>false</code> is suspended until the walk leaves that node again, so every visitor sees exactly the
+ * calls it would have seen when walking the tree on its own. The subtree below a node is only entered while at least one visitor is still
+ * interested in it.
+ */
+public class MultiplexingVisitor extends ASTVisitor {
+
+    private static final String VISIT = "visit"; //$NON-NLS-1$
+    private static final String END_VISIT = "endVisit"; //$NON-NLS-1$
+    private static final ConcurrentMap<List<Object>, Boolean> overriddenMethods = new ConcurrentHashMap<List<Object>, Boolean>();
+
+    private final ASTVisitor[] visitors;
+    private final ASTNode[] suspendedAt;
+    private final boolean[] suspendedByPreVisit;
+    private final int[] preVisitors;
+    private final int[] postVisitors;
+    private final Map<Class<? extends ASTNode>, int[]> visitorsByNodeType = new HashMap<Class<? extends ASTNode>, int[]>();
+    private final Map<Class<? extends ASTNode>, int[]> endVisitorsByNodeType = new HashMap<Class<? extends ASTNode>, int[]>();
+    private int activeVisitors;
+
+    public MultiplexingVisitor( Collection<? extends ASTVisitor> visitors ) {
+        super( true );
+        this.visitors = visitors.toArray( new ASTVisitor[visitors.size()] );
+        this.suspendedAt = new ASTNode[this.visitors.length];
+        this.suspendedByPreVisit = new boolean[this.visitors.length];
+        this.activeVisitors = this.visitors.length;
+        this.preVisitors = visitorsOverriding( ASTNode.class, "preVisit2", "preVisit" ); //$NON-NLS-1$ //$NON-NLS-2$
+        this.postVisitors = visitorsOverriding( ASTNode.class, "postVisit" ); //$NON-NLS-1$
+    }
+
+    @Override
+    public boolean preVisit2( ASTNode node ) {
+        for( int i : preVisitors ) {
+            if( isActive( i ) && !visitors[i].preVisit2( node ) ) {
+                suspend( i, node );
+                suspendedByPreVisit[i] = true;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void postVisit( ASTNode node ) {
+        if( activeVisitors < visitors.length ) {
+            resumeVisitorsSuspendedAt( node );
+        }
+        for( int i : postVisitors ) {
+            if( isActive( i ) ) {
+                visitors[i].postVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( AnnotationTypeDeclaration node ) {
+        for( int i : visitorsOf( AnnotationTypeDeclaration.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( AnnotationTypeDeclaration node ) {
+        for( int i : endVisitorsOf( AnnotationTypeDeclaration.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( AnnotationTypeMemberDeclaration node ) {
+        for( int i : visitorsOf( AnnotationTypeMemberDeclaration.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( AnnotationTypeMemberDeclaration node ) {
+        for( int i : endVisitorsOf( AnnotationTypeMemberDeclaration.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( AnonymousClassDeclaration node ) {
+        for( int i : visitorsOf( AnonymousClassDeclaration.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( AnonymousClassDeclaration node ) {
+        for( int i : endVisitorsOf( AnonymousClassDeclaration.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( ArrayAccess node ) {
+        for( int i : visitorsOf( ArrayAccess.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( ArrayAccess node ) {
+        for( int i : endVisitorsOf( ArrayAccess.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( ArrayCreation node ) {
+        for( int i : visitorsOf( ArrayCreation.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( ArrayCreation node ) {
+        for( int i : endVisitorsOf( ArrayCreation.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( ArrayInitializer node ) {
+        for( int i : visitorsOf( ArrayInitializer.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( ArrayInitializer node ) {
+        for( int i : endVisitorsOf( ArrayInitializer.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( ArrayType node ) {
+        for( int i : visitorsOf( ArrayType.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( ArrayType node ) {
+        for( int i : endVisitorsOf( ArrayType.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( AssertStatement node ) {
+        for( int i : visitorsOf( AssertStatement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( AssertStatement node ) {
+        for( int i : endVisitorsOf( AssertStatement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( Assignment node ) {
+        for( int i : visitorsOf( Assignment.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( Assignment node ) {
+        for( int i : endVisitorsOf( Assignment.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( Block node ) {
+        for( int i : visitorsOf( Block.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( Block node ) {
+        for( int i : endVisitorsOf( Block.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( BlockComment node ) {
+        for( int i : visitorsOf( BlockComment.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( BlockComment node ) {
+        for( int i : endVisitorsOf( BlockComment.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( BooleanLiteral node ) {
+        for( int i : visitorsOf( BooleanLiteral.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( BooleanLiteral node ) {
+        for( int i : endVisitorsOf( BooleanLiteral.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( BreakStatement node ) {
+        for( int i : visitorsOf( BreakStatement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( BreakStatement node ) {
+        for( int i : endVisitorsOf( BreakStatement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( CastExpression node ) {
+        for( int i : visitorsOf( CastExpression.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( CastExpression node ) {
+        for( int i : endVisitorsOf( CastExpression.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( CatchClause node ) {
+        for( int i : visitorsOf( CatchClause.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( CatchClause node ) {
+        for( int i : endVisitorsOf( CatchClause.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( CharacterLiteral node ) {
+        for( int i : visitorsOf( CharacterLiteral.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( CharacterLiteral node ) {
+        for( int i : endVisitorsOf( CharacterLiteral.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( ClassInstanceCreation node ) {
+        for( int i : visitorsOf( ClassInstanceCreation.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( ClassInstanceCreation node ) {
+        for( int i : endVisitorsOf( ClassInstanceCreation.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( CompilationUnit node ) {
+        for( int i : visitorsOf( CompilationUnit.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( CompilationUnit node ) {
+        for( int i : endVisitorsOf( CompilationUnit.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( ConditionalExpression node ) {
+        for( int i : visitorsOf( ConditionalExpression.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( ConditionalExpression node ) {
+        for( int i : endVisitorsOf( ConditionalExpression.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( ConstructorInvocation node ) {
+        for( int i : visitorsOf( ConstructorInvocation.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( ConstructorInvocation node ) {
+        for( int i : endVisitorsOf( ConstructorInvocation.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( ContinueStatement node ) {
+        for( int i : visitorsOf( ContinueStatement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( ContinueStatement node ) {
+        for( int i : endVisitorsOf( ContinueStatement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( DoStatement node ) {
+        for( int i : visitorsOf( DoStatement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( DoStatement node ) {
+        for( int i : endVisitorsOf( DoStatement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( EmptyStatement node ) {
+        for( int i : visitorsOf( EmptyStatement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( EmptyStatement node ) {
+        for( int i : endVisitorsOf( EmptyStatement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( EnhancedForStatement node ) {
+        for( int i : visitorsOf( EnhancedForStatement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( EnhancedForStatement node ) {
+        for( int i : endVisitorsOf( EnhancedForStatement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( EnumConstantDeclaration node ) {
+        for( int i : visitorsOf( EnumConstantDeclaration.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( EnumConstantDeclaration node ) {
+        for( int i : endVisitorsOf( EnumConstantDeclaration.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( EnumDeclaration node ) {
+        for( int i : visitorsOf( EnumDeclaration.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( EnumDeclaration node ) {
+        for( int i : endVisitorsOf( EnumDeclaration.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( ExpressionStatement node ) {
+        for( int i : visitorsOf( ExpressionStatement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( ExpressionStatement node ) {
+        for( int i : endVisitorsOf( ExpressionStatement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( FieldAccess node ) {
+        for( int i : visitorsOf( FieldAccess.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( FieldAccess node ) {
+        for( int i : endVisitorsOf( FieldAccess.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( FieldDeclaration node ) {
+        for( int i : visitorsOf( FieldDeclaration.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( FieldDeclaration node ) {
+        for( int i : endVisitorsOf( FieldDeclaration.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( ForStatement node ) {
+        for( int i : visitorsOf( ForStatement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( ForStatement node ) {
+        for( int i : endVisitorsOf( ForStatement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( IfStatement node ) {
+        for( int i : visitorsOf( IfStatement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( IfStatement node ) {
+        for( int i : endVisitorsOf( IfStatement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( ImportDeclaration node ) {
+        for( int i : visitorsOf( ImportDeclaration.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( ImportDeclaration node ) {
+        for( int i : endVisitorsOf( ImportDeclaration.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( InfixExpression node ) {
+        for( int i : visitorsOf( InfixExpression.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( InfixExpression node ) {
+        for( int i : endVisitorsOf( InfixExpression.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( InstanceofExpression node ) {
+        for( int i : visitorsOf( InstanceofExpression.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( InstanceofExpression node ) {
+        for( int i : endVisitorsOf( InstanceofExpression.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( Initializer node ) {
+        for( int i : visitorsOf( Initializer.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( Initializer node ) {
+        for( int i : endVisitorsOf( Initializer.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( Javadoc node ) {
+        for( int i : visitorsOf( Javadoc.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( Javadoc node ) {
+        for( int i : endVisitorsOf( Javadoc.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( LabeledStatement node ) {
+        for( int i : visitorsOf( LabeledStatement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( LabeledStatement node ) {
+        for( int i : endVisitorsOf( LabeledStatement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( LineComment node ) {
+        for( int i : visitorsOf( LineComment.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( LineComment node ) {
+        for( int i : endVisitorsOf( LineComment.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( MarkerAnnotation node ) {
+        for( int i : visitorsOf( MarkerAnnotation.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( MarkerAnnotation node ) {
+        for( int i : endVisitorsOf( MarkerAnnotation.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( MemberRef node ) {
+        for( int i : visitorsOf( MemberRef.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( MemberRef node ) {
+        for( int i : endVisitorsOf( MemberRef.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( MemberValuePair node ) {
+        for( int i : visitorsOf( MemberValuePair.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( MemberValuePair node ) {
+        for( int i : endVisitorsOf( MemberValuePair.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( MethodRef node ) {
+        for( int i : visitorsOf( MethodRef.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( MethodRef node ) {
+        for( int i : endVisitorsOf( MethodRef.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( MethodRefParameter node ) {
+        for( int i : visitorsOf( MethodRefParameter.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( MethodRefParameter node ) {
+        for( int i : endVisitorsOf( MethodRefParameter.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( MethodDeclaration node ) {
+        for( int i : visitorsOf( MethodDeclaration.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( MethodDeclaration node ) {
+        for( int i : endVisitorsOf( MethodDeclaration.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( MethodInvocation node ) {
+        for( int i : visitorsOf( MethodInvocation.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( MethodInvocation node ) {
+        for( int i : endVisitorsOf( MethodInvocation.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( Modifier node ) {
+        for( int i : visitorsOf( Modifier.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( Modifier node ) {
+        for( int i : endVisitorsOf( Modifier.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( NormalAnnotation node ) {
+        for( int i : visitorsOf( NormalAnnotation.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( NormalAnnotation node ) {
+        for( int i : endVisitorsOf( NormalAnnotation.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( NullLiteral node ) {
+        for( int i : visitorsOf( NullLiteral.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( NullLiteral node ) {
+        for( int i : endVisitorsOf( NullLiteral.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( NumberLiteral node ) {
+        for( int i : visitorsOf( NumberLiteral.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( NumberLiteral node ) {
+        for( int i : endVisitorsOf( NumberLiteral.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( PackageDeclaration node ) {
+        for( int i : visitorsOf( PackageDeclaration.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( PackageDeclaration node ) {
+        for( int i : endVisitorsOf( PackageDeclaration.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( ParameterizedType node ) {
+        for( int i : visitorsOf( ParameterizedType.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( ParameterizedType node ) {
+        for( int i : endVisitorsOf( ParameterizedType.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( ParenthesizedExpression node ) {
+        for( int i : visitorsOf( ParenthesizedExpression.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( ParenthesizedExpression node ) {
+        for( int i : endVisitorsOf( ParenthesizedExpression.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( PostfixExpression node ) {
+        for( int i : visitorsOf( PostfixExpression.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( PostfixExpression node ) {
+        for( int i : endVisitorsOf( PostfixExpression.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( PrefixExpression node ) {
+        for( int i : visitorsOf( PrefixExpression.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( PrefixExpression node ) {
+        for( int i : endVisitorsOf( PrefixExpression.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( PrimitiveType node ) {
+        for( int i : visitorsOf( PrimitiveType.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( PrimitiveType node ) {
+        for( int i : endVisitorsOf( PrimitiveType.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( QualifiedName node ) {
+        for( int i : visitorsOf( QualifiedName.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( QualifiedName node ) {
+        for( int i : endVisitorsOf( QualifiedName.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( QualifiedType node ) {
+        for( int i : visitorsOf( QualifiedType.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( QualifiedType node ) {
+        for( int i : endVisitorsOf( QualifiedType.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( ReturnStatement node ) {
+        for( int i : visitorsOf( ReturnStatement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( ReturnStatement node ) {
+        for( int i : endVisitorsOf( ReturnStatement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( SimpleName node ) {
+        for( int i : visitorsOf( SimpleName.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( SimpleName node ) {
+        for( int i : endVisitorsOf( SimpleName.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( SimpleType node ) {
+        for( int i : visitorsOf( SimpleType.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( SimpleType node ) {
+        for( int i : endVisitorsOf( SimpleType.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( SingleMemberAnnotation node ) {
+        for( int i : visitorsOf( SingleMemberAnnotation.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( SingleMemberAnnotation node ) {
+        for( int i : endVisitorsOf( SingleMemberAnnotation.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( SingleVariableDeclaration node ) {
+        for( int i : visitorsOf( SingleVariableDeclaration.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( SingleVariableDeclaration node ) {
+        for( int i : endVisitorsOf( SingleVariableDeclaration.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( StringLiteral node ) {
+        for( int i : visitorsOf( StringLiteral.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( StringLiteral node ) {
+        for( int i : endVisitorsOf( StringLiteral.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( SuperConstructorInvocation node ) {
+        for( int i : visitorsOf( SuperConstructorInvocation.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( SuperConstructorInvocation node ) {
+        for( int i : endVisitorsOf( SuperConstructorInvocation.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( SuperFieldAccess node ) {
+        for( int i : visitorsOf( SuperFieldAccess.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( SuperFieldAccess node ) {
+        for( int i : endVisitorsOf( SuperFieldAccess.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( SuperMethodInvocation node ) {
+        for( int i : visitorsOf( SuperMethodInvocation.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( SuperMethodInvocation node ) {
+        for( int i : endVisitorsOf( SuperMethodInvocation.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( SwitchCase node ) {
+        for( int i : visitorsOf( SwitchCase.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( SwitchCase node ) {
+        for( int i : endVisitorsOf( SwitchCase.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( SwitchStatement node ) {
+        for( int i : visitorsOf( SwitchStatement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( SwitchStatement node ) {
+        for( int i : endVisitorsOf( SwitchStatement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( SynchronizedStatement node ) {
+        for( int i : visitorsOf( SynchronizedStatement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( SynchronizedStatement node ) {
+        for( int i : endVisitorsOf( SynchronizedStatement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( TagElement node ) {
+        for( int i : visitorsOf( TagElement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( TagElement node ) {
+        for( int i : endVisitorsOf( TagElement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( TextElement node ) {
+        for( int i : visitorsOf( TextElement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( TextElement node ) {
+        for( int i : endVisitorsOf( TextElement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( ThisExpression node ) {
+        for( int i : visitorsOf( ThisExpression.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( ThisExpression node ) {
+        for( int i : endVisitorsOf( ThisExpression.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( ThrowStatement node ) {
+        for( int i : visitorsOf( ThrowStatement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( ThrowStatement node ) {
+        for( int i : endVisitorsOf( ThrowStatement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( TryStatement node ) {
+        for( int i : visitorsOf( TryStatement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( TryStatement node ) {
+        for( int i : endVisitorsOf( TryStatement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( TypeDeclaration node ) {
+        for( int i : visitorsOf( TypeDeclaration.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( TypeDeclaration node ) {
+        for( int i : endVisitorsOf( TypeDeclaration.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( TypeDeclarationStatement node ) {
+        for( int i : visitorsOf( TypeDeclarationStatement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( TypeDeclarationStatement node ) {
+        for( int i : endVisitorsOf( TypeDeclarationStatement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( TypeLiteral node ) {
+        for( int i : visitorsOf( TypeLiteral.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( TypeLiteral node ) {
+        for( int i : endVisitorsOf( TypeLiteral.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( TypeParameter node ) {
+        for( int i : visitorsOf( TypeParameter.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( TypeParameter node ) {
+        for( int i : endVisitorsOf( TypeParameter.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( VariableDeclarationExpression node ) {
+        for( int i : visitorsOf( VariableDeclarationExpression.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( VariableDeclarationExpression node ) {
+        for( int i : endVisitorsOf( VariableDeclarationExpression.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( VariableDeclarationStatement node ) {
+        for( int i : visitorsOf( VariableDeclarationStatement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( VariableDeclarationStatement node ) {
+        for( int i : endVisitorsOf( VariableDeclarationStatement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( VariableDeclarationFragment node ) {
+        for( int i : visitorsOf( VariableDeclarationFragment.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( VariableDeclarationFragment node ) {
+        for( int i : endVisitorsOf( VariableDeclarationFragment.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( WhileStatement node ) {
+        for( int i : visitorsOf( WhileStatement.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( WhileStatement node ) {
+        for( int i : endVisitorsOf( WhileStatement.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    @Override
+    public boolean visit( WildcardType node ) {
+        for( int i : visitorsOf( WildcardType.class ) ) {
+            if( isActive( i ) && !visitors[i].visit( node ) ) {
+                suspend( i, node );
+            }
+        }
+        return hasActiveVisitors();
+    }
+
+    @Override
+    public void endVisit( WildcardType node ) {
+        for( int i : endVisitorsOf( WildcardType.class ) ) {
+            if( isEndVisitedAt( i, node ) ) {
+                visitors[i].endVisit( node );
+            }
+        }
+    }
+
+    // internal
+    // ////////
+
+    private boolean isActive( int i ) {
+        return suspendedAt[i] == null;
+    }
+
+    private boolean hasActiveVisitors() {
+        return activeVisitors > 0;
+    }
+
+    private void suspend( int i, ASTNode node ) {
+        suspendedAt[i] = node;
+        activeVisitors--;
+    }
+
+    private boolean isEndVisitedAt( int i, ASTNode node ) {
+        return isActive( i ) || (suspendedAt[i] == node && !suspendedByPreVisit[i]);
+    }
+
+    private void resumeVisitorsSuspendedAt( ASTNode node ) {
+        for( int i = 0; i < visitors.length; i++ ) {
+            if( suspendedAt[i] == node ) {
+                suspendedAt[i] = null;
+                suspendedByPreVisit[i] = false;
+                activeVisitors++;
+            }
+        }
+    }
+
+    private int[] visitorsOf( Class<? extends ASTNode> nodeType ) {
+        int[] result = visitorsByNodeType.get( nodeType );
+        if( result == null ) {
+            // the inherited visit(Javadoc) answers visitDocTags, which may be false and therefore has to be asked
+            result = nodeType == Javadoc.class ? allVisitors() : visitorsOverriding( nodeType, VISIT );
+            visitorsByNodeType.put( nodeType, result );
+        }
+        return result;
+    }
+
+    private int[] endVisitorsOf( Class<? extends ASTNode> nodeType ) {
+        int[] result = endVisitorsByNodeType.get( nodeType );
+        if( result == null ) {
+            result = visitorsOverriding( nodeType, END_VISIT );
+            endVisitorsByNodeType.put( nodeType, result );
+        }
+        return result;
+    }
+
+    private int[] allVisitors() {
+        int[] result = new int[visitors.length];
+        for( int i = 0; i < result.length; i++ ) {
+            result[i] = i;
+        }
+        return result;
+    }
+
+    private int[] visitorsOverriding( Class<?> parameterType, String... methodNames ) {
+        List<Integer> result = new ArrayList<Integer>();
+        for( int i = 0; i < visitors.length; i++ ) {
+            if( overridesAnyOf( visitors[i].getClass(), parameterType, methodNames ) ) {
+                result.add( Integer.valueOf( i ) );
+            }
+        }
+        return Ints.toArray( result );
+    }
+
+    private static boolean overridesAnyOf( Class<?> visitorType, Class<?> parameterType, String... methodNames ) {
+        for( String methodName : methodNames ) {
+            if( overrides( visitorType, methodName, parameterType ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean overrides( Class<?> visitorType, String methodName, Class<?> parameterType ) {
+        List<Object> key = Arrays.<Object> asList( visitorType, methodName, parameterType );
+        Boolean result = overriddenMethods.get( key );
+        if( result == null ) {
+            result = Boolean.valueOf( declaringClassOf( visitorType, methodName, parameterType ) != ASTVisitor.class );
+            overriddenMethods.put( key, result );
+        }
+        return result.booleanValue();
+    }
+
+    private static Class<?> declaringClassOf( Class<?> visitorType, String methodName, Class<?> parameterType ) {
+        try {
+            return visitorType.getMethod( methodName, parameterType ).getDeclaringClass();
+        } catch( NoSuchMethodException nsmex ) {
+            // rather dispatch once too often than lose a call
+            return visitorType;
+        }
+    }
+}
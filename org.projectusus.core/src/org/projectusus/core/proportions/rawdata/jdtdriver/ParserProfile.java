@@ -0,0 +1,44 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.core.proportions.rawdata.jdtdriver;
+
+import static org.projectusus.core.metrics.ParserRequirement.BINDINGS;
+import static org.projectusus.core.metrics.ParserRequirement.METHOD_BODIES;
+import static org.projectusus.core.metrics.ParserRequirement.STATEMENTS_RECOVERY;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.projectusus.core.metrics.MetricsCollector;
+import org.projectusus.core.metrics.ParserRequirement;
+
+/**
+ * the cheapest parser configuration which still satisfies the requirements of all given collectors.
+ */
+class ParserProfile {
+
+    private final Set<ParserRequirement> requirements = EnumSet.noneOf( ParserRequirement.class );
+
+    ParserProfile( Set<MetricsCollector> metricsExtensions ) {
+        for( MetricsCollector collector : metricsExtensions ) {
+            requirements.addAll( collector.getParserRequirements() );
+        }
+    }
+
+    boolean requires( ParserRequirement requirement ) {
+        return requirements.contains( requirement );
+    }
+
+    void configure( ASTParser parser, IJavaProject project ) {
+        parser.setResolveBindings( requires( BINDINGS ) );
+        parser.setIgnoreMethodBodies( !requires( METHOD_BODIES ) );
+        parser.setStatementsRecovery( requires( STATEMENTS_RECOVERY ) );
+        if( requires( BINDINGS ) ) {
+            parser.setProject( project );
+        }
+    }
+}
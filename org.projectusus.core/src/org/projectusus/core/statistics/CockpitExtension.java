@@ -61,7 +61,14 @@ public abstract class CockpitExtension extends DefaultMetricsResultVisitor imple
     }
 
     protected void addResult( SourceCodeLocation location, int count ) {
-        incrementState( count, new FileHotspot( location, count, currentFile ) );
+        addResult( currentFile, location, count );
+    }
+
+    /**
+     * for results not reached through <code>inspectFile</code>, e.g. methods inspected column by column.
+     */
+    protected void addResult( IFile file, SourceCodeLocation location, int count ) {
+        incrementState( count, new FileHotspot( location, count, file ) );
     }
 
     protected void addResult( Packagename pkg, int count, Set<ClassDescriptor> set ) {
@@ -116,6 +123,18 @@ public abstract class CockpitExtension extends DefaultMetricsResultVisitor imple
         return new CodeProportion( getLabel(), getDescription(), getTooltip(), getViolations(), getBasisStatistic(), getAverage(), getHotspots(), getHistogram(), getLocationType() );
     }
 
+    /**
+     * whether this extension navigates the class relations, e.g. via {@link ClassDescriptor} or {@link Packagename}. Those are not part of
+     * the raw data snapshot the extension visits, so such extensions are run while no raw data can be written. This is the default, as it is
+     * safe for any extension; one which reads the raw data only may return <code>false</code> and run without keeping writers waiting.
+     * <p>
+     * Note that a locked extension sees the raw data of the snapshot but the relations as they are now. While files are computed, relations
+     * may already reflect files whose raw data is not yet in the snapshot, so the two may disagree until the run is finished.
+     */
+    protected boolean readsClassRelations() {
+        return true;
+    }
+
     protected LocationType getLocationType() {
         return LocationType.PATH;
     }
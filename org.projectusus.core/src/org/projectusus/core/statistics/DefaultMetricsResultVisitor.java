@@ -3,6 +3,7 @@ package org.projectusus.core.statistics;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.projectusus.core.IMetricsResultVisitor;
+import org.projectusus.core.IMetricsSnapshot;
 import org.projectusus.core.basis.JavaModelPath;
 import org.projectusus.core.basis.MetricsResults;
 import org.projectusus.core.basis.SourceCodeLocation;
@@ -61,6 +62,13 @@ public abstract class DefaultMetricsResultVisitor implements IMetricsResultVisit
         UsusModelProvider.acceptAndGuide( this );
     }
 
+    /**
+     * visits the given version of the raw data, without waiting for a running computation.
+     */
+    public void visit( IMetricsSnapshot snapshot ) {
+        snapshot.acceptAndGuide( this );
+    }
+
     public String getLabel() {
         return ""; //$NON-NLS-1$
     }
@@ -4,17 +4,21 @@
 // See http://www.eclipse.org/legal/epl-v10.html for details.
 package org.projectusus.core.statistics;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.SafeRunner;
+import org.projectusus.core.IFileMetricsWriter;
 import org.projectusus.core.IMetricsResultVisitor;
+import org.projectusus.core.IMetricsSnapshot;
 import org.projectusus.core.IMetricsWriter;
 import org.projectusus.core.IUsusModel;
 import org.projectusus.core.IUsusModelForAdapter;
@@ -27,15 +31,18 @@ import org.projectusus.core.filerelations.model.ClassDescriptorCleanup;
 import org.projectusus.core.filerelations.model.Packagename;
 import org.projectusus.core.internal.proportions.model.UsusModelCache;
 import org.projectusus.core.internal.proportions.rawdata.MetricsAccessor;
+import org.projectusus.core.internal.proportions.rawdata.RawDataCache;
 
 class UsusModel implements IUsusModel, IUsusModelForAdapter {
 
+    private static final String RAW_DATA_CACHE = "rawdata.bin"; //$NON-NLS-1$
     private static UsusModel instance = new UsusModel( new ASTNodeHelper() );
 
     private final Set<IUsusModelListener> listeners;
-    private UsusModelCache cache;
+    private volatile UsusModelCache cache;
     private final MetricsAccessor metrics;
     private boolean needsFullRecompute;
+    private boolean untouched;
 
     public static UsusModel ususModel() {
         return instance;
@@ -46,6 +53,7 @@ class UsusModel implements IUsusModel, IUsusModelForAdapter {
         listeners = new HashSet<IUsusModelListener>();
         metrics = new MetricsAccessor( converter );
         needsFullRecompute = true;
+        untouched = true;
     }
 
     // //////////////////////////////////
@@ -55,45 +63,136 @@ class UsusModel implements IUsusModel, IUsusModelForAdapter {
     }
 
     public void updateAfterComputationRun( boolean computationSuccessful, IProgressMonitor monitor ) {
+        untouched = false;
         needsFullRecompute = !computationSuccessful;
         metrics.cleanupRelations( monitor );
-        runStatisticsExtensions();
+        metrics.publishSnapshot();
+        runStatisticsExtensions( false );
         notifyListeners();
     }
 
-    private void runStatisticsExtensions() {
-        cache = new UsusModelCache();
+    public void updateDuringComputationRun() {
+        metrics.publishSnapshot();
+        runStatisticsExtensions( true );
+        notifyListeners();
+    }
+
+    // all extensions visit the same snapshot; only those reading class relations keep writers waiting
+    private void runStatisticsExtensions( boolean partial ) {
+        final IMetricsSnapshot snapshot = metrics.getSnapshot();
+        final UsusModelCache newCache = new UsusModelCache( partial );
         for( final CockpitExtension cockpitExtension : RegisteredCockpitExtensionsCollector.getEnabled() ) {
+            final Runnable computation = new Runnable() {
+                public void run() {
+                    cockpitExtension.visit( snapshot );
+                    newCache.refresh( cockpitExtension.getCodeProportion() );
+                }
+            };
             ISafeRunnable runnable = new ISafeRunnable() {
                 public void handleException( Throwable exception ) {
                     UsusCorePlugin.log( exception );
                 }
 
                 public void run() throws Exception {
-                    cockpitExtension.visit();
-                    cache.refresh( cockpitExtension.getCodeProportion() );
+                    if( cockpitExtension.readsClassRelations() ) {
+                        metrics.runExclusively( computation );
+                    } else {
+                        computation.run();
+                    }
                 }
             };
             SafeRunner.run( runnable );
         }
+        cache = newCache;
     }
 
     public void dropRawData( IProject project ) {
+        untouched = false;
         metrics.dropRawData( project );
     }
 
     public void dropRawData( IFile file ) {
+        untouched = false;
         metrics.dropRawData( file );
     }
 
+    public boolean restoreRawData() {
+        RawDataCache savedData = rawDataCache();
+        if( !untouched || savedData == null ) {
+            return false;
+        }
+        untouched = false;
+        try {
+            if( metrics.restoreFrom( savedData ) ) {
+                metrics.publishSnapshot();
+                needsFullRecompute = false;
+                return true;
+            }
+        } catch( IOException ioex ) {
+            UsusCorePlugin.log( ioex );
+            clearRelations();
+        }
+        return false;
+    }
+
+    public void saveRawData() {
+        RawDataCache savedData = rawDataCache();
+        if( untouched || savedData == null ) {
+            return;
+        }
+        try {
+            metrics.saveTo( savedData );
+        } catch( IOException ioex ) {
+            UsusCorePlugin.log( ioex );
+            savedData.delete();
+        }
+    }
+
+    private static RawDataCache rawDataCache() {
+        UsusCorePlugin plugin = UsusCorePlugin.getDefault();
+        if( plugin == null ) {
+            return null;
+        }
+        return new RawDataCache( plugin.getStateLocation().append( RAW_DATA_CACHE ).toFile(), ResourcesPlugin.getWorkspace().getRoot() );
+    }
+
+    public void setSummaryMode( boolean summaryMode ) {
+        metrics.setSummaryMode( summaryMode );
+    }
+
+    public void startRelationsBulkLoad() {
+        ClassDescriptor.startBulkLoad();
+    }
+
+    public void finishRelationsBulkLoad() {
+        ClassDescriptor.finishBulkLoad();
+    }
+
+    public String getFingerprint( IFile file ) {
+        return metrics.getFingerprint( file );
+    }
+
+    public void setFingerprint( IFile file, String fingerprint ) {
+        metrics.setFingerprint( file, fingerprint );
+    }
+
     public void acceptAndGuide( IMetricsResultVisitor visitor ) {
         metrics.acceptAndGuide( visitor );
     }
 
+    public IMetricsSnapshot getSnapshot() {
+        return metrics.getSnapshot();
+    }
+
     public IMetricsWriter getMetricsWriter() {
         return metrics;
     }
 
+    public IFileMetricsWriter getMetricsWriter( IFile file ) {
+        untouched = false;
+        return metrics.getMetricsWriter( file );
+    }
+
     // interface of IUsusModel
     // ////////////////////////
 
@@ -101,6 +200,10 @@ class UsusModel implements IUsusModel, IUsusModelForAdapter {
         return cache.getEntries();
     }
 
+    public boolean hasPartialCodeProportions() {
+        return cache.isPartial();
+    }
+
     // //////////////////////////////////
 
     public void addUsusModelListener( IUsusModelListener listener ) {
@@ -126,6 +229,10 @@ class UsusModel implements IUsusModel, IUsusModelForAdapter {
 
     public static void clear( ASTNodeHelper converter ) {
         instance = new UsusModel( converter );
+        clearRelations();
+    }
+
+    private static void clearRelations() {
         ClassDescriptor.clear();
         ClassDescriptorCleanup.clear();
         Packagename.clear();
@@ -2,7 +2,10 @@ package org.projectusus.core.statistics;
 
 import net.sourceforge.c4j.ContractReference;
 
+import org.eclipse.core.resources.IFile;
+import org.projectusus.core.IFileMetricsWriter;
 import org.projectusus.core.IMetricsResultVisitor;
+import org.projectusus.core.IMetricsSnapshot;
 import org.projectusus.core.IMetricsWriter;
 import org.projectusus.core.IUsusModel;
 import org.projectusus.core.IUsusModelForAdapter;
@@ -19,6 +22,13 @@ public class UsusModelProvider {
         return UsusModel.ususModel().getMetricsWriter();
     }
 
+    /**
+     * a writer for the metrics of one file, which keeps them until it is committed and replaces the file's raw data then.
+     */
+    public static IFileMetricsWriter getMetricsWriter( IFile file ) {
+        return UsusModel.ususModel().getMetricsWriter( file );
+    }
+
     public static IUsusModelForAdapter ususModelForAdapter() {
         return UsusModel.ususModel();
     }
@@ -27,6 +37,14 @@ public class UsusModelProvider {
         UsusModel.ususModel().acceptAndGuide( visitor );
     }
 
+    /**
+     * the raw data as of the last computation run, or the last partial results published during a run. It can be read without waiting for
+     * a running computation.
+     */
+    public static IMetricsSnapshot getSnapshot() {
+        return UsusModel.ususModel().getSnapshot();
+    }
+
     public static void clear() {
         clear( new ASTNodeHelper() );
     }
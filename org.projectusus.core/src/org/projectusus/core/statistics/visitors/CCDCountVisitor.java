@@ -1,5 +1,6 @@
 package org.projectusus.core.statistics.visitors;
 
+import org.projectusus.core.IMetricsSnapshot;
 import org.projectusus.core.basis.JavaModelPath;
 import org.projectusus.core.basis.MetricsResults;
 import org.projectusus.core.basis.SourceCodeLocation;
@@ -23,6 +24,11 @@ public class CCDCountVisitor extends DefaultMetricsResultVisitor {
         return this;
     }
 
+    public CCDCountVisitor visitAndReturn( IMetricsSnapshot snapshot ) {
+        visit( snapshot );
+        return this;
+    }
+
     public int getMetricsSum() {
         return violationSum;
     }
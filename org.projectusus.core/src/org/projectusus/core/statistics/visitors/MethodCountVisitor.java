@@ -1,5 +1,6 @@
 package org.projectusus.core.statistics.visitors;
 
+import org.projectusus.core.IMetricsSnapshot;
 import org.projectusus.core.basis.JavaModelPath;
 import org.projectusus.core.basis.MetricsResults;
 import org.projectusus.core.basis.SourceCodeLocation;
@@ -30,4 +31,9 @@ public class MethodCountVisitor extends DefaultMetricsResultVisitor {
         super.visit();
         return this;
     }
+
+    public MethodCountVisitor visitAndReturn( IMetricsSnapshot snapshot ) {
+        super.visit( snapshot );
+        return this;
+    }
 }
@@ -2,6 +2,7 @@ package org.projectusus.core.statistics.visitors;
 
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.JavaModelException;
+import org.projectusus.core.IMetricsSnapshot;
 import org.projectusus.core.basis.JavaModelPath;
 import org.projectusus.core.basis.MetricsResults;
 import org.projectusus.core.basis.SourceCodeLocation;
@@ -33,4 +34,9 @@ public class MethodVisitor extends DefaultMetricsResultVisitor {
         super.visit();
         return this;
     }
+
+    public MethodVisitor visitAndReturn( IMetricsSnapshot snapshot ) {
+        super.visit( snapshot );
+        return this;
+    }
 }
@@ -0,0 +1,98 @@
+package org.projectusus.core.basis.test;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.projectusus.core.basis.MetricKeys;
+import org.projectusus.core.basis.MetricsResults;
+
+public class MetricsResultsTest {
+
+    private MetricsResults results;
+
+    @Before
+    public void setup() {
+        results = new MetricsResults();
+    }
+
+    @Test
+    public void emptyResultsUseDefaults() {
+        assertEquals( 0, results.getIntValue( MetricsResults.CC ) );
+        assertEquals( 1, results.getIntValue( MetricsResults.CC, 1 ) );
+        assertNull( results.get( MetricsResults.CC ) );
+        assertNull( results.get( "never written" ) );
+        assertTrue( results.getKeys().isEmpty() );
+    }
+
+    @Test
+    public void intValues() {
+        results.put( MetricsResults.CC, 3 );
+        results.put( MetricsResults.ML, Integer.valueOf( 12 ) );
+
+        assertEquals( 3, results.getIntValue( MetricsResults.CC ) );
+        assertEquals( 12, results.getIntValue( MetricsResults.ML, 1 ) );
+        assertEquals( Integer.valueOf( 3 ), results.get( MetricsResults.CC ) );
+        assertEquals( new HashSet<String>( asList( MetricsResults.CC, MetricsResults.ML ) ), results.getKeys() );
+    }
+
+    @Test
+    public void objectValues() {
+        List<Integer> trainWrecks = asList( Integer.valueOf( 2 ), Integer.valueOf( 5 ) );
+        results.put( MetricsResults.TRAIN_WRECKS, trainWrecks );
+        results.put( MetricsResults.ABSTRACTNESS, Double.valueOf( 0.5 ) );
+
+        assertEquals( trainWrecks, results.get( MetricsResults.TRAIN_WRECKS ) );
+        assertEquals( Double.valueOf( 0.5 ), results.get( MetricsResults.ABSTRACTNESS ) );
+        assertEquals( 2, results.getKeys().size() );
+    }
+
+    @Test
+    public void valueMayChangeItsKind() {
+        results.put( MetricsResults.CCD, "text" );
+        results.put( MetricsResults.CCD, 4 );
+
+        assertEquals( Integer.valueOf( 4 ), results.get( MetricsResults.CCD ) );
+
+        results.put( MetricsResults.CCD, "text" );
+
+        assertEquals( "text", results.get( MetricsResults.CCD ) );
+    }
+
+    @Test
+    public void writingNullRemoves() {
+        results.put( MetricsResults.CC, 3 );
+
+        results.put( MetricsResults.CC, null );
+
+        assertNull( results.get( MetricsResults.CC ) );
+        assertEquals( 1, results.getIntValue( MetricsResults.CC, 1 ) );
+        assertTrue( results.getKeys().isEmpty() );
+    }
+
+    @Test
+    public void manyKeys() {
+        for( int index = 0; index < 100; index++ ) {
+            results.put( "key" + index, index );
+        }
+
+        assertEquals( 100, results.getKeys().size() );
+        assertEquals( 99, results.getIntValue( "key99" ) );
+    }
+
+    @Test
+    public void keysKeepTheirIds() {
+        int id = MetricKeys.idOf( "some key" );
+
+        assertEquals( id, MetricKeys.idOf( "some key" ) );
+        assertEquals( id, MetricKeys.lookup( "some key" ) );
+        assertEquals( "some key", MetricKeys.keyOf( id ) );
+        assertEquals( MetricKeys.UNKNOWN, MetricKeys.lookup( "no such key" ) );
+    }
+}
@@ -0,0 +1,89 @@
+package org.projectusus.core.basis.test;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.projectusus.core.basis.MetricsResults;
+import org.projectusus.core.basis.MetricsTable;
+
+public class MetricsTableTest {
+
+    private MetricsTable table;
+
+    @Before
+    public void setup() {
+        table = new MetricsTable();
+    }
+
+    @Test
+    public void rowsAreNumberedInOrder() {
+        assertEquals( 0, table.add( results( 3, 10 ) ) );
+        assertEquals( 1, table.add( results( 5, 20 ) ) );
+        assertEquals( 2, table.size() );
+    }
+
+    @Test
+    public void rowsKeepTheirValues() {
+        table.add( results( 3, 10 ) );
+        table.add( results( 5, 20 ) );
+
+        MetricsResults second = table.get( 1 );
+
+        assertEquals( 5, second.getIntValue( MetricsResults.CC ) );
+        assertEquals( 20, second.getIntValue( MetricsResults.ML ) );
+        assertEquals( 20, table.getIntValue( 1, MetricsResults.ML, 0 ) );
+    }
+
+    @Test
+    public void missingValuesStayMissing() {
+        MetricsResults withoutLength = new MetricsResults();
+        withoutLength.put( MetricsResults.CC, 4 );
+        table.add( results( 3, 10 ) );
+        table.add( withoutLength );
+
+        assertNull( table.get( 1 ).get( MetricsResults.ML ) );
+        assertArrayEquals( new int[] { 10, -1 }, table.getColumn( MetricsResults.ML, -1 ) );
+        assertArrayEquals( new int[] { 0, 0 }, table.getColumn( "unknown key", 0 ) );
+    }
+
+    @Test
+    public void otherValuesAreKept() {
+        List<Integer> trainWrecks = asList( Integer.valueOf( 2 ), Integer.valueOf( 5 ) );
+        MetricsResults results = results( 1, 1 );
+        results.put( MetricsResults.TRAIN_WRECKS, trainWrecks );
+        table.add( results( 1, 1 ) );
+        table.add( results );
+
+        assertNull( table.get( 0 ).get( MetricsResults.TRAIN_WRECKS ) );
+        assertEquals( trainWrecks, table.get( 1 ).get( MetricsResults.TRAIN_WRECKS ) );
+    }
+
+    @Test
+    public void manyRowsAfterTrimming() {
+        for( int index = 0; index < 200; index++ ) {
+            table.add( results( index, 2 * index ) );
+        }
+        table.trimToSize();
+
+        assertEquals( 199, table.get( 199 ).getIntValue( MetricsResults.CC ) );
+        assertEquals( 130, table.getColumn( MetricsResults.ML, 0 )[65] );
+    }
+
+    @Test( expected = IndexOutOfBoundsException.class )
+    public void rowOutOfRange() {
+        table.get( 0 );
+    }
+
+    private MetricsResults results( int cc, int ml ) {
+        MetricsResults result = new MetricsResults();
+        result.put( MetricsResults.CC, cc );
+        result.put( MetricsResults.ML, ml );
+        return result;
+    }
+}
@@ -0,0 +1,51 @@
+package org.projectusus.core.basis.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.projectusus.core.basis.Names;
+import org.projectusus.core.basis.SourceCodeLocation;
+
+public class SourceCodeLocationTest {
+
+    @Test
+    public void classLocation() {
+        SourceCodeLocation location = new SourceCodeLocation( "Sample", 10, 20, 3 );
+
+        assertEquals( "Sample", location.getName() );
+        assertEquals( "Sample", location.getSimpleName() );
+        assertNull( location.getOwnerName() );
+        assertEquals( 10, location.getSourcePosition() );
+        assertEquals( 20, location.getSourceLength() );
+        assertEquals( 3, location.getLineNumber() );
+    }
+
+    @Test
+    public void methodLocationIsNamedAfterItsClass() {
+        SourceCodeLocation location = SourceCodeLocation.ofMethod( "Sample", "run", 15, 5, 4 );
+
+        assertEquals( "Sample.run()", location.getName() );
+        assertEquals( "run", location.getSimpleName() );
+        assertEquals( "Sample", location.getOwnerName() );
+    }
+
+    @Test
+    public void namesAreKeptOnce() {
+        int id = Names.idOf( new String( "shared" ) );
+
+        assertEquals( id, Names.idOf( new String( "shared" ) ) );
+        assertEquals( "shared", Names.nameOf( id ) );
+    }
+
+    @Test
+    public void nameTableGrows() {
+        int first = Names.idOf( "grows0" );
+        for( int index = 1; index < 3000; index++ ) {
+            Names.idOf( "grows" + index );
+        }
+
+        assertEquals( "grows0", Names.nameOf( first ) );
+        assertEquals( "grows2999", Names.nameOf( Names.idOf( "grows2999" ) ) );
+    }
+}
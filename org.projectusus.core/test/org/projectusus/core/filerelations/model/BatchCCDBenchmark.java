@@ -0,0 +1,112 @@
+package org.projectusus.core.filerelations.model;
+
+import java.util.Random;
+
+/**
+ * Compares walking the class graph from each class (as the CCD used to be computed) with the batch computation in {@link BatchCCD}, on
+ * synthetic class graphs. Not part of the test suite; run it as a Java application.
+ * <p>
+ * The graphs are layered like real code: most references go to classes created earlier, and a few go back up, so that there are cycles of
+ * a few classes each. The walks from each class are skipped for the larger graphs, where they take minutes.
+ */
+public class BatchCCDBenchmark {
+
+    private static final int[] CLASS_COUNTS = { 10000, 50000, 100000, 250000, 500000 };
+    private static final int MAX_CLASSES_FOR_WALKS = 50000;
+    private static final int REFERENCES_PER_CLASS = 8;
+    private static final int BACK_REFERENCES_PER_THOUSAND = 10;
+    private static final int BACK_REFERENCE_DISTANCE = 50;
+    private static final int ROUNDS = 3;
+
+    public static void main( String[] args ) {
+        for( int classCount : CLASS_COUNTS ) {
+            new BatchCCDBenchmark( classCount ).run();
+        }
+    }
+
+    private final int classCount;
+    private final ClassGraph graph = new ClassGraph();
+    private int relationCount;
+
+    private BatchCCDBenchmark( int classCount ) {
+        this.classCount = classCount;
+        Random random = new Random( classCount );
+        for( int index = 0; index < classCount; index++ ) {
+            graph.add( null );
+        }
+        for( int source = 1; source < classCount; source++ ) {
+            for( int reference = 0; reference < REFERENCES_PER_CLASS; reference++ ) {
+                addRelation( source, random.nextInt( source ) );
+            }
+            if( random.nextInt( 1000 ) < BACK_REFERENCES_PER_THOUSAND ) {
+                addRelation( source, Math.min( classCount - 1, source + 1 + random.nextInt( BACK_REFERENCE_DISTANCE ) ) );
+            }
+        }
+    }
+
+    private void run() {
+        int[] rowStarts = rowStarts();
+        int[] rowIds = rowIds();
+        long batch = Long.MAX_VALUE;
+        long sum = 0;
+        for( int round = 0; round < ROUNDS; round++ ) {
+            long start = System.nanoTime();
+            sum = sumOf( new BatchCCD( classCount, rowStarts, rowIds ).compute() );
+            batch = Math.min( batch, System.nanoTime() - start );
+        }
+        String message = "%7d classes, %8d relations: batch %9.1f ms"; //$NON-NLS-1$
+        System.out.print( String.format( message, Integer.valueOf( classCount ), Integer.valueOf( relationCount ), Double.valueOf( batch / 1e6 ) ) );
+        if( classCount <= MAX_CLASSES_FOR_WALKS ) {
+            long start = System.nanoTime();
+            long walkedSum = walkFromEach();
+            long walks = System.nanoTime() - start;
+            String walkMessage = ", walks from each class %9.1f ms, speedup %.1fx%s"; //$NON-NLS-1$
+            System.out.print( String.format( walkMessage, Double.valueOf( walks / 1e6 ), Double.valueOf( (double)walks / batch ),
+                    walkedSum == sum ? "" : " (different sums!)" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        System.out.println( String.format( ", ACD %.2f%%", Double.valueOf( 100.0 * sum / classCount / classCount ) ) ); //$NON-NLS-1$
+    }
+
+    private void addRelation( int source, int target ) {
+        if( graph.addRelation( source, target ) ) {
+            relationCount++;
+        }
+    }
+
+    private int[] rowStarts() {
+        int[] result = new int[classCount + 1];
+        for( int id = 0; id < classCount; id++ ) {
+            result[id + 1] = result[id] + graph.getChildren( id ).length;
+        }
+        return result;
+    }
+
+    private int[] rowIds() {
+        int[] result = new int[relationCount];
+        int count = 0;
+        for( int id = 0; id < classCount; id++ ) {
+            for( int child : graph.getChildren( id ) ) {
+                result[count++] = child;
+            }
+        }
+        return result;
+    }
+
+    // every pair of a class and a class reachable from it is counted once either way, so the sums of the CCDs and of the transitive parent
+    // counts are the same; the parent count is the walk the CCD used to be
+    private long walkFromEach() {
+        long result = 0;
+        for( int id = 0; id < classCount; id++ ) {
+            result += graph.getTransitiveParentCount( id );
+        }
+        return result;
+    }
+
+    private static long sumOf( int[] values ) {
+        long result = 0;
+        for( int value : values ) {
+            result += value;
+        }
+        return result;
+    }
+}
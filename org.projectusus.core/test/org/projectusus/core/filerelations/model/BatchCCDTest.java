@@ -0,0 +1,120 @@
+package org.projectusus.core.filerelations.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BatchCCDTest {
+
+    @Test
+    public void noClasses() {
+        assertArrayEquals( new int[0], new BatchCCD( 0, new int[] { 0 }, new int[0] ).compute() );
+    }
+
+    @Test
+    public void chain() {
+        int[][] children = { { 1 }, { 2 }, {} };
+
+        assertArrayEquals( new int[] { 3, 2, 1 }, compute( children ) );
+    }
+
+    @Test
+    public void classesInACycleShareTheirCCD() {
+        int[][] children = { { 1 }, { 2 }, { 0, 3 }, {}, { 0 } };
+
+        assertArrayEquals( new int[] { 4, 4, 4, 1, 5 }, compute( children ) );
+    }
+
+    @Test
+    public void diamondIsCountedOnce() {
+        int[][] children = { { 1, 2 }, { 3 }, { 3 }, {} };
+
+        assertArrayEquals( new int[] { 4, 2, 2, 1 }, compute( children ) );
+    }
+
+    @Test
+    public void randomGraphsInOneBlockAndInMany() {
+        Random random = new Random( 4711 );
+        for( int round = 0; round < 20; round++ ) {
+            int[][] children = randomGraph( random, 50 + random.nextInt( 300 ) );
+            int[] expected = walkFromEach( children );
+
+            assertArrayEquals( expected, compute( children ) );
+            assertArrayEquals( expected, compute( children, 1 ) );
+        }
+    }
+
+    @Test
+    public void graphFindsAllCCDsInOneBatch() {
+        ClassGraph graph = new ClassGraph();
+        int count = 1000;
+        for( int index = 0; index < count; index++ ) {
+            graph.add( null );
+        }
+        for( int index = 1; index < count; index++ ) {
+            graph.addRelation( index, index - 1 );
+        }
+        graph.addRelation( 0, 9 );
+
+        for( int index = 0; index < count; index++ ) {
+            assertEquals( Math.max( 10, index + 1 ), graph.getCCD( index ) );
+        }
+    }
+
+    private int[] compute( int[][] children ) {
+        return compute( children, 1 << 22 );
+    }
+
+    private int[] compute( int[][] children, int maxWords ) {
+        int[] rowStarts = new int[children.length + 1];
+        List<Integer> ids = new ArrayList<Integer>();
+        for( int node = 0; node < children.length; node++ ) {
+            for( int child : children[node] ) {
+                ids.add( Integer.valueOf( child ) );
+            }
+            rowStarts[node + 1] = ids.size();
+        }
+        int[] rowIds = new int[ids.size()];
+        for( int index = 0; index < rowIds.length; index++ ) {
+            rowIds[index] = ids.get( index ).intValue();
+        }
+        return new BatchCCD( children.length, rowStarts, rowIds, maxWords ).compute();
+    }
+
+    private int[][] randomGraph( Random random, int nodeCount ) {
+        int[][] result = new int[nodeCount][];
+        for( int node = 0; node < nodeCount; node++ ) {
+            result[node] = new int[random.nextInt( 3 )];
+            for( int edge = 0; edge < result[node].length; edge++ ) {
+                result[node][edge] = random.nextInt( nodeCount );
+            }
+        }
+        return result;
+    }
+
+    private int[] walkFromEach( int[][] children ) {
+        int[] result = new int[children.length];
+        for( int start = 0; start < children.length; start++ ) {
+            boolean[] seen = new boolean[children.length];
+            List<Integer> open = new ArrayList<Integer>();
+            open.add( Integer.valueOf( start ) );
+            seen[start] = true;
+            while( !open.isEmpty() ) {
+                int node = open.remove( open.size() - 1 ).intValue();
+                result[start]++;
+                for( int child : children[node] ) {
+                    if( !seen[child] ) {
+                        seen[child] = true;
+                        open.add( Integer.valueOf( child ) );
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
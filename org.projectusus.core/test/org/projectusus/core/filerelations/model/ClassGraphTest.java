@@ -0,0 +1,150 @@
+package org.projectusus.core.filerelations.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClassGraphTest {
+
+    private ClassGraph graph;
+
+    @Before
+    public void setup() {
+        graph = new ClassGraph();
+    }
+
+    @Test
+    public void relationsAreKnownInBothDirections() {
+        int source = graph.add( null );
+        int target = graph.add( null );
+
+        assertTrue( graph.addRelation( source, target ) );
+
+        assertArrayEquals( new int[] { target }, graph.getChildren( source ) );
+        assertArrayEquals( new int[] { source }, graph.getParents( target ) );
+        assertTrue( graph.containsRelation( source, target ) );
+        assertFalse( graph.containsRelation( target, source ) );
+    }
+
+    @Test
+    public void relationsAreAddedOnce() {
+        int source = graph.add( null );
+        int target = graph.add( null );
+        graph.addRelation( source, target );
+
+        assertFalse( graph.addRelation( source, target ) );
+        assertFalse( graph.addRelation( source, source ) );
+        assertEquals( 1, graph.getChildren( source ).length );
+    }
+
+    @Test
+    public void removedChildrenAreGoneInBothDirections() {
+        int source = graph.add( null );
+        int target = graph.add( null );
+        graph.addRelation( source, target );
+
+        graph.removeChildren( source );
+
+        assertEquals( 0, graph.getChildren( source ).length );
+        assertEquals( 0, graph.getParents( target ).length );
+        assertEquals( 1, graph.getCCD( source ) );
+    }
+
+    @Test
+    public void idOfRemovedClassIsReusedWithoutRelations() {
+        int source = graph.add( null );
+        int target = graph.add( null );
+        graph.addRelation( source, target );
+
+        graph.remove( target );
+        int newTarget = graph.add( null );
+
+        assertEquals( target, newTarget );
+        assertEquals( 0, graph.getParents( newTarget ).length );
+        assertEquals( 0, graph.getChildren( source ).length );
+    }
+
+    @Test
+    public void ccdFollowsChanges() {
+        int first = graph.add( null );
+        int second = graph.add( null );
+        int third = graph.add( null );
+        graph.addRelation( first, second );
+        assertEquals( 2, graph.getCCD( first ) );
+
+        graph.addRelation( second, third );
+        assertEquals( 3, graph.getCCD( first ) );
+        assertEquals( 3, graph.getTransitiveParentCount( third ) );
+
+        graph.removeParents( third );
+        assertEquals( 2, graph.getCCD( first ) );
+    }
+
+    @Test
+    public void relationsSurviveCompaction() {
+        int count = 10000;
+        for( int index = 0; index < count; index++ ) {
+            graph.add( null );
+        }
+        for( int index = 0; index < count - 1; index++ ) {
+            graph.addRelation( index, index + 1 );
+        }
+        graph.removeChildren( count / 2 );
+        graph.addRelation( count / 2, count - 1 );
+        graph.addRelation( 0, count / 2 + 1 );
+
+        assertEquals( 2, graph.getCCD( count / 2 ) );
+        assertEquals( count, graph.getCCD( 0 ) );
+        int[] children = graph.getChildren( 0 );
+        Arrays.sort( children );
+        assertArrayEquals( new int[] { 1, count / 2 + 1 }, children );
+        assertArrayEquals( new int[] { count / 2 - 1 }, graph.getParents( count / 2 ) );
+        assertEquals( count / 2 + 1, graph.getTransitiveParentCount( count / 2 ) );
+    }
+
+    @Test
+    public void ccdAskedForInBulkLoadSeesAllRelations() {
+        int first = graph.add( null );
+        int second = graph.add( null );
+        int third = graph.add( null );
+        graph.addRelation( first, second );
+        assertEquals( 2, graph.getCCD( first ) );
+
+        graph.startBulkLoad();
+        graph.addRelation( second, third );
+
+        assertEquals( 3, graph.getCCD( first ) );
+        graph.removeChildren( second );
+        assertEquals( 2, graph.getCCD( first ) );
+        graph.finishBulkLoad();
+        assertEquals( 2, graph.getCCD( first ) );
+    }
+
+    @Test
+    public void relationsLoadedInBulkAreKept() {
+        int count = 10000;
+        graph.startBulkLoad();
+        graph.startBulkLoad();
+        for( int index = 0; index < count; index++ ) {
+            graph.add( null );
+        }
+        for( int index = 0; index < count - 1; index++ ) {
+            graph.addRelation( index, index + 1 );
+        }
+        graph.finishBulkLoad();
+        graph.addRelation( count - 1, 0 );
+        graph.finishBulkLoad();
+        graph.finishBulkLoad();
+
+        assertEquals( count, graph.getCCD( count / 2 ) );
+        assertEquals( count, graph.getCCD( 0 ) );
+        assertEquals( count, graph.getCCD( count - 1 ) );
+        assertArrayEquals( new int[] { 0 }, graph.getChildren( count - 1 ) );
+    }
+}
@@ -0,0 +1,84 @@
+package org.projectusus.core.filerelations.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CountedRelationsTest {
+
+    private CountedRelations<String> relations;
+
+    @Before
+    public void setup() {
+        relations = new CountedRelations<String>();
+    }
+
+    @Test
+    public void relationIsCountedEachTimeItIsAdded() {
+        assertTrue( relations.add( "a", "b" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+        assertFalse( relations.add( "a", "b" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+        relations.add( "a", "b", 3 ); //$NON-NLS-1$ //$NON-NLS-2$
+
+        assertEquals( 5, relations.getCount( "a", "b" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals( 0, relations.getCount( "b", "a" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals( Collections.singleton( "b" ), relations.getTargets( "a" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals( Collections.singleton( "a" ), relations.getSources( "b" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    @Test
+    public void relationIsGoneWhenRemovedAsOftenAsAdded() {
+        relations.add( "a", "b" ); //$NON-NLS-1$ //$NON-NLS-2$
+        relations.add( "a", "b" ); //$NON-NLS-1$ //$NON-NLS-2$
+
+        assertFalse( relations.remove( "a", "b" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+        assertTrue( relations.contains( "a", "b" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+        assertTrue( relations.remove( "a", "b" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+
+        assertTrue( relations.isEmpty() );
+        assertTrue( relations.getSources( "b" ).isEmpty() ); //$NON-NLS-1$
+        assertFalse( relations.remove( "a", "b" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    @Test
+    public void maxCountFollowsAddsAndRemoves() {
+        assertEquals( 0, relations.getMaxCount() );
+        relations.add( "a", "b", 2 ); //$NON-NLS-1$ //$NON-NLS-2$
+        relations.add( "a", "c", 3 ); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals( 3, relations.getMaxCount() );
+
+        relations.remove( "a", "c" ); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals( 2, relations.getMaxCount() );
+        relations.remove( "a", "c" ); //$NON-NLS-1$ //$NON-NLS-2$
+        relations.remove( "a", "b" ); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals( 1, relations.getMaxCount() );
+        relations.remove( "a", "c" ); //$NON-NLS-1$ //$NON-NLS-2$
+        relations.remove( "a", "b" ); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals( 0, relations.getMaxCount() );
+    }
+
+    @Test
+    public void maxCountGrowsBeyondFirstCounts() {
+        for( int count = 0; count < 100; count++ ) {
+            relations.add( "a", "b" ); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        relations.add( "a", "c" ); //$NON-NLS-1$ //$NON-NLS-2$
+
+        assertEquals( 100, relations.getMaxCount() );
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        relations.add( "a", "b", 2 ); //$NON-NLS-1$ //$NON-NLS-2$
+        CountedRelations<String> copy = new CountedRelations<String>( relations );
+
+        relations.add( "a", "b" ); //$NON-NLS-1$ //$NON-NLS-2$
+
+        assertEquals( 2, copy.getCount( "a", "b" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals( 2, copy.getMaxCount() );
+    }
+}
@@ -0,0 +1,183 @@
+package org.projectusus.core.filerelations.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PackageGraphTest {
+
+    private static final Packagename A = Packagename.of( "a", null ); //$NON-NLS-1$
+    private static final Packagename B = Packagename.of( "b", null ); //$NON-NLS-1$
+    private static final Packagename C = Packagename.of( "c", null ); //$NON-NLS-1$
+    private static final Packagename D = Packagename.of( "d", null ); //$NON-NLS-1$
+
+    private PackageGraph graph;
+
+    @Before
+    public void setup() {
+        graph = new PackageGraph();
+    }
+
+    @Test
+    public void classRelationsAreCountedPerPackageRelation() {
+        graph.relationAdded( A, B );
+        graph.relationAdded( A, B );
+        graph.relationAdded( A, C );
+        graph.relationAdded( A, A );
+
+        CountedRelations<Packagename> crossLinks = graph.getCrossLinks();
+
+        assertEquals( setOf( B, C ), crossLinks.getTargets( A ) );
+        assertEquals( 2, crossLinks.getCount( A, B ) );
+        assertEquals( 1, crossLinks.getCount( A, C ) );
+        assertEquals( 0, crossLinks.getCount( A, A ) );
+    }
+
+    @Test
+    public void packageRelationIsGoneWithItsLastClassRelation() {
+        graph.relationAdded( A, B );
+        graph.relationAdded( A, B );
+
+        graph.relationRemoved( A, B );
+        assertEquals( 1, graph.getCrossLinks().getCount( A, B ) );
+
+        graph.relationRemoved( A, B );
+        assertTrue( graph.getCrossLinks().isEmpty() );
+    }
+
+    @Test
+    public void versionChangesWithCrossPackageRelationsOnly() {
+        int version = graph.getVersion();
+        graph.relationAdded( A, A );
+        graph.relationRemoved( A, B );
+        assertEquals( version, graph.getVersion() );
+
+        graph.relationAdded( A, B );
+        assertTrue( version != graph.getVersion() );
+    }
+
+    @Test
+    public void cycleIsFoundWhenClosed() {
+        graph.relationAdded( A, B );
+        graph.relationAdded( B, C );
+        assertTrue( graph.getCycles().isEmpty() );
+
+        graph.relationAdded( C, A );
+
+        assertCycles( graph.getCycles(), setOf( A, B, C ) );
+    }
+
+    @Test
+    public void cyclesAreMergedThroughLongerPaths() {
+        graph.relationAdded( A, B );
+        graph.relationAdded( B, A );
+        graph.relationAdded( C, D );
+        graph.relationAdded( D, C );
+        assertCycles( graph.getCycles(), setOf( A, B ), setOf( C, D ) );
+
+        graph.relationAdded( B, C );
+        graph.relationAdded( D, A );
+
+        assertCycles( graph.getCycles(), setOf( A, B, C, D ) );
+    }
+
+    @Test
+    public void cycleIsSplitWhenRelationInsideIsRemoved() {
+        graph.relationAdded( A, B );
+        graph.relationAdded( B, A );
+        graph.relationAdded( B, C );
+        graph.relationAdded( C, D );
+        graph.relationAdded( D, B );
+        assertCycles( graph.getCycles(), setOf( A, B, C, D ) );
+
+        graph.relationRemoved( B, A );
+
+        assertCycles( graph.getCycles(), setOf( B, C, D ) );
+
+        graph.relationRemoved( D, B );
+
+        assertTrue( graph.getCycles().isEmpty() );
+    }
+
+    @Test
+    public void cycleStaysWhileAnotherClassRelationIsLeft() {
+        graph.relationAdded( A, B );
+        graph.relationAdded( B, A );
+        graph.relationAdded( B, A );
+        graph.getCycles();
+
+        graph.relationRemoved( B, A );
+
+        assertCycles( graph.getCycles(), setOf( A, B ) );
+    }
+
+    @Test
+    public void manyChangesAreTakenInAtOnce() {
+        Packagename[] packages = new Packagename[40];
+        for( int index = 0; index < packages.length; index++ ) {
+            packages[index] = Packagename.of( "many" + index, null ); //$NON-NLS-1$
+        }
+        for( int index = 0; index + 1 < packages.length; index++ ) {
+            graph.relationAdded( packages[index], packages[index + 1] );
+        }
+        graph.relationAdded( packages[packages.length - 1], packages[0] );
+
+        assertCycles( graph.getCycles(), new HashSet<Packagename>( Arrays.asList( packages ) ) );
+
+        for( int index = 0; index < packages.length; index += 2 ) {
+            graph.relationAdded( packages[index + 1], packages[index] );
+        }
+        graph.relationRemoved( packages[packages.length - 1], packages[0] );
+
+        List<Set<Packagename>> cycles = graph.getCycles();
+        assertEquals( packages.length / 2, cycles.size() );
+        for( Set<Packagename> cycle : cycles ) {
+            assertEquals( 2, cycle.size() );
+        }
+    }
+
+    @Test
+    public void clearForgetsAllRelations() {
+        graph.relationAdded( A, B );
+        graph.relationAdded( B, A );
+
+        graph.clear();
+
+        assertTrue( graph.getCrossLinks().isEmpty() );
+        assertTrue( graph.getCycles().isEmpty() );
+    }
+
+    @Test
+    public void currentPackageRelationsAreSharedUntilRelationsChange() {
+        ClassDescriptor.clear();
+        ClassDescriptor a = ClassDescriptor.of( mock( IFile.class ), new Classname( "A" ), A ); //$NON-NLS-1$
+        ClassDescriptor b = ClassDescriptor.of( mock( IFile.class ), new Classname( "B" ), B ); //$NON-NLS-1$
+        PackageRelations before = PackageRelations.current();
+        assertTrue( before == PackageRelations.current() );
+
+        a.addChild( b );
+
+        PackageRelations after = PackageRelations.current();
+        assertTrue( before != after );
+        assertEquals( 1, after.getCrossLinkCount( A, B ) );
+        assertEquals( 0, before.getCrossLinkCount( A, B ) );
+        ClassDescriptor.clear();
+    }
+
+    private static Set<Packagename> setOf( Packagename... packagenames ) {
+        return new HashSet<Packagename>( Arrays.asList( packagenames ) );
+    }
+
+    private static void assertCycles( List<Set<Packagename>> actual, Set<?>... expected ) {
+        assertEquals( new HashSet<Set<?>>( Arrays.asList( expected ) ), new HashSet<Set<?>>( actual ) );
+    }
+}
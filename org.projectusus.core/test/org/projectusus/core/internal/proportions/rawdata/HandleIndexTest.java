@@ -0,0 +1,104 @@
+package org.projectusus.core.internal.proportions.rawdata;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.ISourceRange;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.projectusus.core.basis.SourceCodeLocation;
+import org.projectusus.core.filerelations.model.ClassDescriptor;
+import org.projectusus.core.filerelations.model.ClassDescriptorCleanup;
+import org.projectusus.core.filerelations.model.Classname;
+import org.projectusus.core.filerelations.model.Packagename;
+
+public class HandleIndexTest {
+
+    private IFile file;
+    private FileRawData fileRawData;
+    private ClassRawData classRawData;
+    private MethodRawData methodRawData;
+
+    @Before
+    public void setup() {
+        file = mock( IFile.class );
+        fileRawData = new FileRawData( file, 0 );
+        ClassDescriptor descriptor = ClassDescriptor.of( file, new Classname( "Sample" ), Packagename.of( "p", null ) );
+        classRawData = new ClassRawData( descriptor, new SourceCodeLocation( "Sample", 10, 100, 1 ) );
+        methodRawData = new MethodRawData( SourceCodeLocation.ofMethod( "Sample", "run", 20, 15, 2 ) );
+        classRawData.addMethodRawData( methodRawData );
+        fileRawData.addClassRawData( classRawData );
+    }
+
+    @After
+    public void tearDown() {
+        ClassDescriptor.clear();
+        ClassDescriptorCleanup.clear();
+        Packagename.clear();
+    }
+
+    @Test
+    public void classIsFoundByRangeOnlyOnce() throws JavaModelException {
+        IType type = mock( IType.class );
+        ISourceRange range = createRange( 10, 100 );
+        when( type.getSourceRange() ).thenReturn( range );
+        when( type.getHandleIdentifier() ).thenReturn( "=p/src<p{Sample.java[Sample" );
+
+        assertSame( classRawData, fileRawData.getClassRawData( type ) );
+        assertSame( classRawData, fileRawData.getClassRawData( type ) );
+        verify( type, times( 1 ) ).getSourceRange();
+    }
+
+    @Test
+    public void methodIsFoundByRangeOnlyOnce() throws JavaModelException {
+        IMethod method = mock( IMethod.class );
+        ISourceRange range = createRange( 20, 15 );
+        when( method.getSourceRange() ).thenReturn( range );
+        when( method.getHandleIdentifier() ).thenReturn( "=p/src<p{Sample.java[Sample~run" );
+
+        assertSame( methodRawData, classRawData.findMethodRawData( method ) );
+        assertSame( methodRawData, classRawData.findMethodRawData( method ) );
+        verify( method, times( 1 ) ).getSourceRange();
+    }
+
+    @Test
+    public void elementNotFoundIsLookedUpAgain() throws JavaModelException {
+        IType type = mock( IType.class );
+        ISourceRange range = createRange( 200, 10 );
+        when( type.getSourceRange() ).thenReturn( range );
+        when( type.getHandleIdentifier() ).thenReturn( "=p/src<p{Sample.java[Other" );
+
+        assertNull( fileRawData.getClassRawData( type ) );
+        assertNull( fileRawData.getClassRawData( type ) );
+        verify( type, times( 2 ) ).getSourceRange();
+    }
+
+    @Test
+    public void droppedFileForgetsItsClasses() throws JavaModelException {
+        IType type = mock( IType.class );
+        ISourceRange range = createRange( 10, 100 );
+        when( type.getSourceRange() ).thenReturn( range );
+        when( type.getHandleIdentifier() ).thenReturn( "=p/src<p{Sample.java[Sample" );
+        fileRawData.getClassRawData( type );
+
+        fileRawData.dropRawData();
+
+        assertNull( fileRawData.getClassRawData( type ) );
+    }
+
+    private ISourceRange createRange( int offset, int length ) {
+        ISourceRange result = mock( ISourceRange.class );
+        when( Integer.valueOf( result.getOffset() ) ).thenReturn( Integer.valueOf( offset ) );
+        when( Integer.valueOf( result.getLength() ) ).thenReturn( Integer.valueOf( length ) );
+        return result;
+    }
+}
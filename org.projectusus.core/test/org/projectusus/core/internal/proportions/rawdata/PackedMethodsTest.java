@@ -0,0 +1,120 @@
+package org.projectusus.core.internal.proportions.rawdata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.eclipse.core.resources.IFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.projectusus.core.basis.MetricsResults;
+import org.projectusus.core.basis.SourceCodeLocation;
+import org.projectusus.core.filerelations.model.ClassDescriptor;
+import org.projectusus.core.filerelations.model.ClassDescriptorCleanup;
+import org.projectusus.core.filerelations.model.Classname;
+import org.projectusus.core.filerelations.model.Packagename;
+
+public class PackedMethodsTest {
+
+    private ClassRawData classRawData;
+    private SourceCodeLocation runLocation;
+
+    @Before
+    public void setup() {
+        IFile file = Mockito.mock( IFile.class );
+        ClassDescriptor descriptor = ClassDescriptor.of( file, new Classname( "Sample" ), Packagename.of( "p", null ) );
+        classRawData = new ClassRawData( descriptor, new SourceCodeLocation( "Sample", 10, 100, 1 ) );
+        runLocation = SourceCodeLocation.ofMethod( "Sample", "run", 20, 15, 2 );
+        classRawData.addMethodRawData( createMethod( runLocation, 3 ) );
+        classRawData.addMethodRawData( createMethod( SourceCodeLocation.ofMethod( "Sample", "stop", 40, 15, 4 ), 5 ) );
+    }
+
+    @After
+    public void tearDown() {
+        ClassDescriptor.clear();
+        ClassDescriptorCleanup.clear();
+        Packagename.clear();
+    }
+
+    @Test
+    public void packedMethodsKeepTheirMetrics() {
+        classRawData.packMethods();
+
+        assertEquals( 2, classRawData.getRawDataElementCount() );
+        assertEquals( 8, sumOfCC() );
+        assertEquals( 2, classRawData.getAllKeys().size() );
+    }
+
+    @Test
+    public void packedMethodsKeepTheirLocations() {
+        classRawData.packMethods();
+
+        assertSame( runLocation, classRawData.getMethodRawDataAt( 25 ).getLocation() );
+    }
+
+    @Test
+    public void packedMethodsAreSharedWhileReadRecently() {
+        classRawData.packMethods();
+
+        Iterator<MethodRawData> first = classRawData.getAllRawDataElements().iterator();
+        Iterator<MethodRawData> second = classRawData.getAllRawDataElements().iterator();
+
+        assertSame( first.next(), second.next() );
+        assertSame( classRawData.getMethodRawDataAt( 25 ), classRawData.getMethodRawDataAt( 25 ) );
+    }
+
+    @Test
+    public void packedMethodsAreMadeAgainWhenNotReadRecently() {
+        classRawData.packMethods();
+        MethodRawData first = classRawData.getAllRawDataElements().iterator().next();
+
+        for( int index = 0; index < 100; index++ ) {
+            PackedMethods other = new PackedMethods( Collections.singletonList( createMethod( runLocation, 1 ) ) );
+            other.unpack();
+        }
+
+        MethodRawData again = classRawData.getAllRawDataElements().iterator().next();
+        assertNotSame( first, again );
+        assertSame( first.getLocation(), again.getLocation() );
+    }
+
+    @Test
+    public void addingAMethodUnpacks() {
+        classRawData.packMethods();
+
+        classRawData.addMethodRawData( createMethod( SourceCodeLocation.ofMethod( "Sample", "pause", 60, 15, 6 ), 2 ) );
+
+        assertEquals( 3, classRawData.getRawDataElementCount() );
+        assertEquals( 10, sumOfCC() );
+        MethodRawData method = classRawData.getAllRawDataElements().iterator().next();
+        assertSame( method, classRawData.getAllRawDataElements().iterator().next() );
+    }
+
+    @Test
+    public void classDataCountsPackedMethods() {
+        classRawData.packMethods();
+
+        classRawData.updateData();
+
+        assertEquals( 2, classRawData.getData().getIntValue( MetricsResults.METHODS ) );
+    }
+
+    private int sumOfCC() {
+        int result = 0;
+        for( MethodRawData method : classRawData.getAllRawDataElements() ) {
+            result += method.getData().getIntValue( MetricsResults.CC );
+        }
+        return result;
+    }
+
+    private MethodRawData createMethod( SourceCodeLocation location, int cc ) {
+        MethodRawData result = new MethodRawData( location );
+        result.putData( MetricsResults.CC, Integer.valueOf( cc ) );
+        return result;
+    }
+}
@@ -0,0 +1,131 @@
+package org.projectusus.core.internal.proportions.rawdata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.projectusus.core.basis.MethodColumns;
+import org.projectusus.core.basis.MetricsResults;
+import org.projectusus.core.basis.SourceCodeLocation;
+import org.projectusus.core.filerelations.model.ClassDescriptor;
+import org.projectusus.core.filerelations.model.ClassDescriptorCleanup;
+import org.projectusus.core.filerelations.model.Classname;
+import org.projectusus.core.filerelations.model.Packagename;
+
+public class ProjectRawDataTest {
+
+    private IProject project;
+    private IFile file;
+    private Packagename pkg;
+    private Packagename otherPkg;
+    private ProjectRawData projectRawData;
+
+    @Before
+    public void setup() {
+        project = mock( IProject.class );
+        file = mock( IFile.class );
+        when( file.getProject() ).thenReturn( project );
+        pkg = Packagename.of( "p", null );
+        otherPkg = Packagename.of( "q", null );
+        projectRawData = new ProjectRawData( project );
+    }
+
+    @After
+    public void tearDown() {
+        ClassDescriptor.clear();
+        ClassDescriptorCleanup.clear();
+        Packagename.clear();
+    }
+
+    @Test
+    public void addedFileIsFound() {
+        FileRawData fileRawData = add( pkg );
+        fileRawData.setFingerprint( "fingerprint" );
+
+        assertSame( fileRawData, projectRawData.getFileRawData( file ) );
+        assertEquals( "fingerprint", projectRawData.getFingerprint( file ) );
+    }
+
+    @Test
+    public void droppedFileIsGone() {
+        add( pkg );
+
+        projectRawData.dropRawData( file );
+
+        assertNull( projectRawData.getFileRawData( file ) );
+        assertEquals( 0, projectRawData.getRawData( pkg ).getRawDataElementCount() );
+    }
+
+    @Test
+    public void fileMovedToOtherPackageIsDroppedFromTheFormer() {
+        add( pkg );
+        FileRawData moved = add( otherPkg );
+
+        assertSame( moved, projectRawData.getFileRawData( file ) );
+        assertEquals( 0, projectRawData.getRawData( pkg ).getRawDataElementCount() );
+        assertEquals( 1, projectRawData.getRawData( otherPkg ).getRawDataElementCount() );
+    }
+
+    @Test
+    public void droppedProjectForgetsItsFiles() {
+        add( pkg );
+
+        projectRawData.dropRawData();
+
+        assertNull( projectRawData.getFileRawData( file ) );
+        assertNull( projectRawData.getFingerprint( file ) );
+    }
+
+    @Test
+    public void methodColumns() {
+        FileRawData fileRawData = add( pkg );
+        fileRawData.addClassRawData( createClass( "Source", 3, 7 ) );
+
+        MethodColumns methods = projectRawData.getMethodColumns();
+
+        assertEquals( 2, methods.getMethodCount() );
+        assertEquals( 1, methods.getClassCount() );
+        assertSame( file, methods.getFile( methods.getOwner( 0 ) ) );
+        assertEquals( 1, methods.getClassResults( 0 ).getIntValue( MetricsResults.CCD ) );
+        assertEquals( 2, methods.getClassResults( 0 ).getIntValue( MetricsResults.METHODS ) );
+        assertEquals( 10, methods.getColumn( MetricsResults.CC, 1 )[0] + methods.getColumn( MetricsResults.CC, 1 )[1] );
+        assertSame( methods, projectRawData.getMethodColumns() );
+    }
+
+    @Test
+    public void methodColumnsFollowChanges() {
+        add( pkg ).addClassRawData( createClass( "Source", 3, 7 ) );
+        MethodColumns before = projectRawData.getMethodColumns();
+
+        projectRawData.dropRawData( file );
+        MethodColumns after = projectRawData.getMethodColumns();
+
+        assertNotSame( before, after );
+        assertEquals( 0, after.getMethodCount() );
+    }
+
+    private ClassRawData createClass( String classname, int... ccValues ) {
+        ClassDescriptor descriptor = ClassDescriptor.of( file, new Classname( classname ), pkg );
+        ClassRawData result = new ClassRawData( descriptor, new SourceCodeLocation( classname, 10, 1 ) );
+        for( int index = 0; index < ccValues.length; index++ ) {
+            MethodRawData method = new MethodRawData( new SourceCodeLocation( classname + ".m" + index + "()", 20 + index, 2 + index ) );
+            method.putData( MetricsResults.CC, Integer.valueOf( ccValues[index] ) );
+            result.addMethodRawData( method );
+        }
+        return result;
+    }
+
+    private FileRawData add( Packagename packagename ) {
+        FileRawData result = new FileRawData( file, 0 );
+        projectRawData.addFileRawData( packagename, result );
+        return result;
+    }
+}
@@ -0,0 +1,196 @@
+package org.projectusus.core.internal.proportions.rawdata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.runtime.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.projectusus.core.basis.MetricsResults;
+import org.projectusus.core.basis.SourceCodeLocation;
+import org.projectusus.core.filerelations.model.ClassDescriptor;
+import org.projectusus.core.filerelations.model.ClassDescriptorCleanup;
+import org.projectusus.core.filerelations.model.Classname;
+import org.projectusus.core.filerelations.model.Packagename;
+
+public class RawDataCacheTest {
+
+    private File cacheFile;
+    private IWorkspaceRoot root;
+    private IProject project;
+    private IFile sourceFile;
+    private IFile targetFile;
+    private RawDataCache cache;
+
+    @Before
+    public void setup() throws IOException {
+        clearRegistries();
+        cacheFile = File.createTempFile( "rawdata", ".bin" );
+        root = mock( IWorkspaceRoot.class );
+        project = mock( IProject.class );
+        when( project.getName() ).thenReturn( "project" );
+        when( root.getProject( "project" ) ).thenReturn( project );
+        sourceFile = createFile( "/project/src/p/Source.java", 17 );
+        targetFile = createFile( "/project/src/q/Target.java", 42 );
+        cache = new RawDataCache( cacheFile, root );
+    }
+
+    @After
+    public void tearDown() {
+        cacheFile.delete();
+        clearRegistries();
+    }
+
+    @Test
+    public void noFileNoData() throws IOException {
+        cacheFile.delete();
+
+        assertNull( cache.read( null ) );
+    }
+
+    @Test
+    public void otherFormatNoData() throws IOException {
+        DataOutputStream out = new DataOutputStream( new GZIPOutputStream( new FileOutputStream( cacheFile ) ) );
+        out.writeInt( RawDataCache.MAGIC );
+        out.writeInt( RawDataCache.FORMAT_VERSION + 1 );
+        out.close();
+
+        assertNull( cache.read( null ) );
+    }
+
+    @Test
+    public void unchangedFilesAreRestored() throws IOException {
+        cache.write( createWorkspace() );
+        clearRegistries();
+
+        WorkspaceRawData restored = cache.read( null );
+
+        ClassRawData source = classIn( restored, "p", sourceFile );
+        assertEquals( "Source", source.getLocation().getName() );
+        assertEquals( 3, source.getLocation().getLineNumber() );
+        assertEquals( 1, source.getData().getIntValue( MetricsResults.PUBLIC_FIELDS ) );
+        MethodRawData method = source.getAllRawDataElements().iterator().next();
+        assertEquals( "Source.run()", method.getLocation().getName() );
+        assertEquals( 30, method.getLocation().getSourceLength() );
+        assertEquals( 7, method.getData().getIntValue( MetricsResults.CC ) );
+        assertEquals( Arrays.asList( Integer.valueOf( 2 ), Integer.valueOf( 5 ) ), method.getData().get( MetricsResults.TRAIN_WRECKS ) );
+        assertEquals( "fingerprint", restored.getFingerprint( sourceFile ) );
+        assertEquals( 1, descriptorOf( "Source" ).getChildren().size() );
+        assertEquals( 2, descriptorOf( "Source" ).getCCD() );
+        assertTrue( ClassDescriptorCleanup.extractDescriptorsRegisteredForCleanup().isEmpty() );
+    }
+
+    @Test
+    public void longTextValuesAreRestored() throws IOException {
+        WorkspaceRawData workspace = createWorkspace();
+        StringBuilder text = new StringBuilder();
+        while( text.length() < 100000 ) {
+            text.append( "\u00fcber " );
+        }
+        classIn( workspace, "p", sourceFile ).putData( "text", text.toString() );
+        cache.write( workspace );
+        clearRegistries();
+
+        WorkspaceRawData restored = cache.read( null );
+
+        assertEquals( text.toString(), classIn( restored, "p", sourceFile ).getData().get( "text" ) );
+    }
+
+    @Test
+    public void changedFileIsLeftOut() throws IOException {
+        cache.write( createWorkspace() );
+        clearRegistries();
+        when( sourceFile.getModificationStamp() ).thenReturn( Long.valueOf( 18 ) );
+
+        WorkspaceRawData restored = cache.read( null );
+
+        assertNull( restored.getFingerprint( sourceFile ) );
+        assertEquals( "fingerprint", restored.getFingerprint( targetFile ) );
+        assertTrue( descriptorOf( "Source" ).getChildren().isEmpty() );
+        Set<ClassDescriptor> cleanup = ClassDescriptorCleanup.extractDescriptorsRegisteredForCleanup();
+        assertEquals( 1, cleanup.size() );
+        assertTrue( cleanup.contains( descriptorOf( "Source" ) ) );
+    }
+
+    @Test
+    public void unfinishedFileIsNotWritten() throws IOException {
+        WorkspaceRawData workspace = createWorkspace();
+        workspace.setFingerprint( sourceFile, null );
+        cache.write( workspace );
+        clearRegistries();
+
+        WorkspaceRawData restored = cache.read( null );
+
+        assertNull( restored.getFingerprint( sourceFile ) );
+        assertEquals( "fingerprint", restored.getFingerprint( targetFile ) );
+    }
+
+    private WorkspaceRawData createWorkspace() {
+        WorkspaceRawData workspace = new WorkspaceRawData( null );
+        ClassDescriptor source = addClass( workspace, "p", sourceFile, "Source" );
+        ClassDescriptor target = addClass( workspace, "q", targetFile, "Target" );
+        source.addChild( target );
+        return workspace;
+    }
+
+    private ClassDescriptor addClass( WorkspaceRawData workspace, String packagename, IFile file, String classname ) {
+        Packagename pkg = Packagename.of( packagename, null );
+        ClassDescriptor descriptor = ClassDescriptor.of( file, new Classname( classname ), pkg );
+        ClassRawData classRawData = new ClassRawData( descriptor, new SourceCodeLocation( classname, 10, 3 ) );
+        classRawData.putData( MetricsResults.PUBLIC_FIELDS, Integer.valueOf( 1 ) );
+        MethodRawData methodRawData = new MethodRawData( SourceCodeLocation.ofMethod( classname, "run", 20, 30, 4 ) );
+        methodRawData.putData( MetricsResults.CC, Integer.valueOf( 7 ) );
+        methodRawData.putData( MetricsResults.TRAIN_WRECKS, Arrays.asList( Integer.valueOf( 2 ), Integer.valueOf( 5 ) ) );
+        classRawData.addMethodRawData( methodRawData );
+        FileRawData fileRawData = new FileRawData( file, file.getModificationStamp() );
+        fileRawData.setFingerprint( "fingerprint" );
+        fileRawData.addClassRawData( classRawData );
+        workspace.getOrCreateProjectRawData( project ).addFileRawData( pkg, fileRawData );
+        return descriptor;
+    }
+
+    private ClassRawData classIn( WorkspaceRawData workspace, String packagename, IFile file ) {
+        PackageRawData packageRawData = workspace.getRawData( project ).getRawData( Packagename.of( packagename, null ) );
+        return packageRawData.getRawData( file ).getAllRawDataElements().iterator().next();
+    }
+
+    private ClassDescriptor descriptorOf( String classname ) {
+        for( ClassDescriptor descriptor : ClassDescriptor.getAll() ) {
+            if( descriptor.getClassname().toString().equals( classname ) ) {
+                return descriptor;
+            }
+        }
+        throw new IllegalArgumentException( classname );
+    }
+
+    private IFile createFile( String path, long stamp ) {
+        IFile file = mock( IFile.class );
+        when( file.getFullPath() ).thenReturn( new Path( path ) );
+        when( file.getProject() ).thenReturn( project );
+        when( file.exists() ).thenReturn( Boolean.TRUE );
+        when( file.getModificationStamp() ).thenReturn( Long.valueOf( stamp ) );
+        when( root.getFile( new Path( path ) ) ).thenReturn( file );
+        return file;
+    }
+
+    private static void clearRegistries() {
+        ClassDescriptor.clear();
+        ClassDescriptorCleanup.clear();
+        Packagename.clear();
+    }
+}
@@ -0,0 +1,155 @@
+package org.projectusus.core.internal.proportions.rawdata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.projectusus.core.IMethodColumnsVisitor;
+import org.projectusus.core.basis.MethodColumns;
+import org.projectusus.core.basis.MetricsResults;
+import org.projectusus.core.basis.SourceCodeLocation;
+import org.projectusus.core.filerelations.model.ClassDescriptor;
+import org.projectusus.core.filerelations.model.ClassDescriptorCleanup;
+import org.projectusus.core.filerelations.model.Classname;
+import org.projectusus.core.filerelations.model.Packagename;
+import org.projectusus.core.statistics.DefaultMetricsResultVisitor;
+
+public class RawDataSnapshotTest {
+
+    private IProject project;
+    private IProject otherProject;
+    private IFile sourceFile;
+    private IFile targetFile;
+    private IFile otherFile;
+    private Packagename pkg;
+    private WorkspaceRawData workspace;
+
+    @Before
+    public void setup() {
+        project = mock( IProject.class );
+        otherProject = mock( IProject.class );
+        sourceFile = createFile( project );
+        targetFile = createFile( project );
+        otherFile = createFile( otherProject );
+        pkg = Packagename.of( "p", null );
+        workspace = new WorkspaceRawData( null );
+    }
+
+    @After
+    public void tearDown() {
+        ClassDescriptor.clear();
+        ClassDescriptorCleanup.clear();
+        Packagename.clear();
+    }
+
+    @Test
+    public void versionsIncrease() {
+        RawDataSnapshot first = RawDataSnapshot.of( workspace, RawDataSnapshot.EMPTY );
+        RawDataSnapshot second = RawDataSnapshot.of( workspace, first );
+
+        assertEquals( 1, first.getVersion() );
+        assertEquals( 2, second.getVersion() );
+    }
+
+    @Test
+    public void snapshotIsNotAffectedByLaterChanges() {
+        addClass( sourceFile, "Source", 2 );
+        RawDataSnapshot before = RawDataSnapshot.of( workspace, RawDataSnapshot.EMPTY );
+
+        workspace.dropRawData( sourceFile );
+        RawDataSnapshot after = RawDataSnapshot.of( workspace, before );
+
+        assertEquals( 2, new CountingVisitor().visitAndReturn( before ).methods );
+        assertEquals( 0, new CountingVisitor().visitAndReturn( after ).methods );
+    }
+
+    @Test
+    public void classDataIsFrozenPerVersion() {
+        ClassDescriptor source = addClass( sourceFile, "Source", 1 );
+        ClassDescriptor target = addClass( targetFile, "Target", 1 );
+        RawDataSnapshot before = RawDataSnapshot.of( workspace, RawDataSnapshot.EMPTY );
+
+        source.addChild( target );
+        RawDataSnapshot after = RawDataSnapshot.of( workspace, before );
+
+        assertEquals( 2, new CountingVisitor().visitAndReturn( before ).ccdSum );
+        assertEquals( 3, new CountingVisitor().visitAndReturn( after ).ccdSum );
+    }
+
+    @Test
+    public void unchangedProjectIsShared() {
+        addClass( sourceFile, "Source", 1 );
+        addClass( otherFile, "Other", 1 );
+        RawDataSnapshot before = RawDataSnapshot.of( workspace, RawDataSnapshot.EMPTY );
+        ColumnsVisitor visitorBefore = new ColumnsVisitor();
+        before.acceptAndGuide( visitorBefore );
+
+        workspace.dropRawData( sourceFile );
+        RawDataSnapshot after = RawDataSnapshot.of( workspace, before );
+        ColumnsVisitor visitorAfter = new ColumnsVisitor();
+        after.acceptAndGuide( visitorAfter );
+
+        assertSame( visitorBefore.columnsOf( otherProject ), visitorAfter.columnsOf( otherProject ) );
+        assertNotSame( visitorBefore.columnsOf( project ), visitorAfter.columnsOf( project ) );
+    }
+
+    private ClassDescriptor addClass( IFile file, String classname, int methodCount ) {
+        ClassDescriptor descriptor = ClassDescriptor.of( file, new Classname( classname ), pkg );
+        ClassRawData classRawData = new ClassRawData( descriptor, new SourceCodeLocation( classname, 10, 1 ) );
+        for( int index = 0; index < methodCount; index++ ) {
+            classRawData.addMethodRawData( new MethodRawData( new SourceCodeLocation( classname + ".m" + index + "()", 20 + index, 2 ) ) );
+        }
+        FileRawData fileRawData = new FileRawData( file, 0 );
+        fileRawData.addClassRawData( classRawData );
+        workspace.getOrCreateProjectRawData( file.getProject() ).addFileRawData( pkg, fileRawData );
+        return descriptor;
+    }
+
+    private IFile createFile( IProject parent ) {
+        IFile result = mock( IFile.class );
+        when( result.getProject() ).thenReturn( parent );
+        return result;
+    }
+
+    private static class CountingVisitor extends DefaultMetricsResultVisitor {
+        int methods;
+        int ccdSum;
+
+        @Override
+        public void inspectClass( SourceCodeLocation location, MetricsResults results ) {
+            ccdSum += results.getIntValue( MetricsResults.CCD );
+        }
+
+        @Override
+        public void inspectMethod( SourceCodeLocation location, MetricsResults results ) {
+            methods++;
+        }
+
+        CountingVisitor visitAndReturn( RawDataSnapshot snapshot ) {
+            visit( snapshot );
+            return this;
+        }
+    }
+
+    private static class ColumnsVisitor extends DefaultMetricsResultVisitor implements IMethodColumnsVisitor {
+        private final Map<IProject, MethodColumns> columns = new HashMap<IProject, MethodColumns>();
+
+        public void inspectMethods( IProject inspected, MethodColumns methods ) {
+            columns.put( inspected, methods );
+        }
+
+        MethodColumns columnsOf( IProject inspected ) {
+            return columns.get( inspected );
+        }
+    }
+}
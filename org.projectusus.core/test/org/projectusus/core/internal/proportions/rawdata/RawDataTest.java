@@ -0,0 +1,115 @@
+package org.projectusus.core.internal.proportions.rawdata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.projectusus.core.basis.IRawData;
+
+public class RawDataTest {
+
+    private RawData<Integer, Element> rawData;
+
+    @Before
+    public void setup() {
+        rawData = new RawData<Integer, Element>();
+    }
+
+    @Test
+    public void snapshotIsNotAffectedByLaterChanges() {
+        Element first = add( 1 );
+        Collection<Element> snapshot = rawData.getAllRawDataElements();
+
+        add( 2 );
+        rawData.remove( Integer.valueOf( 1 ) );
+
+        assertEquals( 1, snapshot.size() );
+        assertSame( first, snapshot.iterator().next() );
+        assertEquals( 1, rawData.getAllRawDataElements().size() );
+        assertEquals( Integer.valueOf( 2 ), rawData.getAllKeys().iterator().next() );
+    }
+
+    @Test
+    public void nodeMayBeChangedWhileIterating() {
+        add( 1 );
+        add( 2 );
+        add( 3 );
+
+        int count = 0;
+        for( Integer key : rawData.getAllKeys() ) {
+            rawData.remove( key );
+            add( key.intValue() + 10 );
+            count++;
+        }
+
+        assertEquals( 3, count );
+        assertEquals( 3, rawData.getRawDataElementCount() );
+    }
+
+    @Test
+    public void versionChangesWithTheChildren() {
+        int version = rawData.getVersion();
+
+        add( 1 );
+        assertTrue( version != rawData.getVersion() );
+
+        version = rawData.getVersion();
+        rawData.remove( Integer.valueOf( 1 ) );
+        assertTrue( version != rawData.getVersion() );
+    }
+
+    @Test
+    public void removingAnAbsentKeyKeepsTheVersion() {
+        add( 1 );
+        int version = rawData.getVersion();
+
+        rawData.remove( Integer.valueOf( 2 ) );
+
+        assertEquals( version, rawData.getVersion() );
+    }
+
+    @Test
+    public void concurrentWritersAndReaders() throws InterruptedException {
+        List<Thread> threads = new ArrayList<Thread>();
+        for( int i = 0; i < 4; i++ ) {
+            final int offset = i * 1000;
+            threads.add( new Thread() {
+                @Override
+                public void run() {
+                    for( int j = 0; j < 1000; j++ ) {
+                        add( offset + j );
+                        for( Iterator<Element> iterator = rawData.getAllRawDataElements().iterator(); iterator.hasNext(); ) {
+                            iterator.next();
+                        }
+                    }
+                }
+            } );
+        }
+        for( Thread thread : threads ) {
+            thread.start();
+        }
+        for( Thread thread : threads ) {
+            thread.join();
+        }
+
+        assertEquals( 4000, rawData.getRawDataElementCount() );
+        assertEquals( 4000, rawData.getAllRawDataElements().size() );
+    }
+
+    private Element add( int key ) {
+        Element result = new Element();
+        rawData.addRawData( Integer.valueOf( key ), result );
+        return result;
+    }
+
+    private static class Element implements IRawData {
+        // nothing in here
+    }
+}
@@ -0,0 +1,138 @@
+package org.projectusus.core.internal.proportions.rawdata;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.ISourceRange;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.projectusus.core.basis.SourceCodeLocation;
+import org.projectusus.core.filerelations.model.ClassDescriptor;
+import org.projectusus.core.filerelations.model.ClassDescriptorCleanup;
+import org.projectusus.core.filerelations.model.Classname;
+import org.projectusus.core.filerelations.model.Packagename;
+
+public class SourceRangesTest {
+
+    private IFile file;
+    private FileRawData fileRawData;
+    private ClassRawData outer;
+    private ClassRawData inner;
+    private ClassRawData other;
+    private MethodRawData outerMethod;
+
+    @Before
+    public void setup() {
+        file = mock( IFile.class );
+        fileRawData = new FileRawData( file, 0 );
+        outer = addClass( "Outer", 10, 100 );
+        inner = addClass( "Inner", 40, 30 );
+        other = addClass( "Other", 120, 50 );
+        outerMethod = new MethodRawData( new SourceCodeLocation( "Outer.run()", 20, 15, 2 ) );
+        outer.addMethodRawData( outerMethod );
+    }
+
+    @After
+    public void tearDown() {
+        ClassDescriptor.clear();
+        ClassDescriptorCleanup.clear();
+        Packagename.clear();
+    }
+
+    @Test
+    public void innermostClassAtOffset() {
+        assertSame( outer, fileRawData.getClassRawDataAt( 10 ) );
+        assertSame( inner, fileRawData.getClassRawDataAt( 45 ) );
+        assertSame( outer, fileRawData.getClassRawDataAt( 70 ) );
+        assertSame( other, fileRawData.getClassRawDataAt( 169 ) );
+        assertNull( fileRawData.getClassRawDataAt( 5 ) );
+        assertNull( fileRawData.getClassRawDataAt( 110 ) );
+        assertNull( fileRawData.getClassRawDataAt( 170 ) );
+    }
+
+    @Test
+    public void methodAtOffset() {
+        assertSame( outerMethod, fileRawData.getMethodRawDataAt( 25 ) );
+        assertNull( fileRawData.getMethodRawDataAt( 45 ) );
+        assertNull( fileRawData.getMethodRawDataAt( 80 ) );
+    }
+
+    @Test
+    public void classesOverlappingARange() {
+        assertEquals( asList( outer, inner ), fileRawData.getClassRawDataIn( 50, 10 ) );
+        assertEquals( asList( outer, inner, other ), fileRawData.getClassRawDataIn( 30, 100 ) );
+        assertEquals( asList( other ), fileRawData.getClassRawDataIn( 112, 20 ) );
+        assertEquals( 0, fileRawData.getClassRawDataIn( 110, 5 ).size() );
+    }
+
+    @Test
+    public void classOfAJavaElement() throws JavaModelException {
+        assertSame( inner, fileRawData.getClassRawData( createType( 40, 30 ) ) );
+        assertSame( outer, fileRawData.getClassRawData( createType( 10, 100 ) ) );
+        assertNull( fileRawData.getClassRawData( createType( 0, 5 ) ) );
+    }
+
+    @Test
+    public void classNotStoredIsNotMistakenForANestedOne() throws JavaModelException {
+        assertNull( fileRawData.getClassRawData( createType( 35, 40 ) ) );
+    }
+
+    @Test
+    public void methodOfAJavaElement() throws JavaModelException {
+        IMethod method = mock( IMethod.class );
+        ISourceRange range = createRange( 20, 15 );
+        when( method.getSourceRange() ).thenReturn( range );
+
+        assertSame( outerMethod, outer.findMethodRawData( method ) );
+        assertNull( inner.findMethodRawData( method ) );
+    }
+
+    @Test
+    public void indexFollowsChanges() {
+        assertNull( fileRawData.getClassRawDataAt( 200 ) );
+
+        ClassRawData added = addClass( "Added", 200, 10 );
+
+        assertSame( added, fileRawData.getClassRawDataAt( 205 ) );
+    }
+
+    @Test
+    public void methodIndexFollowsChanges() {
+        assertNull( fileRawData.getMethodRawDataAt( 85 ) );
+
+        MethodRawData added = new MethodRawData( new SourceCodeLocation( "Outer.stop()", 80, 10, 5 ) );
+        outer.addMethodRawData( added );
+
+        assertSame( added, fileRawData.getMethodRawDataAt( 85 ) );
+    }
+
+    private ClassRawData addClass( String classname, int start, int length ) {
+        ClassDescriptor descriptor = ClassDescriptor.of( file, new Classname( classname ), Packagename.of( "p", null ) );
+        ClassRawData result = new ClassRawData( descriptor, new SourceCodeLocation( classname, start, length, 1 ) );
+        fileRawData.addClassRawData( result );
+        return result;
+    }
+
+    private IType createType( int offset, int length ) throws JavaModelException {
+        IType result = mock( IType.class );
+        ISourceRange range = createRange( offset, length );
+        when( result.getSourceRange() ).thenReturn( range );
+        return result;
+    }
+
+    private ISourceRange createRange( int offset, int length ) {
+        ISourceRange result = mock( ISourceRange.class );
+        when( Integer.valueOf( result.getOffset() ) ).thenReturn( Integer.valueOf( offset ) );
+        when( Integer.valueOf( result.getLength() ) ).thenReturn( Integer.valueOf( length ) );
+        return result;
+    }
+}
@@ -0,0 +1,72 @@
+package org.projectusus.core.proportions.rawdata.jdtdriver;
+
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Status;
+import org.junit.Test;
+import org.projectusus.core.metrics.MetricsCollector;
+
+public class FileFingerprintTest {
+
+    private final Set<MetricsCollector> collectors = singleton( (MetricsCollector)new FirstCollector() );
+
+    @Test
+    public void sameContentsYieldSameFingerprint() throws CoreException {
+        FileFingerprint fingerprint = new FileFingerprint( collectors );
+
+        assertEquals( fingerprint.of( fileContaining( "class A {}" ) ), fingerprint.of( fileContaining( "class A {}" ) ) );
+    }
+
+    @Test
+    public void changedContentsYieldOtherFingerprint() throws CoreException {
+        FileFingerprint fingerprint = new FileFingerprint( collectors );
+
+        assertFalse( fingerprint.of( fileContaining( "class A {}" ) ).equals( fingerprint.of( fileContaining( "class A { }" ) ) ) );
+    }
+
+    @Test
+    public void otherCollectorsYieldOtherFingerprint() throws CoreException {
+        String first = new FileFingerprint( collectors ).of( fileContaining( "class A {}" ) );
+        String second = new FileFingerprint( singleton( (MetricsCollector)new SecondCollector() ) ).of( fileContaining( "class A {}" ) );
+
+        assertFalse( first.equals( second ) );
+    }
+
+    @Test
+    public void noCollectorsStillYieldFingerprint() throws CoreException {
+        assertEquals( 32, new FileFingerprint( Collections.<MetricsCollector> emptySet() ).of( fileContaining( "" ) ).length() );
+    }
+
+    @Test
+    public void unreadableFileHasNoFingerprint() throws CoreException {
+        IFile file = mock( IFile.class );
+        when( file.getContents( true ) ).thenThrow( new CoreException( Status.CANCEL_STATUS ) );
+
+        assertNull( new FileFingerprint( collectors ).of( file ) );
+    }
+
+    private IFile fileContaining( String contents ) throws CoreException {
+        IFile file = mock( IFile.class );
+        when( file.getContents( true ) ).thenReturn( new ByteArrayInputStream( contents.getBytes() ) );
+        return file;
+    }
+
+    private static class FirstCollector extends MetricsCollector {
+        // no visits needed
+    }
+
+    private static class SecondCollector extends MetricsCollector {
+        // no visits needed
+    }
+}
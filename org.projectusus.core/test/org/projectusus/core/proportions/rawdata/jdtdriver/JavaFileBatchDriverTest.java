@@ -0,0 +1,191 @@
+package org.projectusus.core.proportions.rawdata.jdtdriver;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.dom.ASTRequestor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.projectusus.core.metrics.MetricsCollector;
+
+public class JavaFileBatchDriverTest {
+
+    private IFile first;
+    private IFile second;
+    private IFile third;
+    private IFile noJava;
+    private Listener listener;
+
+    @Before
+    public void setup() {
+        first = file( "First.java" ); //$NON-NLS-1$
+        second = file( "Second.java" ); //$NON-NLS-1$
+        third = file( "Third.java" ); //$NON-NLS-1$
+        noJava = file( "notes.txt" ); //$NON-NLS-1$
+        listener = new Listener();
+    }
+
+    @Test
+    public void filesAreComputedFromTheirASTs() {
+        Driver driver = new Driver( first, second );
+
+        driver.compute( Collections.<MetricsCollector> emptySet(), listener, new NullProgressMonitor() );
+
+        assertEquals( asList( first, second ), driver.computedFromAST );
+        assertEquals( Collections.emptyList(), driver.computedAlone );
+        assertEquals( asList( first, second ), listener.finished );
+        assertEquals( Collections.emptyList(), listener.failed );
+    }
+
+    @Test
+    public void fileWithoutJavaSourceLosesItsRawData() {
+        Driver driver = new Driver( first, noJava );
+
+        driver.compute( Collections.<MetricsCollector> emptySet(), listener, new NullProgressMonitor() );
+
+        assertEquals( asList( noJava ), driver.dropped );
+        assertEquals( asList( noJava, first ), listener.finished );
+    }
+
+    @Test
+    public void failingCollectorFailsOnlyItsFile() {
+        Driver driver = new Driver( first, second );
+        driver.failingInCollectors.add( first );
+
+        driver.compute( Collections.<MetricsCollector> emptySet(), listener, new NullProgressMonitor() );
+
+        assertEquals( asList( first ), listener.failed );
+        assertEquals( asList( second ), listener.finished );
+    }
+
+    @Test
+    public void filesNotDeliveredByFailingParserAreComputedAlone() {
+        Driver driver = new Driver( first, second, third );
+        driver.parserFailsAfter = 1;
+
+        driver.compute( Collections.<MetricsCollector> emptySet(), listener, new NullProgressMonitor() );
+
+        assertEquals( asList( first ), driver.computedFromAST );
+        assertEquals( asList( second, third ), driver.computedAlone );
+        assertEquals( asList( first, second, third ), listener.finished );
+        assertEquals( Collections.emptyList(), listener.failed );
+    }
+
+    @Test
+    public void fileFailingAloneIsTheOnlyFailedOne() {
+        Driver driver = new Driver( first, second, third );
+        driver.parserFailsAfter = 0;
+        driver.failingAlone.add( second );
+
+        driver.compute( Collections.<MetricsCollector> emptySet(), listener, new NullProgressMonitor() );
+
+        assertEquals( asList( second ), listener.failed );
+        assertEquals( asList( first, third ), listener.finished );
+        assertEquals( asList( first, second, third ), listener.started );
+    }
+
+    @Test
+    public void cancelledBatchLeavesRemainingFilesAlone() {
+        IProgressMonitor monitor = new NullProgressMonitor();
+        Driver driver = new Driver( first, second );
+        driver.parserFailsAfter = 0;
+        monitor.setCanceled( true );
+
+        driver.compute( Collections.<MetricsCollector> emptySet(), listener, monitor );
+
+        assertEquals( Collections.emptyList(), listener.started );
+        assertEquals( Collections.emptyList(), driver.computedAlone );
+    }
+
+    private static IFile file( String name ) {
+        IFile result = mock( IFile.class );
+        when( result.getName() ).thenReturn( name );
+        when( result.exists() ).thenReturn( Boolean.TRUE );
+        return result;
+    }
+
+    private static class Driver extends JavaFileBatchDriver {
+
+        final List<IFile> computedFromAST = new ArrayList<IFile>();
+        final List<IFile> computedAlone = new ArrayList<IFile>();
+        final List<IFile> dropped = new ArrayList<IFile>();
+        final Set<IFile> failingInCollectors = new HashSet<IFile>();
+        final Set<IFile> failingAlone = new HashSet<IFile>();
+        int parserFailsAfter = Integer.MAX_VALUE;
+
+        Driver( IFile... files ) {
+            super( asList( files ) );
+        }
+
+        @Override
+        ICompilationUnit getCompilationUnit( IFile file ) {
+            if( !file.getName().endsWith( ".java" ) ) { //$NON-NLS-1$
+                return null;
+            }
+            return mock( ICompilationUnit.class );
+        }
+
+        @Override
+        void createASTs( ICompilationUnit[] units, Set<MetricsCollector> metricsExtensions, ASTRequestor requestor, IProgressMonitor monitor ) {
+            for( int index = 0; index < units.length; index++ ) {
+                if( index == parserFailsAfter ) {
+                    throw new IllegalStateException( "parser failed" ); //$NON-NLS-1$
+                }
+                requestor.acceptAST( units[index], null );
+            }
+        }
+
+        @Override
+        void compute( IFile file, CompilationUnit ast, Set<MetricsCollector> metricsExtensions ) {
+            if( failingInCollectors.contains( file ) ) {
+                throw new IllegalStateException( "collector failed" ); //$NON-NLS-1$
+            }
+            computedFromAST.add( file );
+        }
+
+        @Override
+        void computeAlone( IFile file, Set<MetricsCollector> metricsExtensions ) {
+            if( failingAlone.contains( file ) ) {
+                throw new IllegalStateException( "file failed" ); //$NON-NLS-1$
+            }
+            computedAlone.add( file );
+        }
+
+        @Override
+        void dropRawData( IFile file ) {
+            dropped.add( file );
+        }
+    }
+
+    private static class Listener implements IFileComputationListener {
+
+        final List<IFile> started = new ArrayList<IFile>();
+        final List<IFile> finished = new ArrayList<IFile>();
+        final List<IFile> failed = new ArrayList<IFile>();
+
+        public void fileStarted( IFile file ) {
+            started.add( file );
+        }
+
+        public void fileFinished( IFile file ) {
+            finished.add( file );
+        }
+
+        public void fileFailed( IFile file, Throwable throwable ) {
+            failed.add( file );
+        }
+    }
+}
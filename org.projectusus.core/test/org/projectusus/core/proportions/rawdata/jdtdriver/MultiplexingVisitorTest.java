@@ -0,0 +1,217 @@
+package org.projectusus.core.proportions.rawdata.jdtdriver;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IfStatement;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MultiplexingVisitorTest {
+
+    private static final String SOURCE = "package p;\n" //
+            + "/** A {@link Object} with @author tags */\n" //
+            + "class Outer {\n" //
+            + "    int field;\n" //
+            + "    void first( int a ) { if( a > 0 ) { field = a; } }\n" //
+            + "    void skipped() { if( field > 0 ) { first( 1 ); } }\n" //
+            + "    class Inner {\n" //
+            + "        /** Returns {@code field}. */\n" //
+            + "        int second() { return field; }\n" //
+            + "    }\n" //
+            + "}\n";
+
+    private CompilationUnit compilationUnit;
+
+    @Before
+    public void setup() {
+        ASTParser parser = ASTParser.newParser( AST.JLS3 );
+        parser.setKind( ASTParser.K_COMPILATION_UNIT );
+        parser.setSource( SOURCE.toCharArray() );
+        compilationUnit = (CompilationUnit)parser.createAST( null );
+    }
+
+    @Test
+    public void eachVisitorSeesTheSameCallsAsWhenWalkingAlone() {
+        List<String> alone = traceOf( new MethodSkippingVisitor(), new BlockSkippingVisitor(), new DocTagVisitor() );
+
+        List<List<String>> multiplexed = multiplexedTraceOf( new MethodSkippingVisitor(), new BlockSkippingVisitor(), new DocTagVisitor() );
+
+        assertEquals( alone, flatten( multiplexed ) );
+    }
+
+    @Test
+    public void skippedMethodIsNotEnteredButEndVisited() {
+        List<String> trace = multiplexedTraceOf( new MethodSkippingVisitor() ).get( 0 );
+
+        assertTrue( trace.contains( "visit MethodDeclaration skipped" ) );
+        assertTrue( trace.contains( "endVisit MethodDeclaration skipped" ) );
+        assertEquals( 1, count( trace, "visit IfStatement" ) );
+    }
+
+    @Test
+    public void nodeRejectedInPreVisitIsNotEndVisited() {
+        List<String> trace = multiplexedTraceOf( new BlockSkippingVisitor() ).get( 0 );
+
+        assertEquals( 0, count( trace, "visit IfStatement" ) );
+        assertEquals( 0, count( trace, "endVisit Block" ) );
+        assertEquals( 3, count( trace, "postVisit Block" ) );
+    }
+
+    @Test
+    public void docTagsAreOnlyVisitedOnRequest() {
+        List<List<String>> traces = multiplexedTraceOf( new MethodSkippingVisitor(), new DocTagVisitor() );
+
+        assertEquals( 0, count( traces.get( 0 ), "visit SimpleName Object" ) );
+        assertEquals( 1, count( traces.get( 1 ), "visit SimpleName Object" ) );
+    }
+
+    @Test
+    public void subtreeIsLeftOutWhenNoVisitorIsInterested() {
+        MethodDeclaration method = ((TypeDeclaration)compilationUnit.types().get( 0 )).getMethods()[1];
+        MultiplexingVisitor multiplexer = new MultiplexingVisitor( asList( new MethodSkippingVisitor() ) );
+
+        assertFalse( multiplexer.visit( method ) );
+    }
+
+    @Test
+    public void visitorsWithoutInterestInANodeTypeAreNotCalled() {
+        List<List<String>> traces = multiplexedTraceOf( new MethodSkippingVisitor(), new BlockSkippingVisitor() );
+
+        assertEquals( 0, count( traces.get( 1 ), "visit IfStatement" ) );
+        assertEquals( 0, count( traces.get( 0 ), "postVisit Block" ) );
+    }
+
+    private List<String> traceOf( RecordingVisitor... visitors ) {
+        List<String> result = new ArrayList<String>();
+        for( RecordingVisitor visitor : visitors ) {
+            compilationUnit.accept( visitor );
+            result.addAll( visitor.trace );
+        }
+        return result;
+    }
+
+    private List<List<String>> multiplexedTraceOf( RecordingVisitor... visitors ) {
+        compilationUnit.accept( new MultiplexingVisitor( asList( visitors ) ) );
+        List<List<String>> result = new ArrayList<List<String>>();
+        for( RecordingVisitor visitor : visitors ) {
+            result.add( visitor.trace );
+        }
+        return result;
+    }
+
+    private List<String> flatten( List<List<String>> traces ) {
+        List<String> result = new ArrayList<String>();
+        for( List<String> trace : traces ) {
+            result.addAll( trace );
+        }
+        return result;
+    }
+
+    private int count( List<String> trace, String prefix ) {
+        int result = 0;
+        for( String entry : trace ) {
+            if( entry.startsWith( prefix ) ) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private static class RecordingVisitor extends ASTVisitor {
+        final List<String> trace = new ArrayList<String>();
+
+        RecordingVisitor( boolean visitDocTags ) {
+            super( visitDocTags );
+        }
+
+        void record( String event, ASTNode node ) {
+            trace.add( event + " " + node.getClass().getSimpleName() + " " + nameOf( node ) ); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+        private String nameOf( ASTNode node ) {
+            if( node instanceof MethodDeclaration ) {
+                return ((MethodDeclaration)node).getName().getIdentifier();
+            }
+            if( node instanceof SimpleName ) {
+                return ((SimpleName)node).getIdentifier();
+            }
+            return String.valueOf( node.getStartPosition() );
+        }
+
+        @Override
+        public boolean visit( SimpleName node ) {
+            record( "visit", node ); //$NON-NLS-1$
+            return true;
+        }
+    }
+
+    private static class MethodSkippingVisitor extends RecordingVisitor {
+        MethodSkippingVisitor() {
+            super( false );
+        }
+
+        @Override
+        public boolean visit( MethodDeclaration node ) {
+            record( "visit", node ); //$NON-NLS-1$
+            return !node.getName().getIdentifier().equals( "skipped" ); //$NON-NLS-1$
+        }
+
+        @Override
+        public void endVisit( MethodDeclaration node ) {
+            record( "endVisit", node ); //$NON-NLS-1$
+        }
+
+        @Override
+        public boolean visit( IfStatement node ) {
+            record( "visit", node ); //$NON-NLS-1$
+            return true;
+        }
+    }
+
+    private static class BlockSkippingVisitor extends RecordingVisitor {
+        BlockSkippingVisitor() {
+            super( false );
+        }
+
+        @Override
+        public boolean preVisit2( ASTNode node ) {
+            return !(node instanceof Block);
+        }
+
+        @Override
+        public void postVisit( ASTNode node ) {
+            record( "postVisit", node ); //$NON-NLS-1$
+        }
+
+        @Override
+        public void endVisit( Block node ) {
+            record( "endVisit", node ); //$NON-NLS-1$
+        }
+    }
+
+    private static class DocTagVisitor extends RecordingVisitor {
+        DocTagVisitor() {
+            super( true );
+        }
+
+        @Override
+        public void endVisit( TypeDeclaration node ) {
+            record( "endVisit", node ); //$NON-NLS-1$
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.projectusus.core.proportions.rawdata.jdtdriver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.projectusus.core.metrics.ParserRequirement.BINDINGS;
+import static org.projectusus.core.metrics.ParserRequirement.METHOD_BODIES;
+import static org.projectusus.core.metrics.ParserRequirement.STATEMENTS_RECOVERY;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.junit.Before;
+import org.junit.Test;
+import org.projectusus.core.metrics.MetricsCollector;
+
+public class ParserProfileTest {
+
+    private Set<MetricsCollector> collectors;
+    private ASTParser parser;
+    private IJavaProject project;
+
+    @Before
+    public void setup() {
+        collectors = new HashSet<MetricsCollector>();
+        parser = mock( ASTParser.class );
+        project = mock( IJavaProject.class );
+    }
+
+    @Test
+    public void undeclaredCollectorRequiresBindingsAndMethodBodies() {
+        assertEquals( EnumSet.of( BINDINGS, METHOD_BODIES ), new Collector().getParserRequirements() );
+    }
+
+    @Test
+    public void extensionAttributesOverrideDefaults() {
+        MetricsCollector collector = collectorDeclaring( "false", null, "true" );
+
+        assertEquals( EnumSet.of( METHOD_BODIES, STATEMENTS_RECOVERY ), collector.getParserRequirements() );
+    }
+
+    @Test
+    public void structuralCollectorsGetCheapestParser() {
+        collectors.add( collectorDeclaring( "false", "false", null ) );
+        collectors.add( collectorDeclaring( "false", "false", "false" ) );
+
+        new ParserProfile( collectors ).configure( parser, project );
+
+        verify( parser ).setResolveBindings( false );
+        verify( parser ).setIgnoreMethodBodies( true );
+        verify( parser ).setStatementsRecovery( false );
+        verify( parser, never() ).setProject( project );
+    }
+
+    @Test
+    public void singleCollectorWithBindingsTurnsThemOn() {
+        collectors.add( collectorDeclaring( "false", "false", null ) );
+        collectors.add( collectorDeclaring( "true", "false", null ) );
+
+        new ParserProfile( collectors ).configure( parser, project );
+
+        verify( parser ).setResolveBindings( true );
+        verify( parser ).setIgnoreMethodBodies( true );
+        verify( parser ).setProject( project );
+    }
+
+    @Test
+    public void requirementsAreUnited() {
+        collectors.add( collectorDeclaring( "false", "true", null ) );
+        collectors.add( collectorDeclaring( "false", "false", "true" ) );
+
+        ParserProfile profile = new ParserProfile( collectors );
+
+        assertFalse( profile.requires( BINDINGS ) );
+        assertTrue( profile.requires( METHOD_BODIES ) );
+        assertTrue( profile.requires( STATEMENTS_RECOVERY ) );
+    }
+
+    private MetricsCollector collectorDeclaring( String bindings, String methodBodies, String statementsRecovery ) {
+        IConfigurationElement config = mock( IConfigurationElement.class );
+        when( config.getAttribute( BINDINGS.getAttributeName() ) ).thenReturn( bindings );
+        when( config.getAttribute( METHOD_BODIES.getAttributeName() ) ).thenReturn( methodBodies );
+        when( config.getAttribute( STATEMENTS_RECOVERY.getAttributeName() ) ).thenReturn( statementsRecovery );
+        MetricsCollector collector = new Collector();
+        collector.setInitializationData( config, "class", null );
+        return collector;
+    }
+
+    private static class Collector extends MetricsCollector {
+        // no visits needed
+    }
+}
@@ -62,4 +62,9 @@ public class ACDStatistic extends CockpitExtension {
                 "A class is regarded as hotspot when its CCD exceeds a value that depends on the project size.\n" //$NON-NLS-1$
                 + "For small projects, a CCD that equals 15 % of the total number of classes is acceptable, while classes in large projects should not exceed a value of 5 %.\n" + getDescription(); //$NON-NLS-1$
     }
+
+    @Override
+    protected boolean readsClassRelations() {
+        return false;
+    }
 }
@@ -76,7 +76,7 @@ public class LackOfCohesionOfClassesStatistic extends CockpitExtension {
 
     @Override
     public int getViolations() {
-        return new PackageRelations().getPackageCycles().numberOfPackagesInAnyCycles();
+        return PackageRelations.current().getPackageCycles().numberOfPackagesInAnyCycles();
     }
 
     @Override
@@ -54,4 +54,9 @@ public class LinearClassSizeStatistic extends CockpitExtension {
     protected String hotspotsAreUnits() {
         return format( "with more than %d methods.", KG_LIMIT );
     }
+
+    @Override
+    protected boolean readsClassRelations() {
+        return false;
+    }
 }
@@ -1,10 +1,13 @@
 package org.projectusus.statistics;
 
+import org.eclipse.core.resources.IProject;
+import org.projectusus.core.IMethodColumnsVisitor;
+import org.projectusus.core.basis.MethodColumns;
 import org.projectusus.core.basis.MetricsResults;
 import org.projectusus.core.basis.SourceCodeLocation;
 import org.projectusus.core.statistics.CockpitExtension;
 
-public class LinearCyclomaticComplexityStatistic extends CockpitExtension {
+public class LinearCyclomaticComplexityStatistic extends CockpitExtension implements IMethodColumnsVisitor {
 
     public static final int CC_LIMIT = 4;
 
@@ -18,6 +21,18 @@ public class LinearCyclomaticComplexityStatistic extends CockpitExtension {
     public void inspectMethod( SourceCodeLocation location, MetricsResults results ) {
         int ccValue = valueForMethod( results );
         addResult( location, ccValue );
+        addViolations( ccValue );
+    }
+
+    public void inspectMethods( @SuppressWarnings( "unused" ) IProject project, MethodColumns methods ) {
+        int[] ccValues = methods.getColumn( MetricsResults.CC, 1 );
+        for( int method = 0; method < ccValues.length; method++ ) {
+            addResult( methods.getFile( methods.getOwner( method ) ), methods.getLocation( method ), ccValues[method] );
+            addViolations( ccValues[method] );
+        }
+    }
+
+    private void addViolations( int ccValue ) {
         int exceedingCC = ccValue - CC_LIMIT;
         if( exceedingCC > 0 ) {
             linearViolations += ((double)exceedingCC / CC_LIMIT);
@@ -49,4 +64,9 @@ public class LinearCyclomaticComplexityStatistic extends CockpitExtension {
     protected String hotspotsAreUnits() {
         return format( "with a CC greater than %d.", CC_LIMIT );
     }
+
+    @Override
+    protected boolean readsClassRelations() {
+        return false;
+    }
 }
@@ -1,10 +1,13 @@
 package org.projectusus.statistics;
 
+import org.eclipse.core.resources.IProject;
+import org.projectusus.core.IMethodColumnsVisitor;
+import org.projectusus.core.basis.MethodColumns;
 import org.projectusus.core.basis.MetricsResults;
 import org.projectusus.core.basis.SourceCodeLocation;
 import org.projectusus.core.statistics.CockpitExtension;
 
-public class LinearMethodLengthStatistic extends CockpitExtension {
+public class LinearMethodLengthStatistic extends CockpitExtension implements IMethodColumnsVisitor {
 
     public static final int ML_LIMIT = 9;
 
@@ -18,6 +21,18 @@ public class LinearMethodLengthStatistic extends CockpitExtension {
     public void inspectMethod( SourceCodeLocation location, MetricsResults result ) {
         int methodLength = valueForMethod( result );
         addResult( location, methodLength );
+        addViolations( methodLength );
+    }
+
+    public void inspectMethods( @SuppressWarnings( "unused" ) IProject project, MethodColumns methods ) {
+        int[] methodLengths = methods.getColumn( MetricsResults.ML, 0 );
+        for( int method = 0; method < methodLengths.length; method++ ) {
+            addResult( methods.getFile( methods.getOwner( method ) ), methods.getLocation( method ), methodLengths[method] );
+            addViolations( methodLengths[method] );
+        }
+    }
+
+    private void addViolations( int methodLength ) {
         int exceedingLines = methodLength - ML_LIMIT;
         if( exceedingLines > 0 ) {
             linearViolations += ((double)exceedingLines / ML_LIMIT);
@@ -49,4 +64,9 @@ public class LinearMethodLengthStatistic extends CockpitExtension {
                 + "This value is similar to the number of lines of code, but it ignores empty lines, comments and single brackets.\n" + getDescription(); //$NON-NLS-1$
     }
 
+    @Override
+    protected boolean readsClassRelations() {
+        return false;
+    }
+
 }
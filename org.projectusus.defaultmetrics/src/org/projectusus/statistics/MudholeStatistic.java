@@ -1,10 +1,13 @@
 package org.projectusus.statistics;
 
+import org.eclipse.core.resources.IProject;
+import org.projectusus.core.IMethodColumnsVisitor;
+import org.projectusus.core.basis.MethodColumns;
 import org.projectusus.core.basis.MetricsResults;
 import org.projectusus.core.basis.SourceCodeLocation;
 import org.projectusus.core.statistics.CockpitExtension;
 
-public class MudholeStatistic extends CockpitExtension {
+public class MudholeStatistic extends CockpitExtension implements IMethodColumnsVisitor {
 
     private static final int MUDHOLE_LIMIT = 49;
 
@@ -23,8 +26,7 @@ public class MudholeStatistic extends CockpitExtension {
 
     @Override
     public void inspectClass( SourceCodeLocation location, MetricsResults results ) {
-        int result = classSize.valueForClass( results );
-        currentClassValue = result >= LinearClassSizeStatistic.KG_LIMIT ? result : 0;
+        currentClassValue = valueForClass( results );
     }
 
     @Override
@@ -34,6 +36,25 @@ public class MudholeStatistic extends CockpitExtension {
         addResult( location, methodValue );
     }
 
+    public void inspectMethods( @SuppressWarnings( "unused" ) IProject project, MethodColumns methods ) {
+        int[] classValues = new int[methods.getClassCount()];
+        for( int owner = 0; owner < classValues.length; owner++ ) {
+            classValues[owner] = valueForClass( methods.getClassResults( owner ) );
+        }
+        int[] methodLengths = methods.getColumn( MetricsResults.ML, 0 );
+        int[] ccValues = methods.getColumn( MetricsResults.CC, 1 );
+        for( int method = 0; method < methodLengths.length; method++ ) {
+            int owner = methods.getOwner( method );
+            int methodValue = methodLengths[method] * ccValues[method] + classValues[owner];
+            addResult( methods.getFile( owner ), methods.getLocation( method ), methodValue );
+        }
+    }
+
+    private int valueForClass( MetricsResults results ) {
+        int result = classSize.valueForClass( results );
+        return result >= LinearClassSizeStatistic.KG_LIMIT ? result : 0;
+    }
+
     @Override
     public String getLabel() {
         return "Mudholes"; //$NON-NLS-1$
@@ -50,4 +71,9 @@ public class MudholeStatistic extends CockpitExtension {
         return format( "\nRating function: f(ML) * f(CC) + f(KG) > %d", MUDHOLE_LIMIT ); //$NON-NLS-1$
     }
 
+    @Override
+    protected boolean readsClassRelations() {
+        return false;
+    }
+
 }
@@ -23,7 +23,7 @@ public class PackageCycleStatistic extends CockpitExtension {
     @Override
     public CodeProportion getCodeProportion() {
         CodeStatistic basisStatistic = getBasisStatistic();
-        PackageCycles packageCycles = new PackageRelations().getPackageCycles();
+        PackageCycles packageCycles = PackageRelations.current().getPackageCycles();
         int violations = packageCycles.numberOfPackagesInAnyCycles();
         double level = calculateAverage( violations, basisStatistic.getValue() );
         return new CodeProportion( getLabel(), getDescription(), getTooltip(), violations, basisStatistic, level, createHotspots( packageCycles ), getHistogram(),
@@ -53,7 +53,7 @@ public class PackageCycleStatistic extends CockpitExtension {
 
     @Override
     public int getViolations() {
-        return new PackageRelations().getPackageCycles().numberOfPackagesInAnyCycles();
+        return PackageRelations.current().getPackageCycles().numberOfPackagesInAnyCycles();
     }
 
     @Override
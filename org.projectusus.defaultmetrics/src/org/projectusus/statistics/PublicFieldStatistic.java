@@ -30,4 +30,9 @@ public class PublicFieldStatistic extends CockpitExtension {
     protected String getRatingFunction() {
         return "";
     }
+
+    @Override
+    protected boolean readsClassRelations() {
+        return false;
+    }
 }
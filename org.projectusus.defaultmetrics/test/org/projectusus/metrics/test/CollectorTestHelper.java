@@ -12,6 +12,7 @@ import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.projectusus.core.filerelations.model.ASTNodeHelper;
+import org.projectusus.core.filerelations.model.Packagename;
 import org.projectusus.metrics.util.ClassValueVisitor;
 import org.projectusus.metrics.util.MethodValueVisitor;
 
@@ -37,6 +38,7 @@ public class CollectorTestHelper {
         ASTNodeHelper helper = mock( ASTNodeHelper.class );
         ITypeBinding typeBinding = createTypeBinding( classname, packagename );
         when( helper.resolveBindingOf( org.mockito.Matchers.any( AbstractTypeDeclaration.class ) ) ).thenReturn( typeBinding );
+        when( helper.getPackagenameOf( org.mockito.Matchers.any( AbstractTypeDeclaration.class ) ) ).thenReturn( Packagename.of( packagename, null ) );
         return helper;
     }
 
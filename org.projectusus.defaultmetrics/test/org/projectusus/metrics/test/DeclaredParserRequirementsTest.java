@@ -0,0 +1,90 @@
+package org.projectusus.metrics.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.projectusus.core.metrics.ParserRequirement.BINDINGS;
+import static org.projectusus.core.metrics.ParserRequirement.METHOD_BODIES;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.junit.Before;
+import org.junit.Test;
+import org.projectusus.core.metrics.MetricsCollector;
+import org.projectusus.core.metrics.ParserRequirement;
+import org.projectusus.metrics.ClassRelationsCollector;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+public class DeclaredParserRequirementsTest {
+
+    private List<MetricsCollector> collectors;
+
+    @Before
+    public void setup() throws Exception {
+        collectors = declaredCollectors();
+    }
+
+    @Test
+    public void allCollectorsAreDeclared() {
+        assertEquals( 6, collectors.size() );
+    }
+
+    @Test
+    public void metricsCollectorsGetParserWithoutBindings() {
+        Set<ParserRequirement> requirements = EnumSet.noneOf( ParserRequirement.class );
+        for( MetricsCollector collector : collectors ) {
+            if( !(collector instanceof ClassRelationsCollector) ) {
+                requirements.addAll( collector.getParserRequirements() );
+            }
+        }
+
+        assertFalse( requirements.contains( BINDINGS ) );
+        assertTrue( requirements.contains( METHOD_BODIES ) );
+    }
+
+    @Test
+    public void onlyClassRelationsRequireBindings() {
+        for( MetricsCollector collector : collectors ) {
+            boolean isClassRelations = collector instanceof ClassRelationsCollector;
+            assertEquals( collector.getClass().getName(), isClassRelations, collector.getParserRequirements().contains( BINDINGS ) );
+        }
+    }
+
+    // the collectors as the extension registry would create them from the plugin.xml
+    private List<MetricsCollector> declaredCollectors() throws Exception {
+        InputStream pluginXml = getClass().getClassLoader().getResourceAsStream( "plugin.xml" ); //$NON-NLS-1$
+        NodeList declarations;
+        try {
+            declarations = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse( pluginXml ).getElementsByTagName( "metrics" ); //$NON-NLS-1$
+        } finally {
+            pluginXml.close();
+        }
+        List<MetricsCollector> result = new ArrayList<MetricsCollector>();
+        for( int index = 0; index < declarations.getLength(); index++ ) {
+            Element declaration = (Element)declarations.item( index );
+            MetricsCollector collector = (MetricsCollector)Class.forName( declaration.getAttribute( "class" ) ).newInstance(); //$NON-NLS-1$
+            collector.setInitializationData( configurationOf( declaration ), "class", null ); //$NON-NLS-1$
+            result.add( collector );
+        }
+        return result;
+    }
+
+    private IConfigurationElement configurationOf( Element declaration ) {
+        IConfigurationElement config = mock( IConfigurationElement.class );
+        for( ParserRequirement requirement : ParserRequirement.values() ) {
+            String name = requirement.getAttributeName();
+            when( config.getAttribute( name ) ).thenReturn( declaration.hasAttribute( name ) ? declaration.getAttribute( name ) : null );
+        }
+        return config;
+    }
+}
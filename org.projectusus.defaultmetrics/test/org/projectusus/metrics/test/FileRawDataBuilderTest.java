@@ -0,0 +1,108 @@
+package org.projectusus.metrics.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.projectusus.metrics.util.CountingUtils.getNumberOfClasses;
+import static org.projectusus.metrics.util.CountingUtils.getNumberOfMethods;
+import static org.projectusus.metrics.util.TypeBindingMocker.createFile;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.junit.Before;
+import org.junit.Test;
+import org.projectusus.core.IFileMetricsWriter;
+import org.projectusus.core.basis.MetricsResults;
+import org.projectusus.core.statistics.UsusModelProvider;
+import org.projectusus.metrics.util.MethodValueVisitor;
+
+public class FileRawDataBuilderTest extends CollectorTestHelper {
+
+    private static final String CLASS_NAME = "ClassName";
+    private static final String METHOD = "method";
+    private static final String CLASS_NAME_METHOD = CLASS_NAME + "." + METHOD + "()";
+
+    private IFile file;
+    private MethodDeclaration method;
+
+    @Before
+    public void setup() throws JavaModelException {
+        nodeHelper = setupNodeHelperForMethod( CLASS_NAME );
+        UsusModelProvider.clear( nodeHelper );
+        file = createFile();
+        method = setupMethodDeclMock( METHOD );
+    }
+
+    @Test
+    public void nothingVisibleBeforeCommit() {
+        IFileMetricsWriter builder = UsusModelProvider.getMetricsWriter( file );
+        builder.putData( file, method, MetricsResults.ML, 3 );
+
+        assertEquals( 0, getNumberOfClasses() );
+        assertEquals( 0, getNumberOfMethods() );
+
+        builder.commit();
+
+        assertEquals( 1, getNumberOfClasses() );
+        assertEquals( 3, valueOf( MetricsResults.ML ) );
+    }
+
+    @Test
+    public void commitReplacesPreviousData() {
+        IFileMetricsWriter first = UsusModelProvider.getMetricsWriter( file );
+        first.putData( file, method, MetricsResults.ML, 3 );
+        first.commit();
+
+        IFileMetricsWriter second = UsusModelProvider.getMetricsWriter( file );
+        second.putData( file, method, MetricsResults.ML, 5 );
+        second.commit();
+
+        assertEquals( 1, getNumberOfClasses() );
+        assertEquals( 1, getNumberOfMethods() );
+        assertEquals( 5, valueOf( MetricsResults.ML ) );
+    }
+
+    @Test
+    public void emptyCommitDropsData() {
+        IFileMetricsWriter builder = UsusModelProvider.getMetricsWriter( file );
+        builder.putData( file, method, MetricsResults.ML, 3 );
+        builder.commit();
+
+        UsusModelProvider.getMetricsWriter( file ).commit();
+
+        assertEquals( 0, getNumberOfClasses() );
+    }
+
+    @Test
+    public void declarationIsResolvedOnce() {
+        IFileMetricsWriter builder = UsusModelProvider.getMetricsWriter( file );
+        builder.putData( file, method, MetricsResults.ML, 3 );
+        builder.putData( file, method, MetricsResults.CC, 2 );
+        builder.commit();
+
+        verify( nodeHelper, times( 1 ) ).findEnclosingClassOf( method );
+        assertEquals( 2, valueOf( MetricsResults.CC ) );
+    }
+
+    @Test
+    public void classIsFiledWithoutBinding() {
+        when( nodeHelper.resolveBindingOf( any( AbstractTypeDeclaration.class ) ) ).thenReturn( null );
+
+        IFileMetricsWriter builder = UsusModelProvider.getMetricsWriter( file );
+        builder.putData( file, method, MetricsResults.ML, 3 );
+        builder.commit();
+
+        assertEquals( 1, getNumberOfClasses() );
+        assertEquals( 3, valueOf( MetricsResults.ML ) );
+    }
+
+    private int valueOf( String key ) {
+        MethodValueVisitor visitor = new MethodValueVisitor( key );
+        visitor.visit();
+        return visitor.getValueMap().get( CLASS_NAME_METHOD ).intValue();
+    }
+}
@@ -0,0 +1,135 @@
+package org.projectusus.metrics.test;
+
+import static org.projectusus.metrics.util.TypeBindingMocker.createFile;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.projectusus.core.metrics.MetricsCollector;
+import org.projectusus.core.proportions.rawdata.jdtdriver.MultiplexingVisitor;
+import org.projectusus.core.statistics.UsusModelProvider;
+import org.projectusus.metrics.AbstractClassCollector;
+import org.projectusus.metrics.CCCollector;
+import org.projectusus.metrics.ClassCollector;
+import org.projectusus.metrics.ClassRelationsCollector;
+import org.projectusus.metrics.MLCollector;
+import org.projectusus.metrics.PublicFieldCollector;
+
+/**
+ * Compares walking each AST once per collector (as JavaFileDriver used to) with a single walk through a {@link MultiplexingVisitor}. Not
+ * part of the test suite; run it as a Java application.
+ * <p>
+ * The ASTs are parsed without bindings, so the collectors do all their visiting but the metrics writer drops the values. The numbers
+ * therefore show the traversal cost only, which is what the multiplexer changes.
+ */
+public class MultiplexingVisitorBenchmark {
+
+    private static final int UNITS = 200;
+    private static final int METHODS_PER_UNIT = 40;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int ROUNDS = 30;
+
+    private final List<CompilationUnit> compilationUnits = new ArrayList<CompilationUnit>();
+    private final Set<MetricsCollector> collectors = new LinkedHashSet<MetricsCollector>();
+    private final IFile file = createFile();
+
+    public static void main( String[] args ) {
+        new MultiplexingVisitorBenchmark().run();
+    }
+
+    private MultiplexingVisitorBenchmark() {
+        for( int unit = 0; unit < UNITS; unit++ ) {
+            compilationUnits.add( parse( sourceOf( unit ) ) );
+        }
+        collectors.add( new AbstractClassCollector() );
+        collectors.add( new CCCollector() );
+        collectors.add( new ClassCollector() );
+        collectors.add( new ClassRelationsCollector() );
+        collectors.add( new MLCollector() );
+        collectors.add( new PublicFieldCollector() );
+        for( MetricsCollector collector : collectors ) {
+            collector.setup( file, UsusModelProvider.getMetricsWriter() );
+        }
+    }
+
+    private void run() {
+        for( int round = 0; round < WARMUP_ROUNDS; round++ ) {
+            walkOncePerCollector();
+            walkMultiplexed();
+        }
+        long multiPass = 0;
+        long singlePass = 0;
+        for( int round = 0; round < ROUNDS; round++ ) {
+            multiPass += walkOncePerCollector();
+            singlePass += walkMultiplexed();
+        }
+        report( "one walk per collector", multiPass ); //$NON-NLS-1$
+        report( "multiplexed single walk", singlePass ); //$NON-NLS-1$
+        System.out.println( String.format( "speedup: %.2fx", Double.valueOf( (double)multiPass / singlePass ) ) ); //$NON-NLS-1$
+    }
+
+    private long walkOncePerCollector() {
+        long start = System.nanoTime();
+        for( CompilationUnit compilationUnit : compilationUnits ) {
+            for( MetricsCollector collector : collectors ) {
+                compilationUnit.accept( collector );
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long walkMultiplexed() {
+        long start = System.nanoTime();
+        for( CompilationUnit compilationUnit : compilationUnits ) {
+            compilationUnit.accept( new MultiplexingVisitor( collectors ) );
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void report( String label, long nanos ) {
+        String message = "%-24s %8.2f ms per round (%d files, %d collectors)"; //$NON-NLS-1$
+        System.out.println( String.format( message, label, Double.valueOf( nanos / 1e6 / ROUNDS ), Integer.valueOf( UNITS ),
+                Integer.valueOf( collectors.size() ) ) );
+    }
+
+    private static CompilationUnit parse( String source ) {
+        ASTParser parser = ASTParser.newParser( AST.JLS3 );
+        parser.setKind( ASTParser.K_COMPILATION_UNIT );
+        parser.setSource( source.toCharArray() );
+        return (CompilationUnit)parser.createAST( null );
+    }
+
+    private static String sourceOf( int unit ) {
+        StringBuilder result = new StringBuilder();
+        result.append( "package bench;\n" ); //$NON-NLS-1$
+        result.append( "import java.util.*;\n" ); //$NON-NLS-1$
+        result.append( "/** Generated class number " + unit + ". */\n" ); //$NON-NLS-1$ //$NON-NLS-2$
+        result.append( "public class Generated" + unit + " extends AbstractList<String> {\n" ); //$NON-NLS-1$ //$NON-NLS-2$
+        result.append( "    public int counter;\n" ); //$NON-NLS-1$
+        result.append( "    private final List<String> items = new ArrayList<String>();\n" ); //$NON-NLS-1$
+        for( int method = 0; method < METHODS_PER_UNIT; method++ ) {
+            result.append( "    /** Does the work of step " + method + ". */\n" ); //$NON-NLS-1$ //$NON-NLS-2$
+            result.append( "    public int step" + method + "( int limit, Map<String, Integer> lookup ) {\n" ); //$NON-NLS-1$ //$NON-NLS-2$
+            result.append( "        int sum = 0;\n" ); //$NON-NLS-1$
+            result.append( "        for( int i = 0; i < limit && sum >= 0; i++ ) {\n" ); //$NON-NLS-1$
+            result.append( "            if( i % 3 == 0 || lookup.containsKey( items.get( i ) ) ) { sum += i; }\n" ); //$NON-NLS-1$
+            result.append( "            else { sum -= lookup.get( String.valueOf( i ) ).intValue(); }\n" ); //$NON-NLS-1$
+            result.append( "        }\n" ); //$NON-NLS-1$
+            result.append( "        switch( sum ) { case 0: return counter; case 1: return -1; default: break; }\n" ); //$NON-NLS-1$
+            result.append( "        try { items.add( new StringBuilder().append( sum ).toString() ); }\n" ); //$NON-NLS-1$
+            result.append( "        catch( RuntimeException e ) { return sum > 0 ? sum : -sum; }\n" ); //$NON-NLS-1$
+            result.append( "        return sum;\n" ); //$NON-NLS-1$
+            result.append( "    }\n" ); //$NON-NLS-1$
+        }
+        result.append( "    public String get( int index ) { return items.get( index ); }\n" ); //$NON-NLS-1$
+        result.append( "    public int size() { return items.size(); }\n" ); //$NON-NLS-1$
+        result.append( "}\n" ); //$NON-NLS-1$
+        return result.toString();
+    }
+}
@@ -106,4 +106,18 @@ public class LinearCyclomaticComplexityStatisticTest extends StatisticTestBase {
 
         assertThat( statistic.getAverage(), is( 50.0 ) );
     }
+
+    @Test
+    public void methodColumnsYieldTheSameAsSingleMethods() {
+        inspectMethodColumns( 5, 7 );
+
+        assertThat( statistic.getBasis(), is( 2 ) );
+        assertThat( statistic.getMetricsSum(), is( 12 ) );
+
+        assertThat( statistic.getViolations(), is( 2 ) );
+        assertThat( statistic.getHotspots().size(), is( 2 ) );
+        assertThat( statistic.getHotspots().get( 1 ).getMetricsValue(), is( 7 ) );
+
+        assertThat( statistic.getAverage(), is( 50.0 ) );
+    }
 }
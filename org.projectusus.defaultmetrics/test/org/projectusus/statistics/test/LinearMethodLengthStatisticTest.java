@@ -107,4 +107,18 @@ public class LinearMethodLengthStatisticTest extends StatisticTestBase {
 
         assertThat( statistic.getAverage(), is( 50.0 ) );
     }
+
+    @Test
+    public void methodColumnsYieldTheSameAsSingleMethods() {
+        inspectMethodColumns( 12, 15 );
+
+        assertThat( statistic.getBasis(), is( 2 ) );
+        assertThat( statistic.getMetricsSum(), is( 27 ) );
+
+        assertThat( statistic.getViolations(), is( 2 ) );
+        assertThat( statistic.getHotspots().size(), is( 2 ) );
+        assertThat( statistic.getHotspots().get( 1 ).getMetricsValue(), is( 15 ) );
+
+        assertThat( statistic.getAverage(), is( 50.0 ) );
+    }
 }
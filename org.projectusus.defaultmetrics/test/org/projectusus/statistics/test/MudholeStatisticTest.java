@@ -0,0 +1,84 @@
+package org.projectusus.statistics.test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.projectusus.core.testutil.PrimitiveAssert.assertThat;
+import static org.projectusus.core.testutil.PrimitiveMatchers.is;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.projectusus.core.basis.MetricsResults;
+import org.projectusus.statistics.MudholeStatistic;
+
+public class MudholeStatisticTest extends StatisticTestBase {
+
+    private MetricsResults classResults;
+
+    @Before
+    public void setup() {
+        statistic = new MudholeStatistic();
+        classResults = new MetricsResults();
+    }
+
+    @Test
+    public void constants() {
+        assertThat( statistic.getLabel(), is( "Mudholes" ) );
+    }
+
+    @Test
+    public void smallClassAddsNothingToItsMethods() {
+        classResults.put( MetricsResults.METHODS, 11 );
+
+        inspectSingleMethods( method( 5, 10 ), method( 7, 7 ) );
+
+        assertThat( statistic.getBasis(), is( 2 ) );
+        assertThat( statistic.getMetricsSum(), is( 99 ) );
+
+        assertThat( statistic.getViolations(), is( 1 ) );
+        assertThat( statistic.getHotspots().size(), is( 1 ) );
+        assertThat( statistic.getHotspots().get( 0 ).getMetricsValue(), is( 50 ) );
+    }
+
+    @Test
+    public void singleMethodsOfLargeClass() {
+        classResults.put( MetricsResults.METHODS, 12 );
+
+        inspectSingleMethods( method( 5, 10 ), method( 7, 7 ), new MetricsResults() );
+
+        assertLargeClassMethods();
+    }
+
+    @Test
+    public void methodColumnsYieldTheSameAsSingleMethods() {
+        classResults.put( MetricsResults.METHODS, 12 );
+
+        inspectMethodColumns( classResults, method( 5, 10 ), method( 7, 7 ), new MetricsResults() );
+
+        assertLargeClassMethods();
+    }
+
+    // method without values counts as ML 0 and CC 1
+    private void assertLargeClassMethods() {
+        assertThat( statistic.getBasis(), is( 3 ) );
+        assertThat( statistic.getMetricsSum(), is( 62 + 61 + 12 ) );
+
+        assertThat( statistic.getViolations(), is( 2 ) );
+        assertThat( statistic.getHotspots().size(), is( 2 ) );
+        assertThat( statistic.getHotspots().get( 0 ).getMetricsValue(), is( 62 ) );
+        assertThat( statistic.getHotspots().get( 1 ).getMetricsValue(), is( 61 ) );
+    }
+
+    private void inspectSingleMethods( MetricsResults... methodResults ) {
+        statistic.inspectClass( location, classResults );
+        for( MetricsResults each : methodResults ) {
+            statistic.inspectMethod( location, each );
+        }
+    }
+
+    private MetricsResults method( int ml, int cc ) {
+        MetricsResults result = new MetricsResults();
+        result.put( MetricsResults.ML, ml );
+        result.put( MetricsResults.CC, cc );
+        return result;
+    }
+}
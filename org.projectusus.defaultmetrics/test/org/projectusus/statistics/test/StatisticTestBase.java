@@ -1,5 +1,7 @@
 package org.projectusus.statistics.test;
 
+import org.projectusus.core.IMethodColumnsVisitor;
+import org.projectusus.core.basis.MethodColumns;
 import org.projectusus.core.basis.MetricsResults;
 import org.projectusus.core.basis.SourceCodeLocation;
 import org.projectusus.core.statistics.CockpitExtension;
@@ -21,4 +23,21 @@ public class StatisticTestBase {
         statistic.inspectClass( location, results );
     }
 
+    protected void inspectMethodColumns( int... values ) {
+        MetricsResults[] methodResults = new MetricsResults[values.length];
+        for( int index = 0; index < values.length; index++ ) {
+            methodResults[index] = new MetricsResults();
+            methodResults[index].put( metricsLabel, values[index] );
+        }
+        inspectMethodColumns( new MetricsResults(), methodResults );
+    }
+
+    protected void inspectMethodColumns( MetricsResults classResults, MetricsResults... methodResults ) {
+        MethodColumns methods = new MethodColumns();
+        methods.addClass( null, location, classResults );
+        for( MetricsResults each : methodResults ) {
+            methods.addMethod( location, each );
+        }
+        ((IMethodColumnsVisitor)statistic).inspectMethods( null, methods );
+    }
 }
@@ -12,17 +12,16 @@ import org.projectusus.ui.dependencygraph.nodes.IEdgeColorProvider;
 import org.projectusus.ui.dependencygraph.nodes.PackageRepresenter;
 
 import com.google.common.base.Predicate;
-import com.google.common.base.Predicates;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 
 public class PackageEdgeColorProvider implements IEdgeColorProvider {
 
     private Supplier<PackageRelations> packageRelationsSupplier;
+    // null while all packages are visible
     private Predicate<Packagename> isVisible;
 
     public PackageEdgeColorProvider() {
-        isVisible = Predicates.<Packagename> alwaysTrue();
         calculatePackageRelations();
     }
 
@@ -59,7 +58,7 @@ public class PackageEdgeColorProvider implements IEdgeColorProvider {
     public void calculatePackageRelations() {
         packageRelationsSupplier = Suppliers.memoize( new Supplier<PackageRelations>() {
             public PackageRelations get() {
-                return new PackageRelations( isVisible );
+                return isVisible == null ? PackageRelations.current() : new PackageRelations( isVisible );
             }
         } );
     }
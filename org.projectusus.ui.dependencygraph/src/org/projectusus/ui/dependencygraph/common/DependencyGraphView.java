@@ -291,6 +291,10 @@ public abstract class DependencyGraphView extends ViewPart implements IRestrictN
     private void initUsusModelListener() {
         listener = new IUsusModelListener() {
             public void ususModelChanged() {
+                // the relations are still changing while partial results are shown
+                if( UsusModelProvider.ususModel().hasPartialCodeProportions() ) {
+                    return;
+                }
                 Display.getDefault().asyncExec( new Runnable() {
                     public void run() {
                         model.invalidate();
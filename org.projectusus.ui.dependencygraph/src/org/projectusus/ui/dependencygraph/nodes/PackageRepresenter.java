@@ -21,7 +21,7 @@ public class PackageRepresenter extends PlatformObject implements GraphNode {
     private static PackageRelations relations;
 
     public static Set<GraphNode> getAllPackages() {
-        return transformToRepresenterSet( Packagename.getAll(), new PackageRelations() );
+        return transformToRepresenterSet( Packagename.getAll(), PackageRelations.current() );
     }
 
     public static Set<GraphNode> transformToRepresenterSet( Set<Packagename> classes, final PackageRelations rel ) {
@@ -35,7 +35,9 @@ public class SourceFolderFilterExtension {
 
     private final IUsusModelListener ususModelListener = new IUsusModelListener() {
         public void ususModelChanged() {
-            recomputeSourceFolders();
+            if( !ususModel().hasPartialCodeProportions() ) {
+                recomputeSourceFolders();
+            }
         }
     };
 
@@ -43,7 +43,9 @@ public class PackageGraphView extends DependencyGraphView {
         super( VIEW_ID, packageGraphModel, packageEdgeColorProvider );
         listener = new IUsusModelListener() {
             public void ususModelChanged() {
-                packageEdgeColorProvider.calculatePackageRelations();
+                if( !UsusModelProvider.ususModel().hasPartialCodeProportions() ) {
+                    packageEdgeColorProvider.calculatePackageRelations();
+                }
             }
         };
         UsusModelProvider.ususModel().addUsusModelListener( listener );
@@ -11,7 +11,7 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
-import org.projectusus.adapter.ForcedRecompute;
+import org.projectusus.adapter.InitialComputation;
 import org.projectusus.core.statistics.UsusModelProvider;
 
 public class UsusUIPlugin extends AbstractUIPlugin {
@@ -30,7 +30,7 @@ public class UsusUIPlugin extends AbstractUIPlugin {
     public void start( BundleContext context ) throws Exception {
         super.start( context );
         if( UsusModelProvider.ususModel().needsFullRecompute() ) {
-            new ForcedRecompute().schedule();
+            new InitialComputation().schedule();
         }
         plugin = this;
     }
@@ -4,16 +4,21 @@
 // See http://www.eclipse.org/legal/epl-v10.html for details.
 package org.projectusus.ui.internal.hotspots;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.eclipse.core.resources.IFile;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.ui.part.PageBook;
 import org.eclipse.ui.part.ViewPart;
+import org.projectusus.adapter.ComputationPriorities;
 import org.projectusus.ui.internal.AnalysisDisplayEntry;
+import org.projectusus.ui.internal.DisplayHotspot;
 import org.projectusus.ui.internal.hotspots.pages.DefaultHotspotsPage;
 import org.projectusus.ui.internal.hotspots.pages.HotspotsPage;
 import org.projectusus.ui.internal.hotspots.pages.IHotspotsPage;
@@ -58,6 +63,7 @@ public class HotSpotsView extends ViewPart {
     @Override
     public void dispose() {
         activePage = null;
+        ComputationPriorities.setHotspotFiles( Collections.<IFile> emptySet() );
         if( defaultPage != null ) {
             defaultPage.dispose();
         }
@@ -109,8 +115,10 @@ public class HotSpotsView extends ViewPart {
         if( page != null ) {
             page.setInput( entry );
             showPage( page );
+            prioritizeFilesOf( entry );
         } else {
             showPage( defaultPage );
+            ComputationPriorities.setHotspotFiles( Collections.<IFile> emptySet() );
         }
     }
 
@@ -119,11 +127,23 @@ public class HotSpotsView extends ViewPart {
             if( activePage != null ) {
                 if( activePage.matches( entry ) ) {
                     activePage.setInput( entry );
+                    prioritizeFilesOf( entry );
                 }
             }
         }
     }
 
+    // the computation looks at the files of the hotspots shown before the rest
+    private void prioritizeFilesOf( AnalysisDisplayEntry entry ) {
+        List<IFile> files = new ArrayList<IFile>();
+        for( DisplayHotspot<?> hotspot : entry.getHotspots() ) {
+            if( hotspot.getFile() != null ) {
+                files.add( hotspot.getFile() );
+            }
+        }
+        ComputationPriorities.setHotspotFiles( files );
+    }
+
     public void resetSort() {
         activePage.resetSort();
     }
@@ -34,6 +34,7 @@ public class CockpitView extends ViewPart implements ISnapshotView {
     private IDisplayModelListener listener;
     private SnapshotInfoUpdater updater;
     private final CockpitVisibilityListener visibilityListener = new CockpitVisibilityListener( this );
+    private OpenEditorsListener openEditorsListener;
 
     @Override
     public void createPartControl( Composite parent ) {
@@ -45,6 +46,8 @@ public class CockpitView extends ViewPart implements ISnapshotView {
         initSnapshotInfoUpdater();
         getViewSite().setSelectionProvider( treeViewer );
         getSite().getPage().addPartListener( visibilityListener );
+        openEditorsListener = new OpenEditorsListener( getSite().getPage() );
+        openEditorsListener.start();
     }
 
     private void initSnapshotInfoUpdater() {
@@ -68,6 +71,7 @@ public class CockpitView extends ViewPart implements ISnapshotView {
         updater.stop();
         displayModel().removeModelListener( listener );
         getSite().getPage().removePartListener( visibilityListener );
+        openEditorsListener.stop();
 
         super.dispose();
     }
@@ -128,6 +132,7 @@ public class CockpitView extends ViewPart implements ISnapshotView {
 
     private void handleDisplayModelChanged( AnalysisDisplayModel model ) {
         refresh( model );
+        updater.update( model.getSnapshot() );
     }
 
     private void refresh( AnalysisDisplayModel model ) {
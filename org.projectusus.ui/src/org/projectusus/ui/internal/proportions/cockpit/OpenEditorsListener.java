@@ -0,0 +1,84 @@
+// Copyright (c) 2009-2010 by the projectusus.org contributors
+// This software is released under the terms and conditions
+// of the Eclipse Public License (EPL) 1.0.
+// See http://www.eclipse.org/legal/epl-v10.html for details.
+package org.projectusus.ui.internal.proportions.cockpit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.ui.IEditorReference;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.IWorkbenchPartReference;
+import org.eclipse.ui.PartInitException;
+import org.eclipse.ui.ide.ResourceUtil;
+import org.projectusus.adapter.ComputationPriorities;
+import org.projectusus.ui.util.PartAdapter;
+
+/**
+ * tells the computation which files are open in editors, so that it computes them before the rest.
+ */
+class OpenEditorsListener extends PartAdapter {
+
+    private final IWorkbenchPage page;
+
+    OpenEditorsListener( IWorkbenchPage page ) {
+        this.page = page;
+    }
+
+    void start() {
+        page.addPartListener( this );
+        update( null );
+    }
+
+    void stop() {
+        page.removePartListener( this );
+        ComputationPriorities.setOpenFiles( Collections.<IFile> emptySet() );
+    }
+
+    @Override
+    public void partOpened( IWorkbenchPartReference partRef ) {
+        if( partRef instanceof IEditorReference ) {
+            update( null );
+        }
+    }
+
+    @Override
+    public void partClosed( IWorkbenchPartReference partRef ) {
+        if( partRef instanceof IEditorReference ) {
+            update( partRef );
+        }
+    }
+
+    @Override
+    public void partInputChanged( IWorkbenchPartReference partRef ) {
+        if( partRef instanceof IEditorReference ) {
+            update( null );
+        }
+    }
+
+    // internal
+    // ////////
+
+    // the closed editor may still be among the page's editors while it is being closed
+    private void update( IWorkbenchPartReference closedEditor ) {
+        List<IFile> files = new ArrayList<IFile>();
+        for( IEditorReference editor : page.getEditorReferences() ) {
+            IFile file = editor == closedEditor ? null : fileOf( editor );
+            if( file != null ) {
+                files.add( file );
+            }
+        }
+        ComputationPriorities.setOpenFiles( files );
+    }
+
+    private static IFile fileOf( IEditorReference editor ) {
+        try {
+            return ResourceUtil.getFile( editor.getEditorInput() );
+        } catch( PartInitException piex ) {
+            return null;
+        }
+    }
+}
@@ -15,6 +15,11 @@ public class SnapshotInfoBuilder {
         return "Snapshot taken at " + format( date ) + " (" + buildAgoMessage( date ) + ")"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
     }
 
+    public String buildInfo( Snapshot snapshot, boolean partialResults ) {
+        String info = buildInfo( snapshot );
+        return partialResults ? info + " - partial results, computation still running" : info; //$NON-NLS-1$
+    }
+
     protected String buildAgoMessage( Date date ) {
         return buildAgoMessage( date, new Date() );
     }
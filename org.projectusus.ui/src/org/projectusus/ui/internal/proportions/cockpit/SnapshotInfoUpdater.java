@@ -3,6 +3,7 @@ package org.projectusus.ui.internal.proportions.cockpit;
 import static org.projectusus.ui.internal.AnalysisDisplayModel.displayModel;
 
 import org.eclipse.swt.widgets.Display;
+import org.projectusus.core.statistics.UsusModelProvider;
 import org.projectusus.ui.internal.Snapshot;
 
 public class SnapshotInfoUpdater implements Runnable {
@@ -41,6 +42,6 @@ public class SnapshotInfoUpdater implements Runnable {
     }
 
     public void update( Snapshot snapshot ) {
-        view.updateSnapshotInfo( builder.buildInfo( snapshot ) );
+        view.updateSnapshotInfo( builder.buildInfo( snapshot, UsusModelProvider.ususModel().hasPartialCodeProportions() ) );
     }
 }
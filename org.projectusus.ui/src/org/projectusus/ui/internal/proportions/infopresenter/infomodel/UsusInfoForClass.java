@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
+import org.projectusus.core.IMetricsSnapshot;
 import org.projectusus.core.basis.JavaModelPath;
 import org.projectusus.core.statistics.visitors.CCDCountVisitor;
 import org.projectusus.core.statistics.visitors.MethodCountVisitor;
@@ -18,10 +19,10 @@ public class UsusInfoForClass extends UsusInfoForFile {
     }
 
     @Override
-    protected void addFormattedProportion( List<String> result ) throws JavaModelException {
-        super.addFormattedProportion( result );
-        result.add( UsusModelElementFormatter.format( "Class size", new MethodCountVisitor( path ).visitAndReturn().getMethodCount() ) ); //$NON-NLS-1$
-        result.add( UsusModelElementFormatter.format( "Cumulative Component Dependency (of class)", new CCDCountVisitor( path ).visitAndReturn().getMetricsSum() ) ); //$NON-NLS-1$
+    protected void addFormattedProportion( List<String> result, IMetricsSnapshot snapshot ) throws JavaModelException {
+        super.addFormattedProportion( result, snapshot );
+        result.add( UsusModelElementFormatter.format( "Class size", new MethodCountVisitor( path ).visitAndReturn( snapshot ).getMethodCount() ) ); //$NON-NLS-1$
+        result.add( UsusModelElementFormatter.format( "Cumulative Component Dependency (of class)", new CCDCountVisitor( path ).visitAndReturn( snapshot ).getMetricsSum() ) ); //$NON-NLS-1$
     }
 
     @Override
@@ -10,6 +10,8 @@ import java.util.List;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.jdt.core.JavaModelException;
+import org.projectusus.core.IMetricsSnapshot;
+import org.projectusus.core.statistics.UsusModelProvider;
 
 class UsusInfoForFile implements IUsusInfo {
 
@@ -23,7 +25,7 @@ class UsusInfoForFile implements IUsusInfo {
     public String[] getCodeProportionInfos() {
         try {
             List<String> result = new ArrayList<String>();
-            addFormattedProportion( result );
+            addFormattedProportion( result, UsusModelProvider.getSnapshot() );
             return result.toArray( new String[0] );
         } catch( JavaModelException jmox ) {
             return new String[] { "Error in calculating metrics values." }; //$NON-NLS-1$
@@ -31,7 +33,7 @@ class UsusInfoForFile implements IUsusInfo {
     }
 
     @SuppressWarnings( "unused" )
-    protected void addFormattedProportion( List<String> result ) throws JavaModelException {
+    protected void addFormattedProportion( List<String> result, IMetricsSnapshot snapshot ) throws JavaModelException {
         // dummy for subclasses
     }
 
@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.JavaModelException;
+import org.projectusus.core.IMetricsSnapshot;
 import org.projectusus.core.statistics.visitors.MethodVisitor;
 
 public class UsusInfoForMethod extends UsusInfoForClass {
@@ -16,9 +17,9 @@ public class UsusInfoForMethod extends UsusInfoForClass {
     }
 
     @Override
-    protected void addFormattedProportion( List<String> result ) throws JavaModelException {
-        super.addFormattedProportion( result );
-        MethodVisitor visitor = new MethodVisitor( method ).visitAndReturn();
+    protected void addFormattedProportion( List<String> result, IMetricsSnapshot snapshot ) throws JavaModelException {
+        super.addFormattedProportion( result, snapshot );
+        MethodVisitor visitor = new MethodVisitor( method ).visitAndReturn( snapshot );
         result.add( UsusModelElementFormatter.format( "Cyclomatic complexity", visitor.getCCValue() ) ); //$NON-NLS-1$
         result.add( UsusModelElementFormatter.format( "Method length", visitor.getMLValue() ) ); //$NON-NLS-1$
     }
@@ -27,6 +27,12 @@ public class SnapshotInfoBuilderTest {
         assertThat( info, endsWith( " (just now)" ) ); //$NON-NLS-1$
     }
 
+    @Test
+    public void buildInfoForPartialResults() {
+        assertThat( builder.buildInfo( new Snapshot(), false ), endsWith( " (just now)" ) ); //$NON-NLS-1$
+        assertThat( builder.buildInfo( new Snapshot(), true ), endsWith( " (just now) - partial results, computation still running" ) ); //$NON-NLS-1$
+    }
+
     @Test
     public void buildAgoMessage_InTheFuture() {
         assertThat( builder.buildAgoMessage( secondsAgo( -1 ), now ), equalTo( "in the future" ) ); //$NON-NLS-1$
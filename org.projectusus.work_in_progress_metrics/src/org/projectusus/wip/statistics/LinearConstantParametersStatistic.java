@@ -47,4 +47,9 @@ public class LinearConstantParametersStatistic extends CockpitExtension {
     protected String hotspotsAreUnits() {
         return format( "with a CP greater than %d.", CP_LIMIT );
     }
+
+    @Override
+    protected boolean readsClassRelations() {
+        return false;
+    }
 }
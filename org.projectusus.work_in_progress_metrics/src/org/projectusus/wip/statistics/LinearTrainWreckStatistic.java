@@ -94,4 +94,9 @@ public class LinearTrainWreckStatistic extends CockpitExtension {
     protected String hotspotsAreUnits() {
         return format( "with a train wreck limit greater than %d.", TRAINWRECK_LIMIT );
     }
+
+    @Override
+    protected boolean readsClassRelations() {
+        return false;
+    }
 }